@@ -0,0 +1,54 @@
+#!/bin/bash
+
+# Builds the checkpoint/restore image: builds Dockerfile.crac, runs it once so
+# the application warms up and writes a checkpoint, and commits that container
+# as the deployable image. Containers started from it restore the warm JVM.
+#
+# Usage: ./crac/build-image.sh [image]
+#   image  Tag of the resulting image (default: spring-native-servlet-poc:crac)
+#
+# Requires: docker on a Linux host (CRIU cannot checkpoint under Docker Desktop's
+# default VM settings on every platform). Set SKIP_BUILD=1 to reuse the base image.
+
+set -e
+
+cd "$(dirname "$0")/.."
+
+IMAGE=${1:-spring-native-servlet-poc:crac}
+BASE_IMAGE="$IMAGE-base"
+CONTAINER=crac-checkpoint
+CPUS=${CPUS:-2}
+MEMORY=${MEMORY:-512m}
+
+# Colors for output
+GREEN='\033[0;32m'
+BLUE='\033[0;34m'
+NC='\033[0m' # No Color
+
+if [ "$SKIP_BUILD" != "1" ]; then
+    echo -e "${BLUE}📦 Building $BASE_IMAGE...${NC}"
+    docker build -f Dockerfile.crac -t "$BASE_IMAGE" .
+fi
+
+echo -e "${BLUE}🔥 Warming up and taking the checkpoint...${NC}"
+docker rm -f "$CONTAINER" > /dev/null 2>&1 || true
+# The JVM is killed once the checkpoint is written, so a non-zero exit is expected
+docker run --name "$CONTAINER" --cpus "$CPUS" --memory "$MEMORY" \
+    --cap-add CHECKPOINT_RESTORE --cap-add SYS_PTRACE \
+    "$BASE_IMAGE" || true
+
+if ! docker logs "$CONTAINER" 2>&1 | grep -q "Taking checkpoint"; then
+    echo "The application did not reach the checkpoint, see: docker logs $CONTAINER" >&2
+    exit 1
+fi
+
+docker commit "$CONTAINER" "$IMAGE" > /dev/null
+docker rm "$CONTAINER" > /dev/null
+
+if ! docker run --rm --entrypoint sh "$IMAGE" -c 'ls /opt/crac-files/core-*.img' > /dev/null 2>&1; then
+    echo "No checkpoint was written to /opt/crac-files" >&2
+    exit 1
+fi
+
+echo -e "${GREEN}✅ Built $IMAGE${NC}"
+echo "Run it with: docker run --cap-add CHECKPOINT_RESTORE -p 8080:8080 $IMAGE"
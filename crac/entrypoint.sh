@@ -0,0 +1,19 @@
+#!/bin/sh
+
+# Container entry point for Dockerfile.crac.
+# With a checkpoint in $CRAC_FILES_DIR the warm JVM is restored from it.
+# Otherwise the application starts with the crac profile, warms up and
+# checkpoints into $CRAC_FILES_DIR, after which the JVM exits (this is the
+# run that ./crac/build-image.sh commits into the deployable image).
+
+set -e
+
+CRAC_FILES_DIR=${CRAC_FILES_DIR:-/opt/crac-files}
+
+if ls "$CRAC_FILES_DIR"/core-*.img > /dev/null 2>&1; then
+    exec java -XX:CRaCRestoreFrom="$CRAC_FILES_DIR"
+fi
+
+# Generic CPU features let the checkpoint restore on any x86-64 node, not only
+# on one with the same CPU as the build host
+exec java -XX:CRaCCheckpointTo="$CRAC_FILES_DIR" -XX:CPUFeatures=generic $JAVA_OPTS -jar /app/app.jar
@@ -0,0 +1,142 @@
+#!/bin/bash
+
+# Compares how fast each build becomes useful after its container starts:
+#   jar      the JAR image started without AOT or the CDS archive
+#   aot-cds  the same image as deployed (Spring AOT + application CDS archive)
+#   native   the native image
+#   crac     the JAR image restored from a warm checkpoint
+# All builds run under the same CPU/memory limits. For each start it records the
+# context refresh time reported in the log, the time from `docker run` to the
+# first 200 from /api/users/health and from GET /api/users, and the RSS once
+# ready. Latency of the requests right after startup shows how warm each build is.
+#
+# Usage: ./perf/compare-startup.sh [runs]
+#   runs  Starts per build (default: 5)
+#
+# Images (a build is skipped when its image is not present locally):
+#   JAR_IMAGE     default spring-native-servlet-poc:jar     (docker build -t ... .)
+#   NATIVE_IMAGE  default spring-native-servlet-poc:native  (docker build -f Dockerfile.native -t ... .)
+#   CRAC_IMAGE    default spring-native-servlet-poc:crac    (./crac/build-image.sh)
+#
+# Requires: docker, curl and hey (https://github.com/rakyll/hey)
+
+set -e
+
+RUNS=${1:-5}
+JAR_IMAGE=${JAR_IMAGE:-spring-native-servlet-poc:jar}
+NATIVE_IMAGE=${NATIVE_IMAGE:-spring-native-servlet-poc:native}
+CRAC_IMAGE=${CRAC_IMAGE:-spring-native-servlet-poc:crac}
+CPUS=${CPUS:-0.5}
+MEMORY=${MEMORY:-512m}
+PORT=18080
+RESULTS_DIR="perf/results/startup-$(date +%Y%m%d-%H%M%S)"
+BUILDS=(jar aot-cds native crac)
+
+# Colors for output
+GREEN='\033[0;32m'
+BLUE='\033[0;34m'
+NC='\033[0m' # No Color
+
+mkdir -p "$RESULTS_DIR"
+
+now_ms() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+# Prints the milliseconds between the given start time and the first 200 from the path
+wait_for_ok() {
+    local started=$1
+    local path=$2
+    local deadline=$(( started + 120000 ))
+    while [ "$(now_ms)" -lt "$deadline" ]; do
+        if curl -sf -o /dev/null "http://localhost:$PORT$path"; then
+            echo $(( $(now_ms) - started ))
+            return 0
+        fi
+        sleep 0.01
+    done
+    echo "Application did not answer $path within 120s" >&2
+    return 1
+}
+
+# Context refresh time in ms from Spring Boot's startup (or restore) log line
+refresh_ms() {
+    docker logs "$1" 2>&1 | awk '
+        /Started [A-Za-z]+ in [0-9.]+ seconds/ {
+            for (i = 1; i < NF; i++) if ($i == "in") { printf "%d\n", $(i + 1) * 1000; exit }
+        }
+        /restored JVM running for [0-9]+ ms/ {
+            for (i = 1; i < NF; i++) if ($i == "for") { print $(i + 1); exit }
+        }'
+}
+
+# Resident set size in MB of the largest process in the container
+rss_mb() {
+    docker exec "$1" sh -c 'cat /proc/[0-9]*/status 2>/dev/null' \
+        | awk '/^VmRSS:/ { if ($2 > max) max = $2 } END { printf "%d\n", max / 1024 }'
+}
+
+# Usage: run_build name image [docker run options...] [-- command...]
+run_build() {
+    local name=$1
+    local image=$2
+    shift 2
+    local options=()
+    while [ $# -gt 0 ] && [ "$1" != "--" ]; do
+        options+=("$1")
+        shift
+    done
+    [ "$1" == "--" ] && shift
+    local container="startup-$name"
+
+    if ! docker image inspect "$image" > /dev/null 2>&1; then
+        echo "Image $image not found, skipping $name"
+        return 0
+    fi
+
+    echo -e "${BLUE}▶ $name ($image, cpus=$CPUS, memory=$MEMORY, $RUNS runs)${NC}"
+    for run in $(seq 1 "$RUNS"); do
+        docker rm -f "$container" > /dev/null 2>&1 || true
+        local started
+        started=$(now_ms)
+        docker run -d --name "$container" --cpus "$CPUS" --memory "$MEMORY" \
+            "${options[@]}" -p "$PORT:8080" "$image" "$@" > /dev/null
+        wait_for_ok "$started" /api/users/health >> "$RESULTS_DIR/$name-ready-ms.txt"
+        wait_for_ok "$started" "/api/users?limit=20" >> "$RESULTS_DIR/$name-first-response-ms.txt"
+        refresh_ms "$container" >> "$RESULTS_DIR/$name-refresh-ms.txt"
+        rss_mb "$container" >> "$RESULTS_DIR/$name-rss-mb.txt"
+
+        # The requests right after startup, before the JIT has caught up
+        if [ "$run" -eq 1 ]; then
+            hey -n 2000 -c 10 "http://localhost:$PORT/api/users?limit=20" > "$RESULTS_DIR/$name-early-requests.txt"
+        fi
+        docker rm -f "$container" > /dev/null
+    done
+}
+
+median() {
+    sort -n "$1" | awk '{v[NR] = $1} END {if (NR) print v[int((NR + 1) / 2)]; else print "-"}'
+}
+
+summarize() {
+    echo -e "${GREEN}📊 Startup, medians of $RUNS runs ($RESULTS_DIR)${NC}"
+    printf "%-8s %12s %12s %16s %10s %12s\n" build refresh ready "first /api/users" rss "early p99"
+    for name in "${BUILDS[@]}"; do
+        [ -f "$RESULTS_DIR/$name-ready-ms.txt" ] || continue
+        local p99
+        p99=$(awk '/ 99% in/ {print $3}' "$RESULTS_DIR/$name-early-requests.txt")
+        printf "%-8s %12s %12s %16s %10s %12s\n" "$name" \
+            "$(median "$RESULTS_DIR/$name-refresh-ms.txt")ms" \
+            "$(median "$RESULTS_DIR/$name-ready-ms.txt")ms" \
+            "$(median "$RESULTS_DIR/$name-first-response-ms.txt")ms" \
+            "$(median "$RESULTS_DIR/$name-rss-mb.txt")MB" \
+            "${p99}s"
+    done
+}
+
+JAVA_OPTS="-XX:+UseContainerSupport -XX:MaxRAMPercentage=75.0 -XX:+UseG1GC"
+run_build jar "$JAR_IMAGE" --entrypoint sh -- -c "java $JAVA_OPTS -jar app.jar"
+run_build aot-cds "$JAR_IMAGE"
+run_build native "$NATIVE_IMAGE"
+run_build crac "$CRAC_IMAGE" --cap-add CHECKPOINT_RESTORE
+summarize | tee "$RESULTS_DIR/summary.txt"
@@ -0,0 +1,106 @@
+#!/bin/bash
+
+# Compares platform-thread and virtual-thread request execution under the
+# same CPU/memory limits and the same load profile.
+#
+# Usage: ./perf/compare-thread-modes.sh [image] [concurrency] [duration]
+#   image        Docker image to test (default: spring-native-servlet-poc:jar)
+#   concurrency  Concurrent clients (default: 400, well above Tomcat's 200 threads)
+#   duration     Duration per scenario (default: 60s)
+#
+# Requires: docker, curl and hey (https://github.com/rakyll/hey)
+
+set -e
+
+IMAGE=${1:-spring-native-servlet-poc:jar}
+CONCURRENCY=${2:-400}
+DURATION=${3:-60s}
+CPUS=${CPUS:-0.5}
+MEMORY=${MEMORY:-512m}
+SEED_USERS=${SEED_USERS:-5000}
+PORT=18080
+RESULTS_DIR="perf/results/thread-modes-$(date +%Y%m%d-%H%M%S)"
+
+# Colors for output
+GREEN='\033[0;32m'
+BLUE='\033[0;34m'
+NC='\033[0m' # No Color
+
+mkdir -p "$RESULTS_DIR"
+
+wait_for_health() {
+    for i in $(seq 1 120); do
+        if curl -sf "http://localhost:$PORT/api/users/health" > /dev/null; then
+            return 0
+        fi
+        sleep 1
+    done
+    echo "Application did not become healthy" >&2
+    return 1
+}
+
+seed_users() {
+    local batch=""
+    for i in $(seq 1 "$SEED_USERS"); do
+        batch="$batch{\"name\":\"User $i\",\"email\":\"user$i@example.com\"},"
+        if (( i % 500 == 0 )); then
+            curl -sf -o /dev/null -X POST "http://localhost:$PORT/api/users/batch" \
+                -H "Content-Type: application/json" -d "[${batch%,}]"
+            batch=""
+        fi
+    done
+}
+
+run_mode() {
+    local mode=$1
+    local profiles=$2
+    local container="thread-mode-$mode"
+
+    echo -e "${BLUE}▶ $mode threads (SPRING_PROFILES_ACTIVE=$profiles, cpus=$CPUS, memory=$MEMORY)${NC}"
+    docker rm -f "$container" > /dev/null 2>&1 || true
+    # The image's AOT bean definitions fix the thread model for its AOT_PROFILES,
+    # so both modes start without them to let the profile choose it
+    docker run -d --name "$container" --cpus "$CPUS" --memory "$MEMORY" \
+        -e SPRING_PROFILES_ACTIVE="$profiles" -e SPRING_AOT_ENABLED=false \
+        -e JAVA_OPTS="-XX:MaxRAMPercentage=75.0 -Djdk.virtualThreadScheduler.parallelism=8" \
+        -p "$PORT:8080" "$IMAGE" > /dev/null
+    wait_for_health
+    seed_users
+
+    # Warm-up, then the measured runs
+    hey -z 15s -c 50 "http://localhost:$PORT/api/users/1" > /dev/null
+    hey -z "$DURATION" -c "$CONCURRENCY" "http://localhost:$PORT/api/users/1" \
+        > "$RESULTS_DIR/$mode-get-by-id.txt"
+    hey -z "$DURATION" -c "$CONCURRENCY" "http://localhost:$PORT/api/users?limit=50" \
+        > "$RESULTS_DIR/$mode-page.txt"
+
+    docker stats --no-stream --format "{{.MemUsage}} {{.CPUPerc}}" "$container" \
+        > "$RESULTS_DIR/$mode-resources.txt"
+    # Peak platform threads: near Tomcat's 200 only when requests ran on platform threads
+    curl -sf "http://localhost:$PORT/actuator/metrics/jvm.threads.peak" \
+        | sed -E 's/.*"value":([0-9]+).*/\1/' > "$RESULTS_DIR/$mode-peak-threads.txt"
+    docker rm -f "$container" > /dev/null
+}
+
+summarize() {
+    echo -e "${GREEN}📊 Results ($RESULTS_DIR)${NC}"
+    printf "%-10s %-12s %12s %10s %10s %10s %12s\n" mode scenario "req/s" p50 p99 errors "peak threads"
+    for mode in platform virtual; do
+        for scenario in get-by-id page; do
+            local file="$RESULTS_DIR/$mode-$scenario.txt"
+            local rps p50 p99 errors
+            rps=$(awk '/Requests\/sec/ {print $2}' "$file")
+            p50=$(awk '/ 50% in/ {print $3}' "$file")
+            p99=$(awk '/ 99% in/ {print $3}' "$file")
+            errors=$(awk '/\[[0-9]+\][[:space:]]+[0-9]+ responses/ && !/\[200\]/ {sum += $2}
+                /\[[0-9]+\][[:space:]]+[A-Za-z]/ {gsub(/[][]/, "", $1); sum += $1}
+                END {print sum + 0}' "$file")
+            printf "%-10s %-12s %12s %10s %10s %10s %12s\n" "$mode" "$scenario" "$rps" "${p50}s" "${p99}s" "$errors" \
+                "$(cat "$RESULTS_DIR/$mode-peak-threads.txt")"
+        done
+    done
+}
+
+run_mode platform default
+run_mode virtual vthreads
+summarize | tee "$RESULTS_DIR/summary.txt"
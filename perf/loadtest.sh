@@ -0,0 +1,45 @@
+#!/bin/bash
+
+# Runs the load generator against the JAR build and, when it has been built,
+# the native build, one after the other on the same port, and writes a JSON
+# report to perf/results/.
+#
+# Usage: ./perf/loadtest.sh [load generator options]
+#   e.g. ./perf/loadtest.sh --rate=500 --duration=120 --mixes=read-heavy,mixed
+#
+# Set PROFILE to choose the Spring profile (default: default), SKIP_BUILD=1 to
+# reuse existing builds. The native build is produced with:
+#   ./mvnw -Pnative native:compile
+
+set -e
+
+cd "$(dirname "$0")/.."
+
+PROFILE=${PROFILE:-default}
+LOADTEST_DIR=perf/loadtest
+
+# Colors for output
+GREEN='\033[0;32m'
+BLUE='\033[0;34m'
+NC='\033[0m' # No Color
+
+if [ "$SKIP_BUILD" != "1" ]; then
+    echo -e "${BLUE}📦 Building application JAR...${NC}"
+    ./mvnw -q -B -DskipTests package
+fi
+
+echo -e "${BLUE}📦 Building load generator...${NC}"
+./mvnw -q -B -f "$LOADTEST_DIR/pom.xml" compile dependency:build-classpath \
+    -Dmdep.outputFile=target/classpath.txt
+
+JAR=$(ls target/native-jpa-servlet-*.jar | grep -v plain | head -1)
+TARGETS=("--target=jar=java -XX:MaxRAMPercentage=75.0 -jar $JAR --spring.profiles.active=$PROFILE")
+if [ -x target/native-jpa-servlet ]; then
+    TARGETS+=("--target=native=./target/native-jpa-servlet --spring.profiles.active=$PROFILE")
+else
+    echo "Native binary not found, measuring the JAR build only"
+fi
+
+echo -e "${GREEN}🚀 Running load test...${NC}"
+java -cp "$LOADTEST_DIR/target/classes:$(cat $LOADTEST_DIR/target/classpath.txt)" \
+    com.example.loadtest.LoadTest "${TARGETS[@]}" "$@"
@@ -0,0 +1,130 @@
+package com.example.loadtest;
+
+import com.example.loadtest.LoadTestOptions.TargetSpec;
+import com.example.loadtest.LoadTestReport.ScenarioReport;
+import com.example.loadtest.LoadTestReport.Settings;
+import com.example.loadtest.LoadTestReport.TargetReport;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+/**
+ * Load generator for the user API.
+ * Launches each build in turn, measures its time to first request and RSS,
+ * drives every configured mix at a fixed arrival rate, and writes a JSON
+ * report. See {@link LoadTestOptions#USAGE} for the options.
+ */
+public class LoadTest {
+    
+    private static final String HEALTH_PATH = "/api/users/health";
+    
+    private final LoadTestOptions options;
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    
+    public LoadTest(LoadTestOptions options) {
+        this.options = options;
+    }
+    
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options;
+        try {
+            options = LoadTestOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.print(LoadTestOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+        new LoadTest(options).run();
+    }
+    
+    public void run() throws IOException, InterruptedException {
+        List<TargetReport> targets = new ArrayList<>();
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        if (options.targets().isEmpty()) {
+            targets.add(runExternal(client));
+        } else {
+            for (TargetSpec target : options.targets()) {
+                targets.add(runLaunched(client, target));
+            }
+        }
+        
+        LoadTestReport report = new LoadTestReport(
+                OffsetDateTime.now().toString(),
+                new Settings(options.baseUrl().toString(), options.ratePerSecond(),
+                        options.warmup().toSeconds(), options.duration().toSeconds(),
+                        options.seedUsers(), options.maxInFlight()),
+                targets);
+        Path reportFile = options.reportFile().toAbsolutePath();
+        Files.createDirectories(reportFile.getParent());
+        objectMapper.writeValue(reportFile.toFile(), report);
+        printSummary(report);
+        System.out.println("Report written to " + reportFile);
+    }
+    
+    private TargetReport runLaunched(HttpClient client, TargetSpec spec) throws IOException, InterruptedException {
+        System.out.println("> " + spec.name() + ": " + String.join(" ", spec.command()));
+        Path log = options.reportFile().toAbsolutePath().resolveSibling(spec.name() + ".log");
+        try (ProcessTarget target = ProcessTarget.launch(spec.command(), log)) {
+            Duration firstRequest = target.awaitFirstRequest(client, healthUrl(), options.startupTimeout());
+            Long rssAfterStartup = target.currentRss();
+            System.out.printf("  first request after %d ms%n", firstRequest.toMillis());
+            List<ScenarioReport> scenarios = runScenarios(client, target);
+            return new TargetReport(spec.name(), spec.command(), firstRequest.toMillis(), rssAfterStartup, scenarios);
+        }
+    }
+    
+    private TargetReport runExternal(HttpClient client) throws IOException, InterruptedException {
+        System.out.println("> external: " + options.baseUrl());
+        ProcessTarget.awaitHealthy(client, healthUrl(), options.startupTimeout(), System.nanoTime(), null);
+        return new TargetReport("external", List.of(), null, null, runScenarios(client, null));
+    }
+    
+    private List<ScenarioReport> runScenarios(HttpClient client, ProcessTarget target)
+            throws IOException, InterruptedException {
+        Workload workload = new Workload(options.baseUrl(), objectMapper);
+        workload.seed(client, options.seedUsers());
+        OpenModelRunner runner = new OpenModelRunner(client, workload, options.maxInFlight());
+        
+        List<ScenarioReport> scenarios = new ArrayList<>();
+        for (Mix mix : options.mixes()) {
+            System.out.printf("  %s at %d/s for %ds...%n", mix.getName(), options.ratePerSecond(),
+                    options.duration().toSeconds());
+            scenarios.add(runner.run(mix, options.ratePerSecond(), options.warmup(), options.duration(), target));
+        }
+        return scenarios;
+    }
+    
+    private URI healthUrl() {
+        return options.baseUrl().resolve(HEALTH_PATH);
+    }
+    
+    private static void printSummary(LoadTestReport report) {
+        System.out.printf("%n%-10s %-12s %10s %9s %9s %9s %9s %8s %10s %10s%n",
+                "target", "mix", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "errors", "peak RSS", "TTFR ms");
+        for (TargetReport target : report.targets()) {
+            for (ScenarioReport scenario : target.scenarios()) {
+                System.out.printf("%-10s %-12s %10.1f %9.2f %9.2f %9.2f %9.2f %8d %10s %10s%n",
+                        target.name(), scenario.mix(), scenario.throughputPerSecond(),
+                        scenario.latency().p50(), scenario.latency().p99(), scenario.latency().p999(),
+                        scenario.latency().max(), scenario.errors(),
+                        scenario.peakRssBytes() == null ? "-" : scenario.peakRssBytes() / (1024 * 1024) + " MiB",
+                        target.timeToFirstRequestMillis() == null ? "-" : target.timeToFirstRequestMillis());
+            }
+        }
+    }
+}
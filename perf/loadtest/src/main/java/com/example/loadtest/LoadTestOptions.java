@@ -0,0 +1,103 @@
+package com.example.loadtest;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Command-line options, given as --name=value
+ */
+public record LoadTestOptions(
+        URI baseUrl,
+        List<TargetSpec> targets,
+        List<Mix> mixes,
+        int ratePerSecond,
+        Duration warmup,
+        Duration duration,
+        int seedUsers,
+        int maxInFlight,
+        Duration startupTimeout,
+        Path reportFile) {
+    
+    static final String USAGE = """
+            Usage: LoadTest [options]
+              --base-url=URL            Application URL (default http://localhost:8080)
+              --target=NAME=COMMAND     Launch and measure a build; repeat per build.
+                                        Without targets an already running application is tested.
+              --mixes=LIST              Comma-separated: read-heavy, write-heavy, mixed, or a
+                                        custom mix such as get-by-id:70+create:30 (default all three)
+              --rate=N                  Arrivals per second (default 200)
+              --warmup=SECONDS          Unmeasured warm-up per mix (default 15)
+              --duration=SECONDS        Measured duration per mix (default 60)
+              --seed-users=N            Users created before the run (default 2000)
+              --max-in-flight=N         Outstanding requests before new arrivals are dropped (default 2000)
+              --startup-timeout=SECONDS Wait for the first successful request (default 120)
+              --report=FILE             JSON report (default perf/results/loadtest-<timestamp>.json)
+            Operations: get-by-id, get-by-email, list-page, create, update, delete
+            """;
+    
+    /**
+     * A build to launch: a name for the report and the command that starts it
+     */
+    public record TargetSpec(String name, List<String> command) {
+    }
+    
+    static LoadTestOptions parse(String[] args) {
+        URI baseUrl = URI.create("http://localhost:8080");
+        List<TargetSpec> targets = new ArrayList<>();
+        List<Mix> mixes = List.of(Mix.readHeavy(), Mix.writeHeavy(), Mix.mixed());
+        int rate = 200;
+        Duration warmup = Duration.ofSeconds(15);
+        Duration duration = Duration.ofSeconds(60);
+        int seedUsers = 2_000;
+        int maxInFlight = 2_000;
+        Duration startupTimeout = Duration.ofSeconds(120);
+        Path report = Path.of("perf", "results", "loadtest-"
+                + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+        
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Invalid argument '" + arg + "'");
+            }
+            String value = arg.substring(separator + 1);
+            switch (arg.substring(2, separator)) {
+                case "base-url" -> baseUrl = URI.create(value);
+                case "target" -> targets.add(parseTarget(value));
+                case "mixes" -> mixes = Arrays.stream(value.split(",")).map(String::trim).map(Mix::parse).toList();
+                case "rate" -> rate = positive("rate", value);
+                case "warmup" -> warmup = Duration.ofSeconds(Integer.parseInt(value));
+                case "duration" -> duration = Duration.ofSeconds(positive("duration", value));
+                case "seed-users" -> seedUsers = positive("seed-users", value);
+                case "max-in-flight" -> maxInFlight = positive("max-in-flight", value);
+                case "startup-timeout" -> startupTimeout = Duration.ofSeconds(positive("startup-timeout", value));
+                case "report" -> report = Path.of(value);
+                default -> throw new IllegalArgumentException("Unknown option '" + arg + "'");
+            }
+        }
+        return new LoadTestOptions(baseUrl, targets, mixes, rate, warmup, duration, seedUsers, maxInFlight,
+                startupTimeout, report);
+    }
+    
+    private static TargetSpec parseTarget(String value) {
+        int separator = value.indexOf('=');
+        if (separator <= 0 || value.substring(separator + 1).isBlank()) {
+            throw new IllegalArgumentException("Invalid target '" + value + "', expected NAME=COMMAND");
+        }
+        return new TargetSpec(value.substring(0, separator),
+                List.of(value.substring(separator + 1).trim().split("\\s+")));
+    }
+    
+    private static int positive(String name, String value) {
+        int parsed = Integer.parseInt(value);
+        if (parsed <= 0) {
+            throw new IllegalArgumentException(name + " must be positive");
+        }
+        return parsed;
+    }
+}
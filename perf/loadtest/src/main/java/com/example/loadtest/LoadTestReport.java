@@ -0,0 +1,91 @@
+package com.example.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Machine-readable result of a load test run, written as JSON so runs can
+ * be diffed between releases. Latencies are in milliseconds, memory in bytes.
+ */
+public record LoadTestReport(
+        String generatedAt,
+        Settings settings,
+        List<TargetReport> targets) {
+    
+    public record Settings(
+            String baseUrl,
+            int ratePerSecond,
+            long warmupSeconds,
+            long durationSeconds,
+            int seedUsers,
+            int maxInFlight) {
+    }
+    
+    /**
+     * One build under test. Startup figures are null when the target was
+     * already running and was not launched by the load generator.
+     */
+    public record TargetReport(
+            String name,
+            List<String> command,
+            Long timeToFirstRequestMillis,
+            Long rssAfterStartupBytes,
+            List<ScenarioReport> scenarios) {
+    }
+    
+    /**
+     * One mix driven at a fixed arrival rate.
+     * latency is measured from the intended send time, correcting for
+     * coordinated omission; uncorrectedLatency from the actual send time.
+     * Dropped arrivals are included in requests and errors, and in latency at
+     * the request timeout.
+     */
+    public record ScenarioReport(
+            String mix,
+            Map<String, Integer> weights,
+            int targetRatePerSecond,
+            double throughputPerSecond,
+            long requests,
+            long errors,
+            long dropped,
+            Long peakRssBytes,
+            Long averageRssBytes,
+            Latency latency,
+            Latency uncorrectedLatency,
+            Map<String, OperationReport> operations) {
+    }
+    
+    public record OperationReport(long requests, long errors, Latency latency) {
+    }
+    
+    public record Latency(
+            double mean,
+            double p50,
+            double p90,
+            double p99,
+            double p999,
+            double max) {
+        
+        /**
+         * Summarize a histogram recorded in microseconds
+         */
+        static Latency of(Histogram micros) {
+            if (micros.getTotalCount() == 0) {
+                return new Latency(0, 0, 0, 0, 0, 0);
+            }
+            return new Latency(
+                    millis(micros.getMean()),
+                    millis(micros.getValueAtPercentile(50)),
+                    millis(micros.getValueAtPercentile(90)),
+                    millis(micros.getValueAtPercentile(99)),
+                    millis(micros.getValueAtPercentile(99.9)),
+                    millis(micros.getMaxValue()));
+        }
+        
+        private static double millis(double micros) {
+            return Math.round(micros) / 1000.0;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.loadtest;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A weighted mix of operations; each arrival picks one operation at random
+ * in proportion to its weight.
+ */
+public class Mix {
+    
+    private final String name;
+    private final Map<Operation, Integer> weights;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    
+    public Mix(String name, Map<Operation, Integer> weights) {
+        if (weights.isEmpty() || weights.values().stream().anyMatch(weight -> weight < 0)) {
+            throw new IllegalArgumentException("Mix '" + name + "' needs non-negative weights");
+        }
+        this.name = name;
+        this.weights = Collections.unmodifiableMap(new EnumMap<>(weights));
+        this.operations = this.weights.keySet().toArray(new Operation[0]);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += this.weights.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("Mix '" + name + "' needs at least one positive weight");
+        }
+    }
+    
+    /**
+     * 90% reads: lookups and pages, with a trickle of creates and updates
+     */
+    public static Mix readHeavy() {
+        return new Mix("read-heavy", Map.of(
+                Operation.GET_BY_ID, 60,
+                Operation.GET_BY_EMAIL, 15,
+                Operation.LIST_PAGE, 15,
+                Operation.CREATE, 5,
+                Operation.UPDATE, 5));
+    }
+    
+    /**
+     * 80% writes: creates, updates and deletes of users created during the run
+     */
+    public static Mix writeHeavy() {
+        return new Mix("write-heavy", Map.of(
+                Operation.GET_BY_ID, 20,
+                Operation.CREATE, 40,
+                Operation.UPDATE, 30,
+                Operation.DELETE, 10));
+    }
+    
+    /**
+     * Even split between reads and writes
+     */
+    public static Mix mixed() {
+        return new Mix("mixed", Map.of(
+                Operation.GET_BY_ID, 35,
+                Operation.GET_BY_EMAIL, 5,
+                Operation.LIST_PAGE, 10,
+                Operation.CREATE, 20,
+                Operation.UPDATE, 20,
+                Operation.DELETE, 10));
+    }
+    
+    /**
+     * Parse a predefined mix name, or a custom mix such as "get-by-id:70+create:30"
+     */
+    public static Mix parse(String spec) {
+        switch (spec) {
+            case "read-heavy":
+                return readHeavy();
+            case "write-heavy":
+                return writeHeavy();
+            case "mixed":
+                return mixed();
+            default:
+                Map<Operation, Integer> weights = new LinkedHashMap<>();
+                for (String entry : spec.split("\\+")) {
+                    String[] parts = entry.split(":");
+                    if (parts.length != 2) {
+                        throw new IllegalArgumentException("Invalid mix '" + spec + "', expected operation:weight");
+                    }
+                    weights.put(Operation.fromKey(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+                }
+                return new Mix(spec, weights);
+        }
+    }
+    
+    public Operation pick() {
+        int ticket = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (ticket < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        throw new IllegalStateException("Unreachable");
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public Map<Operation, Integer> getWeights() {
+        return weights;
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.loadtest;
+
+import com.example.loadtest.LoadTestReport.Latency;
+import com.example.loadtest.LoadTestReport.OperationReport;
+import com.example.loadtest.LoadTestReport.ScenarioReport;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives a mix at a fixed arrival rate (open model).
+ * Requests are scheduled at start + i / rate whether or not earlier ones have
+ * completed, and latency is measured from that intended time. A server stall
+ * therefore shows up in every request that should have been sent during it,
+ * instead of being hidden by a client that waits (coordinated omission).
+ * An arrival dropped because too many requests are outstanding counts as a
+ * failed request that took the full request timeout, so shedding load on the
+ * client side cannot flatter the corrected latency either.
+ */
+public class OpenModelRunner {
+    
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(2);
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(30);
+    
+    private final HttpClient client;
+    private final Workload workload;
+    private final int maxInFlight;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    
+    public OpenModelRunner(HttpClient client, Workload workload, int maxInFlight) {
+        this.client = client;
+        this.workload = workload;
+        this.maxInFlight = maxInFlight;
+    }
+    
+    /**
+     * Warm up, then measure the mix at the given rate
+     */
+    public ScenarioReport run(Mix mix, int ratePerSecond, Duration warmup, Duration duration,
+                              ProcessTarget target) throws InterruptedException {
+        drive(mix, ratePerSecond, warmup, new Recording());
+        if (target != null) {
+            target.resetRssStatistics();
+        }
+        
+        Recording recording = new Recording();
+        long elapsedNanos = drive(mix, ratePerSecond, duration, recording);
+        
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        mix.getWeights().forEach((operation, weight) -> weights.put(operation.key(), weight));
+        Map<String, OperationReport> operations = new LinkedHashMap<>();
+        recording.byOperation.forEach((operation, stats) -> {
+            if (stats.requests.sum() > 0) {
+                operations.put(operation.key(),
+                        new OperationReport(stats.requests.sum(), stats.errors.sum(), Latency.of(stats.latency)));
+            }
+        });
+        long requests = recording.requests.sum();
+        long errors = recording.errors.sum();
+        double throughput = (requests - errors) / (elapsedNanos / 1e9);
+        
+        return new ScenarioReport(
+                mix.getName(),
+                weights,
+                ratePerSecond,
+                Math.round(throughput * 10) / 10.0,
+                requests,
+                errors,
+                recording.dropped.sum(),
+                target == null ? null : target.peakRss(),
+                target == null ? null : target.averageRss(),
+                Latency.of(recording.latency),
+                Latency.of(recording.uncorrectedLatency),
+                operations);
+    }
+    
+    /**
+     * Issue requests on schedule for the given duration and wait for them to complete
+     * @return nanoseconds from the first intended send to the last completion
+     */
+    private long drive(Mix mix, int ratePerSecond, Duration duration, Recording recording)
+            throws InterruptedException {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+        long durationNanos = duration.toNanos();
+        long start = System.nanoTime();
+        
+        for (long i = 0; i * intervalNanos < durationNanos; i++) {
+            long intended = start + i * intervalNanos;
+            long wait;
+            while ((wait = intended - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Operation operation = mix.pick();
+            if (inFlight.get() >= maxInFlight) {
+                // Bound client memory if the server stops responding altogether
+                recording.recordDropped(operation);
+                continue;
+            }
+            
+            Workload.Call call = workload.prepare(operation);
+            inFlight.incrementAndGet();
+            long sent = System.nanoTime();
+            client.sendAsync(call.request(), HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, failure) -> {
+                        long end = System.nanoTime();
+                        boolean success = failure == null && response.statusCode() < 400;
+                        if (failure == null) {
+                            workload.onResponse(call.operation(), response);
+                        }
+                        recording.record(call.operation(), end - intended, end - sent, success);
+                        inFlight.decrementAndGet();
+                    });
+        }
+        
+        long deadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        return System.nanoTime() - start;
+    }
+    
+    private static Histogram newHistogram() {
+        return new ConcurrentHistogram(1, HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+    }
+    
+    private static final class Recording {
+        
+        final Histogram latency = newHistogram();
+        final Histogram uncorrectedLatency = newHistogram();
+        final LongAdder requests = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder dropped = new LongAdder();
+        final Map<Operation, OperationStats> byOperation = new EnumMap<>(Operation.class);
+        
+        Recording() {
+            for (Operation operation : Operation.values()) {
+                byOperation.put(operation, new OperationStats());
+            }
+        }
+        
+        void record(Operation operation, long correctedNanos, long uncorrectedNanos, boolean success) {
+            long correctedMicros = toMicros(correctedNanos);
+            latency.recordValue(correctedMicros);
+            uncorrectedLatency.recordValue(toMicros(uncorrectedNanos));
+            requests.increment();
+            
+            OperationStats stats = byOperation.get(operation);
+            stats.latency.recordValue(correctedMicros);
+            stats.requests.increment();
+            if (!success) {
+                errors.increment();
+                stats.errors.increment();
+            }
+        }
+        
+        /**
+         * Record an arrival that was never sent as a timeout. The uncorrected
+         * histogram is left alone, since it only measures requests actually sent.
+         */
+        void recordDropped(Operation operation) {
+            long timeoutMicros = toMicros(Workload.REQUEST_TIMEOUT.toNanos());
+            latency.recordValue(timeoutMicros);
+            requests.increment();
+            errors.increment();
+            dropped.increment();
+            
+            OperationStats stats = byOperation.get(operation);
+            stats.latency.recordValue(timeoutMicros);
+            stats.requests.increment();
+            stats.errors.increment();
+        }
+        
+        private static long toMicros(long nanos) {
+            return Math.min(Math.max(1, TimeUnit.NANOSECONDS.toMicros(nanos)), HIGHEST_TRACKABLE_MICROS);
+        }
+    }
+    
+    private static final class OperationStats {
+        final Histogram latency = newHistogram();
+        final LongAdder requests = new LongAdder();
+        final LongAdder errors = new LongAdder();
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * The UserController endpoints the load generator can call.
+ */
+public enum Operation {
+    
+    GET_BY_ID("get-by-id"),
+    GET_BY_EMAIL("get-by-email"),
+    LIST_PAGE("list-page"),
+    CREATE("create"),
+    UPDATE("update"),
+    DELETE("delete");
+    
+    private final String key;
+    
+    Operation(String key) {
+        this.key = key;
+    }
+    
+    public String key() {
+        return key;
+    }
+    
+    public static Operation fromKey(String key) {
+        return Arrays.stream(values())
+                .filter(operation -> operation.key.equals(key))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown operation '" + key + "'"));
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A build under test, launched as a child process so its startup time and
+ * resident memory can be measured. RSS is read from /proc and is therefore
+ * only reported on Linux.
+ */
+public class ProcessTarget implements AutoCloseable {
+    
+    private static final long RSS_SAMPLE_INTERVAL_MILLIS = 250;
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(15);
+    
+    private final Process process;
+    private final long launchedAt;
+    private final ScheduledExecutorService rssSampler;
+    private final AtomicLong peakRss = new AtomicLong();
+    private final AtomicLong rssTotal = new AtomicLong();
+    private final AtomicLong rssSamples = new AtomicLong();
+    
+    private ProcessTarget(Process process, long launchedAt) {
+        this.process = process;
+        this.launchedAt = launchedAt;
+        this.rssSampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rss-sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        rssSampler.scheduleAtFixedRate(this::sampleRss, 0, RSS_SAMPLE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Start the command with its output sent to the given log file
+     */
+    public static ProcessTarget launch(List<String> command, Path logFile) throws IOException {
+        Files.createDirectories(logFile.toAbsolutePath().getParent());
+        long launchedAt = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(logFile.toFile())
+                .start();
+        return new ProcessTarget(process, launchedAt);
+    }
+    
+    /**
+     * Poll the health endpoint until it first answers 200
+     * @return the time from launch to the first successful response
+     */
+    public Duration awaitFirstRequest(HttpClient client, URI healthUrl, Duration timeout)
+            throws IOException, InterruptedException {
+        return awaitHealthy(client, healthUrl, timeout, launchedAt, this);
+    }
+    
+    /**
+     * Poll a health endpoint until it answers 200, optionally failing early if the process exits
+     * @return the time from {@code since} to the first successful response
+     */
+    static Duration awaitHealthy(HttpClient client, URI healthUrl, Duration timeout, long since,
+                                 ProcessTarget target) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(healthUrl).timeout(Duration.ofSeconds(1)).GET().build();
+        long deadline = since + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (target != null && !target.process.isAlive()) {
+                throw new IOException("Target exited with code " + target.process.exitValue() + " before serving requests");
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return Duration.ofNanos(System.nanoTime() - since);
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(5);
+        }
+        throw new IOException("No successful response from " + healthUrl + " within " + timeout);
+    }
+    
+    /**
+     * Current resident set size in bytes, or null when it cannot be read
+     */
+    public Long currentRss() {
+        Path status = Path.of("/proc", String.valueOf(process.pid()), "status");
+        try {
+            for (String line : Files.readAllLines(status)) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("[^0-9]", "")) * 1024;
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Not Linux, or the process has exited
+        }
+        return null;
+    }
+    
+    public void resetRssStatistics() {
+        peakRss.set(0);
+        rssTotal.set(0);
+        rssSamples.set(0);
+    }
+    
+    public Long peakRss() {
+        return rssSamples.get() == 0 ? null : peakRss.get();
+    }
+    
+    public Long averageRss() {
+        long samples = rssSamples.get();
+        return samples == 0 ? null : rssTotal.get() / samples;
+    }
+    
+    @Override
+    public void close() {
+        rssSampler.shutdownNow();
+        process.descendants().forEach(ProcessHandle::destroy);
+        process.destroy();
+        try {
+            if (!process.waitFor(SHUTDOWN_TIMEOUT.toSeconds(), TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private void sampleRss() {
+        Long rss = currentRss();
+        if (rss != null) {
+            peakRss.accumulateAndGet(rss, Math::max);
+            rssTotal.addAndGet(rss);
+            rssSamples.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Test data shared by all requests against one target: the users seeded
+ * before the run and the users created during it, which deletes consume.
+ */
+public class Workload {
+    
+    private static final int SEED_BATCH_SIZE = 500;
+    /**
+     * Client timeout of every request; an arrival dropped by the runner is recorded as having taken this long
+     */
+    static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    
+    private final URI baseUrl;
+    private final ObjectMapper objectMapper;
+    private final String runId;
+    private final List<Long> seededIds = new ArrayList<>();
+    private final List<String> seededEmails = new ArrayList<>();
+    private final Queue<Long> createdIds = new ConcurrentLinkedQueue<>();
+    private final AtomicLong createdCount = new AtomicLong();
+    
+    public Workload(URI baseUrl, ObjectMapper objectMapper) {
+        this.baseUrl = baseUrl;
+        this.objectMapper = objectMapper;
+        this.runId = Long.toString(System.currentTimeMillis(), 36);
+    }
+    
+    /**
+     * Create the users that reads and updates target, through the batch endpoint
+     */
+    public void seed(HttpClient client, int users) throws IOException, InterruptedException {
+        for (int start = 0; start < users; start += SEED_BATCH_SIZE) {
+            int end = Math.min(start + SEED_BATCH_SIZE, users);
+            List<Object> batch = new ArrayList<>(end - start);
+            for (int i = start; i < end; i++) {
+                batch.add(new UserPayload("Seed User " + i, "seed-" + runId + "-" + i + "@loadtest.local"));
+            }
+            HttpResponse<String> response = client.send(
+                    post("/api/users/batch", objectMapper.writeValueAsString(batch)),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 201) {
+                throw new IOException("Seeding failed with status " + response.statusCode() + ": " + response.body());
+            }
+            for (JsonNode result : objectMapper.readTree(response.body()).path("results")) {
+                JsonNode user = result.path("user");
+                seededIds.add(user.path("id").asLong());
+                seededEmails.add(user.path("email").asText());
+            }
+        }
+    }
+    
+    /**
+     * Remember the ID of a user created during the run, for later deletes
+     */
+    public void onResponse(Operation operation, HttpResponse<String> response) {
+        if (operation == Operation.CREATE && response.statusCode() == 201) {
+            try {
+                createdIds.add(objectMapper.readTree(response.body()).path("id").asLong());
+            } catch (IOException e) {
+                // The response still counts; it just cannot be deleted later
+            }
+        }
+    }
+    
+    /**
+     * Build the request for one call of the operation.
+     * A delete with no user created during the run left to remove is issued
+     * as a create instead, so deletes never target missing IDs.
+     */
+    public Call prepare(Operation operation) {
+        return switch (operation) {
+            case GET_BY_ID -> new Call(operation, get("/api/users/" + randomSeededId()));
+            case GET_BY_EMAIL -> new Call(operation, get("/api/users/email/" + randomSeededEmail()));
+            case LIST_PAGE -> new Call(operation, get("/api/users?limit=50&after=" + randomSeededId()));
+            case CREATE -> new Call(operation, post("/api/users", newUserJson()));
+            case UPDATE -> {
+                int index = randomSeedIndex();
+                yield new Call(operation, put("/api/users/" + seededIds.get(index), updatedUserJson(index)));
+            }
+            case DELETE -> {
+                Long id = createdIds.poll();
+                yield id == null
+                        ? prepare(Operation.CREATE)
+                        : new Call(operation, delete("/api/users/" + id));
+            }
+        };
+    }
+    
+    private int randomSeedIndex() {
+        return ThreadLocalRandom.current().nextInt(seededIds.size());
+    }
+    
+    private long randomSeededId() {
+        return seededIds.get(randomSeedIndex());
+    }
+    
+    private String randomSeededEmail() {
+        return seededEmails.get(randomSeedIndex());
+    }
+    
+    private String newUserJson() {
+        long n = createdCount.incrementAndGet();
+        return json(new UserPayload("Load User " + n, "load-" + runId + "-" + n + "@loadtest.local"));
+    }
+    
+    private String updatedUserJson(int seedIndex) {
+        return json(new UserPayload("Updated User " + ThreadLocalRandom.current().nextInt(1_000_000),
+                seededEmails.get(seedIndex)));
+    }
+    
+    private HttpRequest get(String path) {
+        return request(path).GET().build();
+    }
+    
+    private HttpRequest post(String path, String body) {
+        return request(path).header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body)).build();
+    }
+    
+    private HttpRequest put(String path, String body) {
+        return request(path).header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(body)).build();
+    }
+    
+    private HttpRequest delete(String path) {
+        return request(path).DELETE().build();
+    }
+    
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(baseUrl.resolve(path)).timeout(REQUEST_TIMEOUT);
+    }
+    
+    private String json(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    /**
+     * A request ready to send, labelled with the operation it performs
+     */
+    public record Call(Operation operation, HttpRequest request) {
+    }
+    
+    private record UserPayload(String name, String email) {
+    }
+}
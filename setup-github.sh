@@ -88,7 +88,7 @@ git commit -m "Initial commit: Spring Native POC with Hexagonal Architecture
 Features:
 - Hexagonal architecture with Domain/Infrastructure layers
 - User management REST API with CRUD operations  
-- Spring Boot 3.4.9 with Java 17
+- Spring Boot 3.4.9 with Java 21
 - GraalVM native compilation support
 - H2 in-memory database with JPA
 - Docker configurations for JAR and Native builds
@@ -49,7 +49,7 @@ git add .
 git commit -m "🚀 Initial commit: Spring Native POC with Hexagonal Architecture
 
 ✨ Features:
-- Spring Boot 3.4.9 with Java 17 & GraalVM Native
+- Spring Boot 3.4.9 with Java 21 & GraalVM Native
 - Hexagonal Architecture (Clean Architecture)
 - User management REST API with CRUD operations
 - Docker configurations for JAR and Native builds
@@ -0,0 +1,199 @@
+package com.example.native_jpa_servlet.domain.service;
+
+import com.example.native_jpa_servlet.domain.exception.DuplicateEmailException;
+import com.example.native_jpa_servlet.domain.model.User;
+import com.example.native_jpa_servlet.domain.model.UserCollectionStamp;
+import com.example.native_jpa_servlet.domain.model.UserField;
+import com.example.native_jpa_servlet.domain.model.UserStamp;
+import com.example.native_jpa_servlet.domain.port.outbound.UserRepositoryPort;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Map-backed UserRepositoryPort for benchmarks
+ * Keeps the database out of the measurement so the numbers reflect the
+ * domain service itself.
+ */
+class InMemoryUserRepository implements UserRepositoryPort {
+    
+    private final ConcurrentNavigableMap<Long, User> usersById = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<String, Long> idsByEmail = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    
+    @Override
+    public User save(User user) {
+        long id = sequence.incrementAndGet();
+        if (idsByEmail.putIfAbsent(user.getEmail(), id) != null) {
+            throw new DuplicateEmailException(user.getEmail());
+        }
+        LocalDateTime now = LocalDateTime.now();
+        User saved = new User(id, user.getName(), user.getEmail(), now, now, 0L);
+        usersById.put(id, saved);
+        return saved;
+    }
+    
+    @Override
+    public List<User> saveAll(List<User> users) {
+        List<User> saved = new ArrayList<>(users.size());
+        for (User user : users) {
+            saved.add(save(user));
+        }
+        return saved;
+    }
+    
+    @Override
+    public Optional<User> updateInfo(Long id, String name, String email, Long expectedVersion) {
+        User current = usersById.get(id);
+        if (current == null || (expectedVersion != null && !expectedVersion.equals(current.getVersion()))) {
+            return Optional.empty();
+        }
+        if (!current.getEmail().equals(email)) {
+            if (idsByEmail.putIfAbsent(email, id) != null) {
+                throw new DuplicateEmailException(email);
+            }
+            idsByEmail.remove(current.getEmail(), id);
+        }
+        User updated = new User(id, name, email, current.getCreatedAt(), LocalDateTime.now(),
+                current.getVersion() + 1);
+        usersById.put(id, updated);
+        return Optional.of(updated);
+    }
+    
+    @Override
+    public Optional<User> findById(Long id) {
+        return Optional.ofNullable(usersById.get(id));
+    }
+    
+    @Override
+    public Optional<User> findByEmail(String email) {
+        Long id = idsByEmail.get(email);
+        return id == null ? Optional.empty() : findById(id);
+    }
+    
+    @Override
+    public Optional<User> findFieldsById(Long id, Set<UserField> fields) {
+        return findById(id);
+    }
+    
+    @Override
+    public Optional<User> findFieldsByEmail(String email, Set<UserField> fields) {
+        return findByEmail(email);
+    }
+    
+    @Override
+    public Optional<UserStamp> findStampById(Long id) {
+        return findById(id).map(UserStamp::of);
+    }
+    
+    @Override
+    public Optional<UserStamp> findStampByEmail(String email) {
+        return findByEmail(email).map(UserStamp::of);
+    }
+    
+    @Override
+    public UserCollectionStamp findCollectionStamp() {
+        return new UserCollectionStamp(usersById.size(), usersById.values().stream()
+                .map(User::getUpdatedAt)
+                .filter(Objects::nonNull)
+                .max(LocalDateTime::compareTo)
+                .orElse(null));
+    }
+    
+    @Override
+    public List<User> findAll() {
+        return new ArrayList<>(usersById.values());
+    }
+    
+    @Override
+    public List<User> findPage(Long afterId, int limit) {
+        List<User> page = new ArrayList<>(limit);
+        for (User user : usersById.tailMap(afterId == null ? 0L : afterId, false).values()) {
+            if (page.size() == limit) {
+                break;
+            }
+            page.add(user);
+        }
+        return page;
+    }
+    
+    @Override
+    public List<User> findPageFields(Long afterId, int limit, Set<UserField> fields) {
+        return findPage(afterId, limit);
+    }
+    
+    @Override
+    public List<User> findPageByNamePrefix(String namePrefix, String afterNameKey, Long afterId, int limit) {
+        Comparator<User> order = Comparator.comparing((User user) -> User.nameKey(user.getName()))
+                .thenComparing(User::getId);
+        User after = afterNameKey == null ? null : new User(afterId, afterNameKey, null, null, null);
+        return usersById.values().stream()
+                .filter(user -> User.nameKey(user.getName()).startsWith(namePrefix))
+                .filter(user -> after == null || order.compare(user, after) > 0)
+                .sorted(order)
+                .limit(limit)
+                .toList();
+    }
+    
+    @Override
+    public void forEachUser(Consumer<User> action) {
+        usersById.values().forEach(action);
+    }
+    
+    @Override
+    public void deleteById(Long id) {
+        deleteByIdReturningCount(id);
+    }
+    
+    @Override
+    public int deleteByIdReturningCount(Long id) {
+        User removed = usersById.remove(id);
+        if (removed == null) {
+            return 0;
+        }
+        idsByEmail.remove(removed.getEmail(), id);
+        return 1;
+    }
+    
+    @Override
+    public int deleteAllByIdIn(Collection<Long> ids) {
+        int deleted = 0;
+        for (Long id : ids) {
+            deleted += deleteByIdReturningCount(id);
+        }
+        return deleted;
+    }
+    
+    @Override
+    public boolean existsById(Long id) {
+        return usersById.containsKey(id);
+    }
+    
+    @Override
+    public boolean existsByEmail(String email) {
+        return idsByEmail.containsKey(email);
+    }
+    
+    @Override
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        Set<String> existing = new HashSet<>();
+        for (String email : emails) {
+            if (idsByEmail.containsKey(email)) {
+                existing.add(email);
+            }
+        }
+        return existing;
+    }
+}
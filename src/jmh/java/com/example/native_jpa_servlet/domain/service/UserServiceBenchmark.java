@@ -0,0 +1,79 @@
+package com.example.native_jpa_servlet.domain.service;
+
+import com.example.native_jpa_servlet.domain.model.User;
+import com.example.native_jpa_servlet.domain.model.UserPage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request hot path through UserService against an in-memory repository.
+ * Run with the GC profiler (the jmh profile default) to track gc.alloc.rate.norm,
+ * the bytes allocated per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class UserServiceBenchmark {
+    
+    private static final int USER_COUNT = 10_000;
+    
+    private UserService userService;
+    private long nextId;
+    private long nextEmail;
+    private long updatedUserId;
+    
+    @Setup
+    public void setUp() {
+        userService = new UserService(new InMemoryUserRepository());
+        for (int i = 0; i < USER_COUNT; i++) {
+            userService.createUser("User " + i, "user" + i + "@example.com");
+        }
+        updatedUserId = userService.findUserByEmail("user0@example.com").getId();
+    }
+    
+    @Benchmark
+    public void validateUserInput() {
+        userService.validateUserInput("John Doe", "john@example.com");
+    }
+    
+    @Benchmark
+    public User createAndDeleteUser() {
+        User user = userService.createUser("Benchmark User", "benchmark" + nextEmail++ + "@example.com");
+        userService.deleteUser(user.getId());
+        return user;
+    }
+    
+    @Benchmark
+    public User findUserById() {
+        nextId = nextId % USER_COUNT + 1;
+        return userService.findUserById(nextId);
+    }
+    
+    @Benchmark
+    public User findUserByEmail() {
+        return userService.findUserByEmail("user42@example.com");
+    }
+    
+    @Benchmark
+    public UserPage getUsersPage() {
+        return userService.getUsersPage(null, null);
+    }
+    
+    @Benchmark
+    public User updateUser() {
+        return userService.updateUser(updatedUserId, "Updated User", "user0@example.com");
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.native_jpa_servlet.infrastructure.adapter.inbound.web.dto;
+
+import com.example.native_jpa_servlet.domain.model.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building and serializing the UserResponse returned by the single-user
+ * endpoints, including the @JsonFormat date fields.
+ * The ObjectMapper is configured like the one Spring MVC uses.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class UserResponseBenchmark {
+    
+    private User user;
+    private UserResponse response;
+    private ObjectMapper objectMapper;
+    private ObjectWriter responseWriter;
+    
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        user = new User(1L, "John Doe", "john@example.com", now, now, 3L);
+        response = new UserResponse(user);
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        responseWriter = objectMapper.writerFor(UserResponse.class);
+    }
+    
+    @Benchmark
+    public UserResponse newUserResponse() {
+        return new UserResponse(user);
+    }
+    
+    @Benchmark
+    public byte[] serializeWithObjectMapper() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+    
+    @Benchmark
+    public byte[] serializeWithWriter() throws JsonProcessingException {
+        return responseWriter.writeValueAsBytes(response);
+    }
+    
+    @Benchmark
+    public byte[] buildAndSerialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(new UserResponse(user));
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.native_jpa_servlet.infrastructure.adapter.inbound.web.json;
+
+import com.example.native_jpa_servlet.domain.model.User;
+import com.example.native_jpa_servlet.infrastructure.adapter.inbound.web.dto.CreateUserRequest;
+import com.example.native_jpa_servlet.infrastructure.adapter.inbound.web.dto.UserResponse;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson's bean (de)serializers against the hand-written ones in UserJsonModule,
+ * for the response of the single-user endpoints and the create request body.
+ * Run with the gc profiler (the jmh profile default) and compare
+ * gc.alloc.rate.norm, the bytes allocated per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class UserJsonModuleBenchmark {
+    
+    private UserResponse response;
+    private byte[] requestBody;
+    private ObjectWriter beanWriter;
+    private ObjectWriter moduleWriter;
+    private ObjectReader beanReader;
+    private ObjectReader moduleReader;
+    
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        response = new UserResponse(new User(1L, "John Doe", "john@example.com", now, now, 3L));
+        requestBody = "{\"name\":\"John Doe\",\"email\":\"john@example.com\"}".getBytes(StandardCharsets.UTF_8);
+        
+        Jackson2ObjectMapperBuilder bean = Jackson2ObjectMapperBuilder.json();
+        Jackson2ObjectMapperBuilder module = Jackson2ObjectMapperBuilder.json().modulesToInstall(new UserJsonModule());
+        beanWriter = bean.build().writerFor(UserResponse.class);
+        moduleWriter = module.build().writerFor(UserResponse.class);
+        beanReader = bean.build().readerFor(CreateUserRequest.class);
+        moduleReader = module.build().readerFor(CreateUserRequest.class);
+    }
+    
+    @Benchmark
+    public byte[] serializeBean() throws IOException {
+        return beanWriter.writeValueAsBytes(response);
+    }
+    
+    @Benchmark
+    public byte[] serializeModule() throws IOException {
+        return moduleWriter.writeValueAsBytes(response);
+    }
+    
+    @Benchmark
+    public CreateUserRequest deserializeBean() throws IOException {
+        return beanReader.readValue(requestBody);
+    }
+    
+    @Benchmark
+    public CreateUserRequest deserializeModule() throws IOException {
+        return moduleReader.readValue(requestBody);
+    }
+}
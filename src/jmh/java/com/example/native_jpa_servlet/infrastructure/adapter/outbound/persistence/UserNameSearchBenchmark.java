@@ -0,0 +1,114 @@
+package com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence;
+
+import com.example.native_jpa_servlet.NativeJpaServletApplication;
+import com.example.native_jpa_servlet.domain.model.User;
+import com.example.native_jpa_servlet.domain.port.outbound.UserRepositoryPort;
+import com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.memory.InMemoryUserRepositoryAdapter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency distribution of a name prefix search over one million users, for
+ * the JPA adapter (the name_lower index in H2) and the in-memory adapter
+ * (its sorted name index). Names are "User n", so the prefix "User 4711"
+ * matches 111 users of which one page of 20 is read, either from the start
+ * or after a cursor in the middle of the matches. Check the p99 against the
+ * target in the README (Name Search).
+ *
+ * mvn -Pjmh test-compile exec:exec -Djmh.includes=UserNameSearchBenchmark
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+@Threads(4)
+@State(Scope.Benchmark)
+public class UserNameSearchBenchmark {
+    
+    private static final int USER_COUNT = 1_000_000;
+    private static final int BATCH_SIZE = 10_000;
+    private static final int PAGE_SIZE = 20;
+    
+    @Param({"memory", "jpa"})
+    private String storage;
+    
+    private ConfigurableApplicationContext context;
+    private UserRepositoryPort repository;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (storage.equals("jpa")) {
+            context = new SpringApplicationBuilder(NativeJpaServletApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .profiles("test")
+                    .properties(
+                            "spring.jpa.show-sql=false",
+                            "logging.level.com.example.native_jpa_servlet=WARN",
+                            "logging.level.org.hibernate.SQL=WARN",
+                            "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN")
+                    .run();
+            repository = context.getBean(UserRepositoryAdapter.class);
+        } else {
+            repository = new InMemoryUserRepositoryAdapter();
+        }
+        
+        for (int batch = 0; batch < USER_COUNT / BATCH_SIZE; batch++) {
+            List<User> users = new ArrayList<>(BATCH_SIZE);
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                int n = batch * BATCH_SIZE + i;
+                users.add(new User("User " + n, "user" + n + "@example.com"));
+            }
+            repository.saveAll(users);
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+    }
+    
+    @Benchmark
+    public List<User> firstPage() {
+        return repository.findPageByNamePrefix(randomPrefix(), null, null, PAGE_SIZE + 1);
+    }
+    
+    @Benchmark
+    public List<User> pageAfterCursor() {
+        String prefix = randomPrefix();
+        // Halfway through the matches: "user 4711" < "user 471150" < "user 471199"
+        return repository.findPageByNamePrefix(prefix, prefix + "50", Long.MAX_VALUE, PAGE_SIZE + 1);
+    }
+    
+    @Benchmark
+    public List<User> noMatch() {
+        return repository.findPageByNamePrefix("nobody " + ThreadLocalRandom.current().nextInt(10_000),
+                null, null, PAGE_SIZE + 1);
+    }
+    
+    private static String randomPrefix() {
+        return "user " + (1_000 + ThreadLocalRandom.current().nextInt(9_000));
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence;
+
+import com.example.native_jpa_servlet.NativeJpaServletApplication;
+import com.example.native_jpa_servlet.domain.model.User;
+import com.example.native_jpa_servlet.domain.port.outbound.UserRepositoryPort;
+import com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.memory.InMemoryUserRepositoryAdapter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Throughput of the two storage adapters behind UserRepositoryPort under
+ * concurrent load: the JPA adapter over H2 in-memory, as deployed, and the
+ * in-memory adapter selected by the inmemory profile. The JPA adapter runs in
+ * a non-web application context without the cache or metrics decorators, so
+ * both are measured bare.
+ *
+ * mvn -Pjmh test-compile exec:exec -Djmh.includes=UserRepositoryThroughputBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class UserRepositoryThroughputBenchmark {
+    
+    private static final int USER_COUNT = 10_000;
+    
+    @Param({"memory", "jpa"})
+    private String storage;
+    
+    private ConfigurableApplicationContext context;
+    private UserRepositoryPort repository;
+    private List<User> users;
+    private final AtomicLong nextEmail = new AtomicLong();
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (storage.equals("jpa")) {
+            context = new SpringApplicationBuilder(NativeJpaServletApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .profiles("test")
+                    .properties(
+                            "spring.jpa.show-sql=false",
+                            "logging.level.com.example.native_jpa_servlet=WARN",
+                            "logging.level.org.hibernate.SQL=WARN",
+                            "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN")
+                    .run();
+            repository = context.getBean(UserRepositoryAdapter.class);
+        } else {
+            repository = new InMemoryUserRepositoryAdapter();
+        }
+        
+        List<User> batch = new ArrayList<>(USER_COUNT);
+        for (int i = 0; i < USER_COUNT; i++) {
+            batch.add(new User("User " + i, "user" + i + "@example.com"));
+        }
+        users = repository.saveAll(batch);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+    }
+    
+    /**
+     * A user owned by one benchmark thread, so version checks never conflict
+     */
+    @State(Scope.Thread)
+    public static class OwnUser {
+        private User user;
+        
+        @Setup(Level.Trial)
+        public void setUp(UserRepositoryThroughputBenchmark benchmark) {
+            user = benchmark.repository.save(
+                    new User("Own User", "own" + benchmark.nextEmail.incrementAndGet() + "@example.com"));
+        }
+    }
+    
+    @Benchmark
+    public Optional<User> findById() {
+        return repository.findById(randomUser().getId());
+    }
+    
+    @Benchmark
+    public Optional<User> findByEmail() {
+        return repository.findByEmail(randomUser().getEmail());
+    }
+    
+    @Benchmark
+    public List<User> findPage() {
+        return repository.findPage(randomUser().getId(), 20);
+    }
+    
+    @Benchmark
+    public boolean existsByEmail() {
+        return repository.existsByEmail("absent-" + ThreadLocalRandom.current().nextInt(USER_COUNT) + "@example.com");
+    }
+    
+    @Benchmark
+    public Optional<User> updateInfo(OwnUser own) {
+        Optional<User> updated = repository.updateInfo(own.user.getId(), "Updated User", own.user.getEmail(),
+                own.user.getVersion());
+        own.user = updated.orElseThrow();
+        return updated;
+    }
+    
+    @Benchmark
+    public int saveAndDelete() {
+        User saved = repository.save(new User("Benchmark User", "benchmark" + nextEmail.incrementAndGet() + "@example.com"));
+        return repository.deleteByIdReturningCount(saved.getId());
+    }
+    
+    private User randomUser() {
+        return users.get(ThreadLocalRandom.current().nextInt(users.size()));
+    }
+}
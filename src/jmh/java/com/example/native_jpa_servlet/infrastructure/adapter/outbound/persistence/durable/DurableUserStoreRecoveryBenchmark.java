@@ -0,0 +1,95 @@
+package com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.durable;
+
+import com.example.native_jpa_servlet.domain.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Time for the durable store to recover one million users at startup, from
+ * a snapshot or from the write-ahead log alone. Each measurement opens the
+ * store cold from the same directory, so it covers reading the files and
+ * rebuilding the in-memory indexes; compare it with the startup budget of
+ * the native image (README, Startup Benchmark).
+ *
+ * mvn -Pjmh test-compile exec:exec -Djmh.includes=DurableUserStoreRecoveryBenchmark
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+@State(Scope.Benchmark)
+public class DurableUserStoreRecoveryBenchmark {
+    
+    private static final int USER_COUNT = 1_000_000;
+    private static final int BATCH_SIZE = 10_000;
+    
+    @Param({"snapshot", "wal"})
+    private String source;
+    
+    private Path directory;
+    private DurableUserRepositoryAdapter store;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("user-store");
+        try (DurableUserRepositoryAdapter writer = open()) {
+            for (int batch = 0; batch < USER_COUNT / BATCH_SIZE; batch++) {
+                List<User> users = new ArrayList<>(BATCH_SIZE);
+                for (int i = 0; i < BATCH_SIZE; i++) {
+                    int n = batch * BATCH_SIZE + i;
+                    users.add(new User("User " + n, "user" + n + "@example.com"));
+                }
+                writer.saveAll(users);
+            }
+            if (source.equals("snapshot")) {
+                writer.snapshot();
+            }
+        }
+    }
+    
+    @TearDown(Level.Iteration)
+    public void closeStore() throws IOException {
+        store.close();
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+    
+    @Benchmark
+    public DurableUserRepositoryAdapter recover() {
+        store = open();
+        return store;
+    }
+    
+    private DurableUserRepositoryAdapter open() {
+        return new DurableUserRepositoryAdapter(directory, false, 0, new SimpleMeterRegistry());
+    }
+}
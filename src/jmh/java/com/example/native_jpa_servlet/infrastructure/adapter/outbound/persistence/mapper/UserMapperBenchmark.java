@@ -0,0 +1,52 @@
+package com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.mapper;
+
+import com.example.native_jpa_servlet.domain.model.User;
+import com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.entity.UserJpaEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversions between the domain User and the JPA entity, done on every
+ * repository call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class UserMapperBenchmark {
+    
+    private UserMapper userMapper;
+    private User user;
+    private UserJpaEntity entity;
+    
+    @Setup
+    public void setUp() {
+        userMapper = new UserMapper();
+        LocalDateTime now = LocalDateTime.now();
+        user = new User(1L, "John Doe", "john@example.com", now, now, 3L);
+        entity = userMapper.toEntity(user);
+    }
+    
+    @Benchmark
+    public UserJpaEntity toEntity() {
+        return userMapper.toEntity(user);
+    }
+    
+    @Benchmark
+    public User toDomain() {
+        return userMapper.toDomain(entity);
+    }
+}
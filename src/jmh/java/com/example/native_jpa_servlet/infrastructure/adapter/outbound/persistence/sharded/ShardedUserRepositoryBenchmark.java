@@ -0,0 +1,113 @@
+package com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.sharded;
+
+import com.example.native_jpa_servlet.domain.model.User;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Throughput of the sharded adapter as the number of shards grows from one
+ * to eight, each shard an H2 in-memory database behind its own HikariCP pool.
+ * Point operations touch one shard (two for email lookups and writes), while
+ * a page fans out to every shard and merges, so the two kinds are expected
+ * to move in opposite directions as shards are added. All shards share this
+ * JVM's CPUs: the numbers show the routing and fan-out overhead, not the
+ * capacity gained from shards on separate servers.
+ *
+ * mvn -Pjmh test-compile exec:exec -Djmh.includes=ShardedUserRepositoryBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class ShardedUserRepositoryBenchmark {
+    
+    private static final int USER_COUNT = 100_000;
+    private static final int BATCH_SIZE = 1_000;
+    
+    @Param({"1", "2", "4", "8"})
+    private int shards;
+    
+    private ShardedUserRepositoryAdapter repository;
+    private List<User> users;
+    private final AtomicLong nextEmail = new AtomicLong();
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<DataSource> dataSources = new ArrayList<>(shards);
+        for (int i = 0; i < shards; i++) {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("shard-" + i);
+            dataSource.setJdbcUrl("jdbc:h2:mem:bench-" + shards + "-shard-" + i);
+            dataSource.setUsername("sa");
+            dataSource.setMaximumPoolSize(10);
+            dataSources.add(dataSource);
+        }
+        repository = new ShardedUserRepositoryAdapter(dataSources, Math.max(shards - 1, 1), Duration.ofMinutes(1));
+        
+        users = new ArrayList<>(USER_COUNT);
+        for (int batch = 0; batch < USER_COUNT / BATCH_SIZE; batch++) {
+            List<User> pending = new ArrayList<>(BATCH_SIZE);
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                int n = batch * BATCH_SIZE + i;
+                pending.add(new User("User " + n, "user" + n + "@example.com"));
+            }
+            users.addAll(repository.saveAll(pending));
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        repository.close();
+    }
+    
+    @Benchmark
+    public Optional<User> findById() {
+        return repository.findById(randomUser().getId());
+    }
+    
+    @Benchmark
+    public Optional<User> findByEmail() {
+        return repository.findByEmail(randomUser().getEmail());
+    }
+    
+    @Benchmark
+    public List<User> findPage() {
+        return repository.findPage(randomUser().getId(), 20);
+    }
+    
+    @Benchmark
+    public int saveAndDelete() {
+        User saved = repository.save(new User("Benchmark User", "benchmark" + nextEmail.incrementAndGet() + "@example.com"));
+        return repository.deleteByIdReturningCount(saved.getId());
+    }
+    
+    private User randomUser() {
+        return users.get(ThreadLocalRandom.current().nextInt(users.size()));
+    }
+}
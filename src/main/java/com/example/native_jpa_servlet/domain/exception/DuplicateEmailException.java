@@ -0,0 +1,25 @@
+package com.example.native_jpa_servlet.domain.exception;
+
+/**
+ * Thrown when a user would be stored with an email that another user already has.
+ * Persistence adapters raise it when the unique email constraint rejects a write,
+ * so the check and the write happen in a single round trip.
+ */
+public class DuplicateEmailException extends IllegalArgumentException {
+    
+    private final String email;
+    
+    /**
+     * @param email the duplicate email, or null when the store could not tell which one it was
+     */
+    public DuplicateEmailException(String email) {
+        super(email != null
+                ? "User with email '" + email + "' already exists"
+                : "A user with one of the given emails already exists");
+        this.email = email;
+    }
+    
+    public String getEmail() {
+        return email;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.native_jpa_servlet.domain.exception;
+
+/**
+ * Thrown when a conditional update expected a version of the user that is no longer current
+ */
+public class VersionConflictException extends RuntimeException {
+    
+    private final Long userId;
+    private final Long expectedVersion;
+    
+    public VersionConflictException(Long userId, Long expectedVersion) {
+        super("User with ID '" + userId + "' is no longer at version " + expectedVersion);
+        this.userId = userId;
+        this.expectedVersion = expectedVersion;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public Long getExpectedVersion() {
+        return expectedVersion;
+    }
+}
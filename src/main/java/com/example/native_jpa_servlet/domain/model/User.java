@@ -1,6 +1,7 @@
 package com.example.native_jpa_servlet.domain.model;
 
 import java.time.LocalDateTime;
+import java.util.Locale;
 import java.util.Objects;
 
 public class User {
@@ -9,6 +10,7 @@ public class User {
     private String email;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
 
     // Default constructor
     public User() {
@@ -22,13 +24,24 @@ public class User {
         this.updatedAt = LocalDateTime.now();
     }
 
-    // Full constructor
+    // Constructor for persisted users without version information
     public User(Long id, String name, String email, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this(id, name, email, createdAt, updatedAt, null);
+    }
+
+    // Full constructor
+    public User(Long id, String name, String email, LocalDateTime createdAt, LocalDateTime updatedAt, Long version) {
         this.id = id;
         this.name = name;
         this.email = email;
         this.createdAt = createdAt;
         this.updatedAt = updatedAt;
+        this.version = version;
+    }
+
+    // Copy constructor
+    public User(User other) {
+        this(other.id, other.name, other.email, other.createdAt, other.updatedAt, other.version);
     }
 
     // Getters and Setters
@@ -74,6 +87,17 @@ public class User {
         this.updatedAt = updatedAt;
     }
 
+    /**
+     * Optimistic concurrency version, incremented on every update; null for unsaved users
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     // Business methods
     public void updateInfo(String name, String email) {
         this.name = name;
@@ -81,6 +105,14 @@ public class User {
         this.updatedAt = LocalDateTime.now();
     }
 
+    /**
+     * Case-insensitive form of a name, by which users are indexed and searched by name prefix.
+     * Lowercased without regard to the default locale, so every adapter and JVM agrees on it.
+     */
+    public static String nameKey(String name) {
+        return name == null ? null : name.toLowerCase(Locale.ROOT);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -103,6 +135,7 @@ public class User {
                 ", email='" + email + '\'' +
                 ", createdAt=" + createdAt +
                 ", updatedAt=" + updatedAt +
+                ", version=" + version +
                 '}';
     }
 }
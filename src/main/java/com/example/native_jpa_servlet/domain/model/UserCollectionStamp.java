@@ -0,0 +1,28 @@
+package com.example.native_jpa_servlet.domain.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Summary of the whole user collection used to validate cached listings:
+ * the number of users and the most recent update time. Every insert or
+ * delete changes the count and every write moves the latest update time
+ * forward, so the pair changes whenever any page of users could have.
+ * The latest update time is null when there are no users.
+ */
+public class UserCollectionStamp {
+    private final long count;
+    private final LocalDateTime lastUpdatedAt;
+
+    public UserCollectionStamp(long count, LocalDateTime lastUpdatedAt) {
+        this.count = count;
+        this.lastUpdatedAt = lastUpdatedAt;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public LocalDateTime getLastUpdatedAt() {
+        return lastUpdatedAt;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.native_jpa_servlet.domain.model;
+
+/**
+ * Outcome of creating a single user as part of a batch.
+ * Carries the position of the item in the request so callers can
+ * correlate results with their input.
+ */
+public class UserCreationResult {
+
+    public enum Status {
+        CREATED,
+        INVALID,
+        DUPLICATE
+    }
+
+    private final int index;
+    private final Status status;
+    private final User user;
+    private final String error;
+
+    private UserCreationResult(int index, Status status, User user, String error) {
+        this.index = index;
+        this.status = status;
+        this.user = user;
+        this.error = error;
+    }
+
+    public static UserCreationResult created(int index, User user) {
+        return new UserCreationResult(index, Status.CREATED, user, null);
+    }
+
+    public static UserCreationResult invalid(int index, String error) {
+        return new UserCreationResult(index, Status.INVALID, null, error);
+    }
+
+    public static UserCreationResult duplicate(int index, String error) {
+        return new UserCreationResult(index, Status.DUPLICATE, null, error);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public boolean isCreated() {
+        return status == Status.CREATED;
+    }
+}
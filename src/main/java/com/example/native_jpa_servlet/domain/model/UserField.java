@@ -0,0 +1,46 @@
+package com.example.native_jpa_servlet.domain.model;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * The fields of a user that callers can ask for individually.
+ * Reads restricted to a subset of fields only fetch those columns.
+ */
+public enum UserField {
+    ID("id"),
+    NAME("name"),
+    EMAIL("email"),
+    CREATED_AT("createdAt"),
+    UPDATED_AT("updatedAt"),
+    VERSION("version");
+
+    public static final Set<UserField> ALL = Collections.unmodifiableSet(EnumSet.allOf(UserField.class));
+
+    private final String propertyName;
+
+    UserField(String propertyName) {
+        this.propertyName = propertyName;
+    }
+
+    /**
+     * The name of the matching User property
+     */
+    public String getPropertyName() {
+        return propertyName;
+    }
+
+    /**
+     * Look up a field by its property name
+     * @throws IllegalArgumentException if no field has that name
+     */
+    public static UserField fromPropertyName(String propertyName) {
+        for (UserField field : values()) {
+            if (field.propertyName.equals(propertyName)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown user field '" + propertyName + "'");
+    }
+}
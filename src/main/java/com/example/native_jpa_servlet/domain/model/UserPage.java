@@ -0,0 +1,30 @@
+package com.example.native_jpa_servlet.domain.model;
+
+import java.util.List;
+
+/**
+ * A keyset-paginated slice of users ordered by ID.
+ * The next cursor is the ID of the last user in the page, or null
+ * when there are no more users after this page.
+ */
+public class UserPage {
+    private final List<User> users;
+    private final Long nextCursor;
+
+    public UserPage(List<User> users, Long nextCursor) {
+        this.users = users;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<User> getUsers() {
+        return users;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
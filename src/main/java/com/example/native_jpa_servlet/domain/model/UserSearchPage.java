@@ -0,0 +1,30 @@
+package com.example.native_jpa_servlet.domain.model;
+
+import java.util.List;
+
+/**
+ * A keyset-paginated slice of users found by name, ordered by name ignoring case, then ID.
+ * The next cursor is an opaque token naming the last user in the page, or
+ * null when there are no more matching users after this page.
+ */
+public class UserSearchPage {
+    private final List<User> users;
+    private final String nextCursor;
+    
+    public UserSearchPage(List<User> users, String nextCursor) {
+        this.users = users;
+        this.nextCursor = nextCursor;
+    }
+    
+    public List<User> getUsers() {
+        return users;
+    }
+    
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
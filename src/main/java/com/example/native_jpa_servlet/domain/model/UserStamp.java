@@ -0,0 +1,36 @@
+package com.example.native_jpa_servlet.domain.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * The change-tracking columns of a single user, without its data.
+ * Enough to tell whether a copy a client holds is still current,
+ * so conditional reads can be answered without loading the user.
+ */
+public class UserStamp {
+    private final Long id;
+    private final Long version;
+    private final LocalDateTime updatedAt;
+
+    public UserStamp(Long id, Long version, LocalDateTime updatedAt) {
+        this.id = id;
+        this.version = version;
+        this.updatedAt = updatedAt;
+    }
+
+    public static UserStamp of(User user) {
+        return new UserStamp(user.getId(), user.getVersion(), user.getUpdatedAt());
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.native_jpa_servlet.domain.port.inbound;
+
+import com.example.native_jpa_servlet.domain.model.User;
+import com.example.native_jpa_servlet.domain.model.UserCollectionStamp;
+import com.example.native_jpa_servlet.domain.model.UserCreationResult;
+import com.example.native_jpa_servlet.domain.model.UserField;
+import com.example.native_jpa_servlet.domain.model.UserPage;
+import com.example.native_jpa_servlet.domain.model.UserSearchPage;
+import com.example.native_jpa_servlet.domain.model.UserStamp;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous variant of {@link UserServicePort} (inbound port)
+ * Each use case runs on a dedicated, bounded executor so callers are not
+ * blocked while the database work is in progress. Failures are reported
+ * through the returned future with the same exceptions as UserServicePort.
+ * When the executor is saturated the future fails immediately with a
+ * {@link java.util.concurrent.RejectedExecutionException}.
+ */
+public interface AsyncUserServicePort {
+    
+    /**
+     * Create a new user
+     * @see UserServicePort#createUser(String, String)
+     */
+    CompletableFuture<User> createUser(String name, String email);
+    
+    /**
+     * Create many users in one operation
+     * @see UserServicePort#createUsers(List)
+     */
+    CompletableFuture<List<UserCreationResult>> createUsers(List<User> users);
+    
+    /**
+     * Find a user by ID
+     * @see UserServicePort#findUserById(Long)
+     */
+    CompletableFuture<User> findUserById(Long id);
+    
+    /**
+     * Find a user by ID, reading only the given fields
+     * @see UserServicePort#findUserById(Long, Set)
+     */
+    CompletableFuture<User> findUserById(Long id, Set<UserField> fields);
+    
+    /**
+     * Find a user by email
+     * @see UserServicePort#findUserByEmail(String)
+     */
+    CompletableFuture<User> findUserByEmail(String email);
+    
+    /**
+     * Find a user by email, reading only the given fields
+     * @see UserServicePort#findUserByEmail(String, Set)
+     */
+    CompletableFuture<User> findUserByEmail(String email, Set<UserField> fields);
+    
+    /**
+     * Find the version and last update time of a user
+     * @see UserServicePort#findUserStampById(Long)
+     */
+    CompletableFuture<UserStamp> findUserStampById(Long id);
+    
+    /**
+     * Find the version and last update time of the user with the given email
+     * @see UserServicePort#findUserStampByEmail(String)
+     */
+    CompletableFuture<UserStamp> findUserStampByEmail(String email);
+    
+    /**
+     * Get the user count and latest update time
+     * @see UserServicePort#getUsersStamp()
+     */
+    CompletableFuture<UserCollectionStamp> getUsersStamp();
+    
+    /**
+     * Get a page of users ordered by ID
+     * @see UserServicePort#getUsersPage(Long, Integer)
+     */
+    CompletableFuture<UserPage> getUsersPage(Long afterId, Integer limit);
+    
+    /**
+     * Get a page of users ordered by ID, reading only the given fields
+     * @see UserServicePort#getUsersPage(Long, Integer, Set)
+     */
+    CompletableFuture<UserPage> getUsersPage(Long afterId, Integer limit, Set<UserField> fields);
+    
+    /**
+     * Search users whose name starts with a prefix, ignoring case
+     * @see UserServicePort#searchUsersByName(String, String, Integer)
+     */
+    CompletableFuture<UserSearchPage> searchUsersByName(String namePrefix, String cursor, Integer limit);
+    
+    /**
+     * Update user information if the user is still at the expected version
+     * @see UserServicePort#updateUser(Long, String, String, Long)
+     */
+    CompletableFuture<User> updateUser(Long id, String name, String email, Long expectedVersion);
+    
+    /**
+     * Delete a user by ID
+     * @see UserServicePort#deleteUser(Long)
+     */
+    CompletableFuture<Void> deleteUser(Long id);
+    
+    /**
+     * Delete many users by ID in one operation
+     * @see UserServicePort#deleteUsers(List)
+     */
+    CompletableFuture<Integer> deleteUsers(List<Long> ids);
+}
@@ -1,7 +1,15 @@
 package com.example.native_jpa_servlet.domain.port.inbound;
 
 import com.example.native_jpa_servlet.domain.model.User;
+import com.example.native_jpa_servlet.domain.model.UserCollectionStamp;
+import com.example.native_jpa_servlet.domain.model.UserCreationResult;
+import com.example.native_jpa_servlet.domain.model.UserField;
+import com.example.native_jpa_servlet.domain.model.UserPage;
+import com.example.native_jpa_servlet.domain.model.UserSearchPage;
+import com.example.native_jpa_servlet.domain.model.UserStamp;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Port interface for User service operations (inbound port)
@@ -15,10 +23,21 @@ public interface UserServicePort {
      * @param name the user name
      * @param email the user email
      * @return the created user
-     * @throws IllegalArgumentException if email already exists
+     * @throws IllegalArgumentException if the input is invalid
+     * @throws com.example.native_jpa_servlet.domain.exception.DuplicateEmailException if email already exists
      */
     User createUser(String name, String email);
     
+    /**
+     * Create many users in one operation.
+     * Invalid or duplicate items are reported individually and do not
+     * prevent the valid ones from being created.
+     * @param users the users to create, each carrying a name and email
+     * @return one result per input item, in input order
+     * @throws IllegalArgumentException if the batch is empty or too large
+     */
+    List<UserCreationResult> createUsers(List<User> users);
+    
     /**
      * Find a user by ID
      * @param id the user ID
@@ -27,6 +46,15 @@ public interface UserServicePort {
      */
     User findUserById(Long id);
     
+    /**
+     * Find a user by ID, reading only the given fields
+     * @param id the user ID
+     * @param fields the fields to read; other fields of the returned user may be null
+     * @return the user if found
+     * @throws IllegalArgumentException if user not found or no fields are given
+     */
+    User findUserById(Long id, Set<UserField> fields);
+    
     /**
      * Find a user by email
      * @param email the user email
@@ -35,12 +63,78 @@ public interface UserServicePort {
      */
     User findUserByEmail(String email);
     
+    /**
+     * Find a user by email, reading only the given fields
+     * @param email the user email
+     * @param fields the fields to read; other fields of the returned user may be null
+     * @return the user if found
+     * @throws IllegalArgumentException if user not found or no fields are given
+     */
+    User findUserByEmail(String email, Set<UserField> fields);
+    
+    /**
+     * Find the version and last update time of a user, for conditional reads
+     * @param id the user ID
+     * @return the stamp of the user if found
+     * @throws IllegalArgumentException if user not found
+     */
+    UserStamp findUserStampById(Long id);
+    
+    /**
+     * Find the version and last update time of the user with the given email, for conditional reads
+     * @param email the user email
+     * @return the stamp of the user if found
+     * @throws IllegalArgumentException if user not found
+     */
+    UserStamp findUserStampByEmail(String email);
+    
+    /**
+     * Get the user count and latest update time, for conditional reads of user pages
+     * @return the stamp of the whole user collection
+     */
+    UserCollectionStamp getUsersStamp();
+    
     /**
      * Get all users
      * @return list of all users
      */
     List<User> getAllUsers();
     
+    /**
+     * Get a page of users ordered by ID
+     * @param afterId cursor returned by the previous page, null for the first page
+     * @param limit requested page size, null for the default; capped at the maximum page size
+     * @return the page of users with the cursor for the next page
+     * @throws IllegalArgumentException if the cursor or limit is invalid
+     */
+    UserPage getUsersPage(Long afterId, Integer limit);
+    
+    /**
+     * Get a page of users ordered by ID, reading only the given fields
+     * @param afterId cursor returned by the previous page, null for the first page
+     * @param limit requested page size, null for the default; capped at the maximum page size
+     * @param fields the fields to read; other fields of the returned users may be null
+     * @return the page of users with the cursor for the next page
+     * @throws IllegalArgumentException if the cursor or limit is invalid or no fields are given
+     */
+    UserPage getUsersPage(Long afterId, Integer limit, Set<UserField> fields);
+    
+    /**
+     * Search users whose name starts with a prefix, ignoring case, for type-ahead
+     * @param namePrefix the start of the name
+     * @param cursor cursor returned by the previous page, null for the first page
+     * @param limit requested page size, null for the default; capped at the maximum page size
+     * @return the page of matching users, ordered by name, with the cursor for the next page
+     * @throws IllegalArgumentException if the prefix is blank or too long, or the cursor or limit is invalid
+     */
+    UserSearchPage searchUsersByName(String namePrefix, String cursor, Integer limit);
+    
+    /**
+     * Export all users one by one, in constant memory
+     * @param action callback invoked once per user, ordered by ID
+     */
+    void exportUsers(Consumer<User> action);
+    
     /**
      * Update user information
      * @param id the user ID
@@ -49,7 +143,21 @@ public interface UserServicePort {
      * @return the updated user
      * @throws IllegalArgumentException if user not found or email already exists
      */
-    User updateUser(Long id, String name, String email);
+    default User updateUser(Long id, String name, String email) {
+        return updateUser(id, name, email, null);
+    }
+    
+    /**
+     * Update user information if the user is still at the expected version
+     * @param id the user ID
+     * @param name the new name
+     * @param email the new email
+     * @param expectedVersion the version the caller last saw, or null to update unconditionally
+     * @return the updated user
+     * @throws IllegalArgumentException if user not found or email already exists
+     * @throws com.example.native_jpa_servlet.domain.exception.VersionConflictException if the user has changed since expectedVersion
+     */
+    User updateUser(Long id, String name, String email, Long expectedVersion);
     
     /**
      * Delete a user by ID
@@ -57,4 +165,12 @@ public interface UserServicePort {
      * @throws IllegalArgumentException if user not found
      */
     void deleteUser(Long id);
+    
+    /**
+     * Delete many users by ID in one operation; IDs that do not exist are ignored
+     * @param ids the user IDs
+     * @return the number of users actually deleted
+     * @throws IllegalArgumentException if the list is empty, too large or contains null IDs
+     */
+    int deleteUsers(List<Long> ids);
 }
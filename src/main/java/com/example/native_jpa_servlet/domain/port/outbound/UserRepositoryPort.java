@@ -1,8 +1,14 @@
 package com.example.native_jpa_servlet.domain.port.outbound;
 
 import com.example.native_jpa_servlet.domain.model.User;
+import com.example.native_jpa_servlet.domain.model.UserCollectionStamp;
+import com.example.native_jpa_servlet.domain.model.UserField;
+import com.example.native_jpa_servlet.domain.model.UserStamp;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Port interface for User persistence operations (outbound port)
@@ -15,9 +21,29 @@ public interface UserRepositoryPort {
      * Save a user to the persistence layer
      * @param user the user to save
      * @return the saved user with generated ID
+     * @throws com.example.native_jpa_servlet.domain.exception.DuplicateEmailException if another user has the same email
      */
     User save(User user);
     
+    /**
+     * Save a batch of new users in as few round trips as possible
+     * @param users the users to save, without IDs
+     * @return the saved users with generated IDs, in the same order as the input
+     * @throws com.example.native_jpa_servlet.domain.exception.DuplicateEmailException if any email is already taken
+     */
+    List<User> saveAll(List<User> users);
+    
+    /**
+     * Update the name and email of a user in a single conditional write, without reading it first
+     * @param id the user ID
+     * @param name the new name
+     * @param email the new email
+     * @param expectedVersion the version the caller last saw, or null to update unconditionally
+     * @return the updated user, or empty if no user with that ID (and version) exists
+     * @throws com.example.native_jpa_servlet.domain.exception.DuplicateEmailException if another user has the email
+     */
+    Optional<User> updateInfo(Long id, String name, String email, Long expectedVersion);
+    
     /**
      * Find a user by ID
      * @param id the user ID
@@ -32,18 +58,102 @@ public interface UserRepositoryPort {
      */
     Optional<User> findByEmail(String email);
     
+    /**
+     * Find a user by ID, reading only the given fields
+     * @param id the user ID
+     * @param fields the fields to read; other fields of the returned user may be null
+     * @return Optional containing the user if found, empty otherwise
+     */
+    Optional<User> findFieldsById(Long id, Set<UserField> fields);
+    
+    /**
+     * Find a user by email, reading only the given fields
+     * @param email the user email
+     * @param fields the fields to read; other fields of the returned user may be null
+     * @return Optional containing the user if found, empty otherwise
+     */
+    Optional<User> findFieldsByEmail(String email, Set<UserField> fields);
+    
+    /**
+     * Find only the ID, version and last update time of a user, without loading the rest of it
+     * @param id the user ID
+     * @return Optional containing the stamp if the user exists, empty otherwise
+     */
+    Optional<UserStamp> findStampById(Long id);
+    
+    /**
+     * Find only the ID, version and last update time of the user with the given email
+     * @param email the user email
+     * @return Optional containing the stamp if the user exists, empty otherwise
+     */
+    Optional<UserStamp> findStampByEmail(String email);
+    
+    /**
+     * Count all users and find the most recent update time in one aggregate lookup
+     * @return the stamp of the whole user collection
+     */
+    UserCollectionStamp findCollectionStamp();
+    
     /**
      * Find all users
      * @return list of all users
      */
     List<User> findAll();
     
+    /**
+     * Find a page of users using keyset pagination on the primary key
+     * @param afterId only users with an ID greater than this are returned, null for the first page
+     * @param limit maximum number of users to return
+     * @return users ordered by ascending ID
+     */
+    List<User> findPage(Long afterId, int limit);
+    
+    /**
+     * Find a page of users using keyset pagination, reading only the given fields
+     * @param afterId only users with an ID greater than this are returned, null for the first page
+     * @param limit maximum number of users to return
+     * @param fields the fields to read; other fields of the returned users may be null
+     * @return users ordered by ascending ID
+     */
+    List<User> findPageFields(Long afterId, int limit, Set<UserField> fields);
+    
+    /**
+     * Find a page of users whose name starts with a prefix, ignoring case,
+     * using keyset pagination on the name key and ID
+     * @param namePrefix the prefix as a name key (see User.nameKey)
+     * @param afterNameKey name key of the last user of the previous page, null for the first page
+     * @param afterId ID of the last user of the previous page, null for the first page
+     * @param limit maximum number of users to return
+     * @return matching users ordered by name key, then ascending ID
+     */
+    List<User> findPageByNamePrefix(String namePrefix, String afterNameKey, Long afterId, int limit);
+    
+    /**
+     * Visit every user ordered by ID without materializing the full result
+     * @param action callback invoked once per user while the underlying cursor is open
+     */
+    void forEachUser(Consumer<User> action);
+    
     /**
      * Delete a user by ID
      * @param id the user ID to delete
      */
     void deleteById(Long id);
     
+    /**
+     * Delete a user by ID in a single statement, without loading it first
+     * @param id the user ID to delete
+     * @return the number of deleted users, 0 if no user had that ID
+     */
+    int deleteByIdReturningCount(Long id);
+    
+    /**
+     * Delete all users with the given IDs using set-based statements
+     * @param ids the user IDs to delete
+     * @return the number of deleted users
+     */
+    int deleteAllByIdIn(Collection<Long> ids);
+    
     /**
      * Check if a user exists by ID
      * @param id the user ID
@@ -57,4 +167,11 @@ public interface UserRepositoryPort {
      * @return true if exists, false otherwise
      */
     boolean existsByEmail(String email);
+    
+    /**
+     * Find which of the given emails are already taken, using a set-based lookup
+     * @param emails the emails to check
+     * @return the subset of emails that already exist
+     */
+    Set<String> findExistingEmails(Collection<String> emails);
 }
@@ -0,0 +1,147 @@
+package com.example.native_jpa_servlet.domain.service;
+
+import com.example.native_jpa_servlet.domain.model.User;
+import com.example.native_jpa_servlet.domain.model.UserCollectionStamp;
+import com.example.native_jpa_servlet.domain.model.UserCreationResult;
+import com.example.native_jpa_servlet.domain.model.UserField;
+import com.example.native_jpa_servlet.domain.model.UserPage;
+import com.example.native_jpa_servlet.domain.model.UserSearchPage;
+import com.example.native_jpa_servlet.domain.model.UserStamp;
+import com.example.native_jpa_servlet.domain.port.inbound.AsyncUserServicePort;
+import com.example.native_jpa_servlet.domain.port.inbound.UserServicePort;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Asynchronous User service
+ * Runs each use case of the wrapped UserServicePort on a bounded executor,
+ * which acts as a bulkhead: at most its pool size of operations hold a
+ * database connection, a limited number wait in its queue, and the rest are
+ * rejected straight away instead of piling up behind a slow query.
+ * The service owns the executor and shuts it down when closed.
+ */
+public class AsyncUserService implements AsyncUserServicePort, AutoCloseable {
+    
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+    
+    private final UserServicePort userServicePort;
+    private final ExecutorService executor;
+    
+    public AsyncUserService(UserServicePort userServicePort, ExecutorService executor) {
+        this.userServicePort = userServicePort;
+        this.executor = executor;
+    }
+    
+    @Override
+    public CompletableFuture<User> createUser(String name, String email) {
+        return submit(() -> userServicePort.createUser(name, email));
+    }
+    
+    @Override
+    public CompletableFuture<List<UserCreationResult>> createUsers(List<User> users) {
+        return submit(() -> userServicePort.createUsers(users));
+    }
+    
+    @Override
+    public CompletableFuture<User> findUserById(Long id) {
+        return submit(() -> userServicePort.findUserById(id));
+    }
+    
+    @Override
+    public CompletableFuture<User> findUserById(Long id, Set<UserField> fields) {
+        return submit(() -> userServicePort.findUserById(id, fields));
+    }
+    
+    @Override
+    public CompletableFuture<User> findUserByEmail(String email) {
+        return submit(() -> userServicePort.findUserByEmail(email));
+    }
+    
+    @Override
+    public CompletableFuture<User> findUserByEmail(String email, Set<UserField> fields) {
+        return submit(() -> userServicePort.findUserByEmail(email, fields));
+    }
+    
+    @Override
+    public CompletableFuture<UserStamp> findUserStampById(Long id) {
+        return submit(() -> userServicePort.findUserStampById(id));
+    }
+    
+    @Override
+    public CompletableFuture<UserStamp> findUserStampByEmail(String email) {
+        return submit(() -> userServicePort.findUserStampByEmail(email));
+    }
+    
+    @Override
+    public CompletableFuture<UserCollectionStamp> getUsersStamp() {
+        return submit(userServicePort::getUsersStamp);
+    }
+    
+    @Override
+    public CompletableFuture<UserPage> getUsersPage(Long afterId, Integer limit) {
+        return submit(() -> userServicePort.getUsersPage(afterId, limit));
+    }
+    
+    @Override
+    public CompletableFuture<UserPage> getUsersPage(Long afterId, Integer limit, Set<UserField> fields) {
+        return submit(() -> userServicePort.getUsersPage(afterId, limit, fields));
+    }
+    
+    @Override
+    public CompletableFuture<UserSearchPage> searchUsersByName(String namePrefix, String cursor, Integer limit) {
+        return submit(() -> userServicePort.searchUsersByName(namePrefix, cursor, limit));
+    }
+    
+    @Override
+    public CompletableFuture<User> updateUser(Long id, String name, String email, Long expectedVersion) {
+        return submit(() -> userServicePort.updateUser(id, name, email, expectedVersion));
+    }
+    
+    @Override
+    public CompletableFuture<Void> deleteUser(Long id) {
+        return submit(() -> {
+            userServicePort.deleteUser(id);
+            return null;
+        });
+    }
+    
+    @Override
+    public CompletableFuture<Integer> deleteUsers(List<Long> ids) {
+        return submit(() -> userServicePort.deleteUsers(ids));
+    }
+    
+    /**
+     * Stop accepting work and wait for queued operations to finish
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Run the operation on the bulkhead executor.
+     * A saturated executor yields an already failed future rather than an
+     * exception, so callers handle rejection like any other failure.
+     */
+    private <T> CompletableFuture<T> submit(Supplier<T> operation) {
+        try {
+            return CompletableFuture.supplyAsync(operation, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
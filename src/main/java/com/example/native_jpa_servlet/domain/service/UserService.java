@@ -1,11 +1,28 @@
 package com.example.native_jpa_servlet.domain.service;
 
+import com.example.native_jpa_servlet.domain.exception.VersionConflictException;
 import com.example.native_jpa_servlet.domain.model.User;
+import com.example.native_jpa_servlet.domain.model.UserCollectionStamp;
+import com.example.native_jpa_servlet.domain.model.UserCreationResult;
+import com.example.native_jpa_servlet.domain.model.UserField;
+import com.example.native_jpa_servlet.domain.model.UserPage;
+import com.example.native_jpa_servlet.domain.model.UserSearchPage;
+import com.example.native_jpa_servlet.domain.model.UserStamp;
 import com.example.native_jpa_servlet.domain.port.inbound.UserServicePort;
 import com.example.native_jpa_servlet.domain.port.outbound.UserRepositoryPort;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Domain service implementation for User management
@@ -14,6 +31,11 @@ import java.util.List;
 @Service
 public class UserService implements UserServicePort {
     
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 500;
+    static final int MAX_BATCH_SIZE = 5_000;
+    static final int MAX_NAME_PREFIX_LENGTH = 100;
+    
     private final UserRepositoryPort userRepositoryPort;
     
     public UserService(UserRepositoryPort userRepositoryPort) {
@@ -25,16 +47,73 @@ public class UserService implements UserServicePort {
         // Validate input
         validateUserInput(name, email);
         
-        // Check if email already exists
-        if (userRepositoryPort.existsByEmail(email)) {
-            throw new IllegalArgumentException("User with email '" + email + "' already exists");
-        }
-        
-        // Create and save user
+        // Insert once; the unique email constraint rejects duplicates with a
+        // DuplicateEmailException, without a separate existence check that could race
         User user = new User(name, email);
         return userRepositoryPort.save(user);
     }
     
+    @Override
+    public List<UserCreationResult> createUsers(List<User> users) {
+        if (users == null || users.isEmpty()) {
+            throw new IllegalArgumentException("Users cannot be null or empty");
+        }
+        if (users.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch cannot contain more than " + MAX_BATCH_SIZE + " users");
+        }
+        
+        UserCreationResult[] results = new UserCreationResult[users.size()];
+        
+        // Validate every item and keep the first occurrence of each email
+        Map<String, Integer> candidates = new LinkedHashMap<>();
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+            if (user == null) {
+                results[i] = UserCreationResult.invalid(i, "User cannot be null");
+                continue;
+            }
+            try {
+                validateUserInput(user.getName(), user.getEmail());
+            } catch (IllegalArgumentException e) {
+                results[i] = UserCreationResult.invalid(i, e.getMessage());
+                continue;
+            }
+            if (candidates.putIfAbsent(user.getEmail(), i) != null) {
+                results[i] = UserCreationResult.duplicate(i,
+                        "Email '" + user.getEmail() + "' appears more than once in the batch");
+            }
+        }
+        
+        // One set-based lookup instead of an existsByEmail call per item
+        Set<String> existingEmails = candidates.isEmpty()
+                ? Set.of()
+                : userRepositoryPort.findExistingEmails(candidates.keySet());
+        
+        List<User> toCreate = new ArrayList<>(candidates.size());
+        List<Integer> positions = new ArrayList<>(candidates.size());
+        for (Map.Entry<String, Integer> candidate : candidates.entrySet()) {
+            int index = candidate.getValue();
+            if (existingEmails.contains(candidate.getKey())) {
+                results[index] = UserCreationResult.duplicate(index,
+                        "User with email '" + candidate.getKey() + "' already exists");
+            } else {
+                User user = users.get(index);
+                toCreate.add(new User(user.getName(), user.getEmail()));
+                positions.add(index);
+            }
+        }
+        
+        if (!toCreate.isEmpty()) {
+            List<User> created = userRepositoryPort.saveAll(toCreate);
+            for (int i = 0; i < created.size(); i++) {
+                int index = positions.get(i);
+                results[index] = UserCreationResult.created(index, created.get(i));
+            }
+        }
+        
+        return Arrays.asList(results);
+    }
+    
     @Override
     public User findUserById(Long id) {
         if (id == null) {
@@ -45,6 +124,17 @@ public class UserService implements UserServicePort {
                 .orElseThrow(() -> new IllegalArgumentException("User with ID '" + id + "' not found"));
     }
     
+    @Override
+    public User findUserById(Long id, Set<UserField> fields) {
+        if (id == null) {
+            throw new IllegalArgumentException("User ID cannot be null");
+        }
+        validateFields(fields);
+        
+        return userRepositoryPort.findFieldsById(id, fields)
+                .orElseThrow(() -> new IllegalArgumentException("User with ID '" + id + "' not found"));
+    }
+    
     @Override
     public User findUserByEmail(String email) {
         if (email == null || email.trim().isEmpty()) {
@@ -56,31 +146,115 @@ public class UserService implements UserServicePort {
     }
     
     @Override
-    public List<User> getAllUsers() {
-        return userRepositoryPort.findAll();
+    public User findUserByEmail(String email, Set<UserField> fields) {
+        if (email == null || email.trim().isEmpty()) {
+            throw new IllegalArgumentException("Email cannot be null or empty");
+        }
+        validateFields(fields);
+        
+        return userRepositoryPort.findFieldsByEmail(email, fields)
+                .orElseThrow(() -> new IllegalArgumentException("User with email '" + email + "' not found"));
     }
     
     @Override
-    public User updateUser(Long id, String name, String email) {
-        // Validate input
+    public UserStamp findUserStampById(Long id) {
         if (id == null) {
             throw new IllegalArgumentException("User ID cannot be null");
         }
-        validateUserInput(name, email);
         
-        // Find existing user
-        User existingUser = findUserById(id);
+        return userRepositoryPort.findStampById(id)
+                .orElseThrow(() -> new IllegalArgumentException("User with ID '" + id + "' not found"));
+    }
+    
+    @Override
+    public UserStamp findUserStampByEmail(String email) {
+        if (email == null || email.trim().isEmpty()) {
+            throw new IllegalArgumentException("Email cannot be null or empty");
+        }
+        
+        return userRepositoryPort.findStampByEmail(email)
+                .orElseThrow(() -> new IllegalArgumentException("User with email '" + email + "' not found"));
+    }
+    
+    @Override
+    public UserCollectionStamp getUsersStamp() {
+        return userRepositoryPort.findCollectionStamp();
+    }
+    
+    @Override
+    public List<User> getAllUsers() {
+        return userRepositoryPort.findAll();
+    }
+    
+    @Override
+    public UserPage getUsersPage(Long afterId, Integer limit) {
+        int pageSize = pageSize(afterId, limit);
+        
+        // Fetch one extra row to know whether another page follows
+        return toPage(userRepositoryPort.findPage(afterId, pageSize + 1), pageSize);
+    }
+    
+    @Override
+    public UserPage getUsersPage(Long afterId, Integer limit, Set<UserField> fields) {
+        int pageSize = pageSize(afterId, limit);
+        validateFields(fields);
+        
+        // The ID is always read since the next cursor is taken from it
+        Set<UserField> read = EnumSet.copyOf(fields);
+        read.add(UserField.ID);
+        return toPage(userRepositoryPort.findPageFields(afterId, pageSize + 1, read), pageSize);
+    }
+    
+    @Override
+    public UserSearchPage searchUsersByName(String namePrefix, String cursor, Integer limit) {
+        if (namePrefix == null || namePrefix.isBlank()) {
+            throw new IllegalArgumentException("Name prefix cannot be null or empty");
+        }
+        if (namePrefix.length() > MAX_NAME_PREFIX_LENGTH) {
+            throw new IllegalArgumentException("Name prefix cannot be longer than " + MAX_NAME_PREFIX_LENGTH + " characters");
+        }
+        int pageSize = pageSize(null, limit);
+        SearchCursor after = cursor == null ? null : SearchCursor.decode(cursor);
         
-        // Check if email is being changed and if new email already exists
-        if (!existingUser.getEmail().equals(email) && userRepositoryPort.existsByEmail(email)) {
-            throw new IllegalArgumentException("User with email '" + email + "' already exists");
+        // Fetch one extra row to know whether another page follows
+        List<User> users = userRepositoryPort.findPageByNamePrefix(User.nameKey(namePrefix),
+                after == null ? null : after.nameKey(), after == null ? null : after.id(), pageSize + 1);
+        if (users.size() <= pageSize) {
+            return new UserSearchPage(users, null);
         }
         
-        // Update user info
-        existingUser.updateInfo(name, email);
+        List<User> page = users.subList(0, pageSize);
+        User last = page.get(pageSize - 1);
+        return new UserSearchPage(page, new SearchCursor(User.nameKey(last.getName()), last.getId()).encode());
+    }
+    
+    @Override
+    public void exportUsers(Consumer<User> action) {
+        if (action == null) {
+            throw new IllegalArgumentException("Export action cannot be null");
+        }
         
-        // Save and return updated user
-        return userRepositoryPort.save(existingUser);
+        userRepositoryPort.forEachUser(action);
+    }
+    
+    @Override
+    public User updateUser(Long id, String name, String email, Long expectedVersion) {
+        // Validate input
+        if (id == null) {
+            throw new IllegalArgumentException("User ID cannot be null");
+        }
+        validateUserInput(name, email);
+        
+        // One conditional write; the unique constraint guards the email and the
+        // version guards against lost updates, so no pre-read is needed
+        return userRepositoryPort.updateInfo(id, name, email, expectedVersion)
+                .orElseThrow(() -> {
+                    // Only the failure path pays for telling "gone" apart from "changed"
+                    if (expectedVersion != null && userRepositoryPort.existsById(id)) {
+                        return new VersionConflictException(id, expectedVersion);
+                    }
+                    return new IllegalArgumentException("User with ID '" + id + "' not found");
+                });
     }
     
     @Override
@@ -89,12 +263,58 @@ public class UserService implements UserServicePort {
             throw new IllegalArgumentException("User ID cannot be null");
         }
         
-        // Verify user exists before deletion
-        if (!userRepositoryPort.existsById(id)) {
+        // A single DELETE; the affected row count tells whether the user existed
+        if (userRepositoryPort.deleteByIdReturningCount(id) == 0) {
             throw new IllegalArgumentException("User with ID '" + id + "' not found");
         }
+    }
+    
+    @Override
+    public int deleteUsers(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("User IDs cannot be null or empty");
+        }
+        if (ids.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch cannot contain more than " + MAX_BATCH_SIZE + " user IDs");
+        }
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("User ID cannot be null");
+        }
+        
+        return userRepositoryPort.deleteAllByIdIn(ids);
+    }
+    
+    /**
+     * Validate the page cursor and limit
+     * @return the page size to use
+     */
+    private static int pageSize(Long afterId, Integer limit) {
+        if (afterId != null && afterId < 0) {
+            throw new IllegalArgumentException("Cursor cannot be negative");
+        }
+        if (limit != null && limit < 1) {
+            throw new IllegalArgumentException("Limit must be greater than zero");
+        }
         
-        userRepositoryPort.deleteById(id);
+        return limit == null ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+    }
+    
+    /**
+     * Cut a page from users fetched with one extra row beyond the page size
+     */
+    private static UserPage toPage(List<User> users, int pageSize) {
+        if (users.size() <= pageSize) {
+            return new UserPage(users, null);
+        }
+        
+        List<User> page = users.subList(0, pageSize);
+        return new UserPage(page, page.get(pageSize - 1).getId());
+    }
+    
+    private static void validateFields(Set<UserField> fields) {
+        if (fields == null || fields.isEmpty()) {
+            throw new IllegalArgumentException("Fields cannot be null or empty");
+        }
     }
     
     /**
@@ -102,7 +322,7 @@ public class UserService implements UserServicePort {
      * @param name the user name
      * @param email the user email
      */
-    private void validateUserInput(String name, String email) {
+    void validateUserInput(String name, String email) {
         if (name == null || name.trim().isEmpty()) {
             throw new IllegalArgumentException("Name cannot be null or empty");
         }
@@ -116,4 +336,34 @@ public class UserService implements UserServicePort {
             throw new IllegalArgumentException("Invalid email format");
         }
     }
+    
+    /**
+     * Position after the last user of a search page: its name key and ID.
+     * Clients see it as an opaque, URL-safe token.
+     */
+    private record SearchCursor(String nameKey, long id) {
+        
+        String encode() {
+            byte[] bytes = (id + ":" + nameKey).getBytes(StandardCharsets.UTF_8);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        }
+        
+        /**
+         * @throws IllegalArgumentException if the token was not produced by {@link #encode()}
+         */
+        static SearchCursor decode(String token) {
+            String value;
+            long id;
+            try {
+                value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                id = Long.parseLong(value.substring(0, Math.max(value.indexOf(':'), 0)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid search cursor", e);
+            }
+            if (id < 0) {
+                throw new IllegalArgumentException("Invalid search cursor");
+            }
+            return new SearchCursor(value.substring(value.indexOf(':') + 1), id);
+        }
+    }
 }
@@ -1,108 +1,288 @@
 package com.example.native_jpa_servlet.infrastructure.adapter.inbound.web.controller;
 
+import com.example.native_jpa_servlet.domain.exception.DuplicateEmailException;
+import com.example.native_jpa_servlet.domain.exception.VersionConflictException;
 import com.example.native_jpa_servlet.domain.model.User;
+import com.example.native_jpa_servlet.domain.model.UserCollectionStamp;
+import com.example.native_jpa_servlet.domain.model.UserField;
+import com.example.native_jpa_servlet.domain.model.UserStamp;
+import com.example.native_jpa_servlet.domain.port.inbound.AsyncUserServicePort;
 import com.example.native_jpa_servlet.domain.port.inbound.UserServicePort;
+import com.example.native_jpa_servlet.infrastructure.adapter.inbound.web.dto.BatchCreateUserResponse;
+import com.example.native_jpa_servlet.infrastructure.adapter.inbound.web.dto.BulkDeleteRequest;
+import com.example.native_jpa_servlet.infrastructure.adapter.inbound.web.dto.BulkDeleteResponse;
 import com.example.native_jpa_servlet.infrastructure.adapter.inbound.web.dto.CreateUserRequest;
 import com.example.native_jpa_servlet.infrastructure.adapter.inbound.web.dto.UpdateUserRequest;
 import com.example.native_jpa_servlet.infrastructure.adapter.inbound.web.dto.UserResponse;
+import com.example.native_jpa_servlet.infrastructure.adapter.inbound.web.snapshot.UserPageSnapshot;
+import com.example.native_jpa_servlet.infrastructure.adapter.inbound.web.snapshot.UserPageSnapshotCache;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
  * REST Controller for User management
- * This is the inbound adapter that exposes HTTP endpoints
+ * This is the inbound adapter that exposes HTTP endpoints.
+ * Database-backed operations return a CompletableFuture from the
+ * AsyncUserServicePort, so the servlet thread is released while the work runs
+ * on the user service bulkhead; a full bulkhead is answered with 503.
+ * Reads carry validators (ETag, and Last-Modified for single users) and
+ * conditional reads are checked against a lookup of the change-tracking
+ * columns only, so an unchanged user or page costs no full load and no
+ * serialization.
+ * GET endpoints accept a sparse fieldset, ?fields=id,email, which is read
+ * with a query restricted to those columns and written without the others.
  */
 @RestController
 @RequestMapping("/api/users")
 public class UserController {
     
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    static final String RETRY_AFTER_SECONDS = "1";
+    
     private final UserServicePort userServicePort;
+    private final AsyncUserServicePort asyncUserServicePort;
+    private final UserPageSnapshotCache userPageSnapshots;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter exportWriter;
     
-    public UserController(UserServicePort userServicePort) {
+    public UserController(UserServicePort userServicePort, AsyncUserServicePort asyncUserServicePort,
+                          UserPageSnapshotCache userPageSnapshots, ObjectMapper objectMapper) {
         this.userServicePort = userServicePort;
+        this.asyncUserServicePort = asyncUserServicePort;
+        this.userPageSnapshots = userPageSnapshots;
+        this.objectMapper = objectMapper;
+        this.exportWriter = objectMapper.writerFor(UserResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
     
     /**
      * Create a new user
      */
     @PostMapping
-    public ResponseEntity<UserResponse> createUser(@RequestBody CreateUserRequest request) {
-        try {
-            User user = userServicePort.createUser(request.getName(), request.getEmail());
-            return ResponseEntity.status(HttpStatus.CREATED).body(new UserResponse(user));
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().build();
-        }
+    public CompletableFuture<ResponseEntity<UserResponse>> createUser(@RequestBody CreateUserRequest request) {
+        return asyncUserServicePort.createUser(request.getName(), request.getEmail())
+                .thenApply(user -> withValidators(ResponseEntity.status(HttpStatus.CREATED), user)
+                        .body(new UserResponse(user)))
+                .exceptionally(failure -> onFailure(failure, HttpStatus.BAD_REQUEST));
+    }
+    
+    /**
+     * Create many users in one request.
+     * Returns 201 when every item was created, otherwise 207 with a result per item.
+     */
+    @PostMapping("/batch")
+    public CompletableFuture<ResponseEntity<BatchCreateUserResponse>> createUsers(
+            @RequestBody List<CreateUserRequest> requests) {
+        List<User> users = requests.stream()
+                .map(request -> request == null ? null : new User(request.getName(), request.getEmail()))
+                .collect(Collectors.toList());
+        return asyncUserServicePort.createUsers(users)
+                .thenApply(results -> {
+                    BatchCreateUserResponse response = new BatchCreateUserResponse(results);
+                    HttpStatus status = response.getFailed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+                    return ResponseEntity.status(status).body(response);
+                })
+                .exceptionally(failure -> onFailure(failure, HttpStatus.BAD_REQUEST));
     }
     
     /**
-     * Get user by ID
+     * Get user by ID.
+     * Returns 304 without a body when If-None-Match or If-Modified-Since
+     * shows the client already has the current version.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<UserResponse> getUserById(@PathVariable Long id) {
+    public CompletableFuture<ResponseEntity<UserResponse>> getUserById(
+            @PathVariable Long id,
+            @RequestParam(required = false) String fields,
+            @RequestHeader HttpHeaders headers) {
+        Set<UserField> selected;
         try {
-            User user = userServicePort.findUserById(id);
-            return ResponseEntity.ok(new UserResponse(user));
+            selected = parseFields(fields);
         } catch (IllegalArgumentException e) {
-            return ResponseEntity.notFound().build();
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
         }
+        return conditionalGet(headers, selected,
+                () -> asyncUserServicePort.findUserStampById(id),
+                () -> selected == null
+                        ? asyncUserServicePort.findUserById(id)
+                        : asyncUserServicePort.findUserById(id, withValidatorFields(selected)));
     }
     
     /**
-     * Get user by email
+     * Get user by email.
+     * Returns 304 without a body when If-None-Match or If-Modified-Since
+     * shows the client already has the current version.
      */
     @GetMapping("/email/{email}")
-    public ResponseEntity<UserResponse> getUserByEmail(@PathVariable String email) {
+    public CompletableFuture<ResponseEntity<UserResponse>> getUserByEmail(
+            @PathVariable String email,
+            @RequestParam(required = false) String fields,
+            @RequestHeader HttpHeaders headers) {
+        Set<UserField> selected;
         try {
-            User user = userServicePort.findUserByEmail(email);
-            return ResponseEntity.ok(new UserResponse(user));
+            selected = parseFields(fields);
         } catch (IllegalArgumentException e) {
-            return ResponseEntity.notFound().build();
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
         }
+        return conditionalGet(headers, selected,
+                () -> asyncUserServicePort.findUserStampByEmail(email),
+                () -> selected == null
+                        ? asyncUserServicePort.findUserByEmail(email)
+                        : asyncUserServicePort.findUserByEmail(email, withValidatorFields(selected)));
     }
     
     /**
-     * Get all users
+     * Get a page of users using keyset pagination.
+     * The cursor for the next page is returned in the X-Next-Cursor header
+     * and is absent on the last page. Pages carry a weak ETag derived from the
+     * user count and the latest update time, and If-None-Match with that tag
+     * returns 304.
+     * Pages are served from pre-serialized snapshots that stay valid until the
+     * next write, gzip-encoded when the client accepts it, so a repeated read
+     * touches neither the database nor the JSON serializer.
      */
     @GetMapping
-    public ResponseEntity<List<UserResponse>> getAllUsers() {
-        List<User> users = userServicePort.getAllUsers();
-        List<UserResponse> responses = users.stream()
-                .map(UserResponse::new)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(responses);
+    public CompletableFuture<ResponseEntity<byte[]>> getAllUsers(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields,
+            @RequestHeader HttpHeaders headers) {
+        Set<UserField> selected;
+        try {
+            selected = parseFields(fields);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+        
+        CompletableFuture<ResponseEntity<byte[]>> response;
+        if (isConditional(headers) && !userPageSnapshots.contains(after, limit, written(selected))) {
+            // A cold page can still be answered with 304 from the collection stamp alone
+            response = asyncUserServicePort.getUsersStamp().thenCompose(stamp -> {
+                String tag = collectionTag(stamp);
+                if (isNotModified(headers, tag, null)) {
+                    return CompletableFuture.completedFuture(
+                            ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(tag).<byte[]>build());
+                }
+                return pageSnapshot(after, limit, selected).thenApply(snapshot -> pageResponse(snapshot, headers));
+            });
+        } else {
+            response = pageSnapshot(after, limit, selected).thenApply(snapshot -> pageResponse(snapshot, headers));
+        }
+        return response.exceptionally(failure -> onFailure(failure, HttpStatus.BAD_REQUEST));
+    }
+    
+    /**
+     * Search users by name prefix, ignoring case, for type-ahead.
+     * Matches are ordered by name and keyset-paginated: the opaque cursor for
+     * the next page is returned in the X-Next-Cursor header, to be passed back
+     * as ?after=, and is absent on the last page.
+     */
+    @GetMapping("/search")
+    public CompletableFuture<ResponseEntity<List<UserResponse>>> searchUsers(
+            @RequestParam String namePrefix,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        return asyncUserServicePort.searchUsersByName(namePrefix, after, limit)
+                .thenApply(page -> {
+                    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+                    if (page.hasNext()) {
+                        response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+                    }
+                    return response.body(page.getUsers().stream().map(UserResponse::new).toList());
+                })
+                .exceptionally(failure -> onFailure(failure, HttpStatus.BAD_REQUEST));
+    }
+    
+    /**
+     * Export all users as newline-delimited JSON.
+     * Records are written to the response as they are read from the database cursor,
+     * so memory use does not grow with the size of the table.
+     */
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.setRootValueSeparator(null);
+                userServicePort.exportUsers(user -> {
+                    try {
+                        exportWriter.writeValue(generator, new UserResponse(user));
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(body);
     }
     
     /**
-     * Update user
+     * Update user.
+     * With an If-Match header carrying the ETag of a previous response the update
+     * only applies if the user is still at that version, otherwise 412 is returned.
      */
     @PutMapping("/{id}")
-    public ResponseEntity<UserResponse> updateUser(
+    public CompletableFuture<ResponseEntity<UserResponse>> updateUser(
             @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestBody UpdateUserRequest request) {
+        Long expectedVersion;
         try {
-            User user = userServicePort.updateUser(id, request.getName(), request.getEmail());
-            return ResponseEntity.ok(new UserResponse(user));
+            expectedVersion = parseVersionTag(ifMatch, id);
+        } catch (VersionConflictException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build());
         } catch (IllegalArgumentException e) {
-            return ResponseEntity.notFound().build();
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
         }
+        
+        return asyncUserServicePort.updateUser(id, request.getName(), request.getEmail(), expectedVersion)
+                .thenApply(user -> withValidators(ResponseEntity.ok(), user).body(new UserResponse(user)))
+                .exceptionally(failure -> onFailure(failure, HttpStatus.NOT_FOUND));
     }
     
     /**
      * Delete user
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteUser(@PathVariable Long id) {
-        try {
-            userServicePort.deleteUser(id);
-            return ResponseEntity.noContent().build();
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.notFound().build();
-        }
+    public CompletableFuture<ResponseEntity<Void>> deleteUser(@PathVariable Long id) {
+        return asyncUserServicePort.deleteUser(id)
+                .thenApply(ignored -> ResponseEntity.noContent().<Void>build())
+                .exceptionally(failure -> onFailure(failure, HttpStatus.NOT_FOUND));
+    }
+    
+    /**
+     * Delete many users with set-based statements, for cleanup jobs.
+     * IDs that do not exist are ignored; the response reports how many were deleted.
+     */
+    @PostMapping("/batch/delete")
+    public CompletableFuture<ResponseEntity<BulkDeleteResponse>> deleteUsers(@RequestBody BulkDeleteRequest request) {
+        return asyncUserServicePort.deleteUsers(request.getIds())
+                .thenApply(deleted -> ResponseEntity.ok(new BulkDeleteResponse(request.getIds().size(), deleted)))
+                .exceptionally(failure -> onFailure(failure, HttpStatus.BAD_REQUEST));
     }
     
     /**
@@ -112,4 +292,265 @@ public class UserController {
     public ResponseEntity<String> health() {
         return ResponseEntity.ok("User service is running");
     }
+    
+    /**
+     * Map a failed operation to a response: 503 when the bulkhead rejected it,
+     * 412 for a version conflict, 400 for an email that is already taken, as
+     * on create, and the given status for other invalid input.
+     * Anything else is rethrown to the default error handling.
+     */
+    private static <T> ResponseEntity<T> onFailure(Throwable failure, HttpStatus invalidInputStatus) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause() : failure;
+        if (cause instanceof RejectedExecutionException) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                    .build();
+        }
+        if (cause instanceof VersionConflictException) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+        if (cause instanceof DuplicateEmailException) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (cause instanceof IllegalArgumentException) {
+            return ResponseEntity.status(invalidInputStatus).build();
+        }
+        throw failure instanceof CompletionException ? (CompletionException) failure : new CompletionException(cause);
+    }
+    
+    /**
+     * Serve a single user. An unconditional request loads the user straight away;
+     * a conditional one first fetches only its stamp and loads the user only
+     * when the client's copy is out of date.
+     */
+    private CompletableFuture<ResponseEntity<UserResponse>> conditionalGet(
+            HttpHeaders headers, Set<UserField> fields,
+            Supplier<CompletableFuture<UserStamp>> stamp, Supplier<CompletableFuture<User>> user) {
+        Set<UserField> written = written(fields);
+        CompletableFuture<ResponseEntity<UserResponse>> response;
+        if (!isConditional(headers)) {
+            response = user.get().thenApply(found -> withValidators(ResponseEntity.ok(), found)
+                    .body(new UserResponse(found, written)));
+        } else {
+            response = stamp.get().thenCompose(current -> {
+                if (isNotModified(headers, userTag(current.getId(), current.getVersion()), current.getUpdatedAt())) {
+                    return CompletableFuture.completedFuture(
+                            withValidators(ResponseEntity.status(HttpStatus.NOT_MODIFIED), current.getId(),
+                                    current.getVersion(), current.getUpdatedAt()).<UserResponse>build());
+                }
+                return user.get().thenApply(found -> withValidators(ResponseEntity.ok(), found)
+                        .body(new UserResponse(found, written)));
+            });
+        }
+        return response.exceptionally(failure -> onFailure(failure, HttpStatus.NOT_FOUND));
+    }
+    
+    /**
+     * Get the snapshot of a page, building it on a miss. The stamp is read
+     * before the page, so a write in between leaves the tag older than the
+     * body and the next conditional request simply misses.
+     */
+    private CompletableFuture<UserPageSnapshot> pageSnapshot(Long after, Integer limit, Set<UserField> fields) {
+        Set<UserField> written = written(fields);
+        return userPageSnapshots.get(after, limit, written, () -> asyncUserServicePort.getUsersStamp()
+                .thenCompose(stamp -> (fields == null
+                        ? asyncUserServicePort.getUsersPage(after, limit)
+                        : asyncUserServicePort.getUsersPage(after, limit, fields))
+                        .thenApply(page -> userPageSnapshots.snapshot(page, written, collectionTag(stamp)))));
+    }
+    
+    /**
+     * Parse a sparse fieldset such as "id,email"
+     * @return the selected fields, or null when the parameter is absent and all fields are wanted
+     * @throws IllegalArgumentException if the list is empty or names an unknown field
+     */
+    static Set<UserField> parseFields(String fields) {
+        if (fields == null) {
+            return null;
+        }
+        Set<UserField> selected = EnumSet.noneOf(UserField.class);
+        for (String name : fields.split(",")) {
+            if (!name.isBlank()) {
+                selected.add(UserField.fromPropertyName(name.trim()));
+            }
+        }
+        if (selected.isEmpty()) {
+            throw new IllegalArgumentException("Fields cannot be empty");
+        }
+        return selected;
+    }
+    
+    private static Set<UserField> written(Set<UserField> fields) {
+        return fields == null ? UserField.ALL : fields;
+    }
+    
+    /**
+     * Add the fields behind the ETag and Last-Modified headers to a sparse fieldset,
+     * so single-user responses keep their validators whatever fields are asked for
+     */
+    private static Set<UserField> withValidatorFields(Set<UserField> fields) {
+        Set<UserField> read = EnumSet.copyOf(fields);
+        read.add(UserField.ID);
+        read.add(UserField.VERSION);
+        read.add(UserField.UPDATED_AT);
+        return read;
+    }
+    
+    /**
+     * Write a page snapshot as the response, or 304 when the client's copy is current
+     */
+    private static ResponseEntity<byte[]> pageResponse(UserPageSnapshot snapshot, HttpHeaders headers) {
+        if (isNotModified(headers, snapshot.getETag(), null)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(snapshot.getETag()).build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(snapshot.getETag())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (snapshot.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(snapshot.getNextCursor()));
+        }
+        if (snapshot.getGzipBody() != null && acceptsGzip(headers)) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.getGzipBody());
+        }
+        return response.body(snapshot.getBody());
+    }
+    
+    /**
+     * Check whether Accept-Encoding allows gzip. An explicit gzip entry decides,
+     * otherwise "*" does; either is turned off by q=0.
+     */
+    static boolean acceptsGzip(HttpHeaders headers) {
+        Boolean gzip = null;
+        Boolean any = null;
+        for (String value : headers.getOrEmpty(HttpHeaders.ACCEPT_ENCODING)) {
+            for (String coding : value.split(",")) {
+                String[] parts = coding.split(";");
+                String name = parts[0].trim();
+                boolean accepted = true;
+                for (int i = 1; i < parts.length; i++) {
+                    String parameter = parts[i].replace(" ", "");
+                    if (parameter.startsWith("q=") && parameter.substring(2).matches("0(\\.0{0,3})?")) {
+                        accepted = false;
+                    }
+                }
+                if ("gzip".equalsIgnoreCase(name)) {
+                    gzip = accepted;
+                } else if ("*".equals(name)) {
+                    any = accepted;
+                }
+            }
+        }
+        return gzip != null ? gzip : Boolean.TRUE.equals(any);
+    }
+    
+    private static boolean isConditional(HttpHeaders headers) {
+        return headers.containsKey(HttpHeaders.IF_NONE_MATCH) || headers.containsKey(HttpHeaders.IF_MODIFIED_SINCE);
+    }
+    
+    /**
+     * Evaluate If-None-Match, or If-Modified-Since when there is no If-None-Match,
+     * following RFC 9110. ETags are compared weakly, and Last-Modified has
+     * the one second resolution of HTTP dates.
+     * @param tag the current ETag, or null if there is none
+     * @param lastModified the current update time, or null if there is none
+     * @return true if the client's copy is current and 304 should be returned
+     */
+    static boolean isNotModified(HttpHeaders headers, String tag, LocalDateTime lastModified) {
+        List<String> ifNoneMatch = headers.getIfNoneMatch();
+        if (!ifNoneMatch.isEmpty()) {
+            return tag != null && ifNoneMatch.stream()
+                    .anyMatch(candidate -> "*".equals(candidate.trim()) || opaqueTag(candidate).equals(opaqueTag(tag)));
+        }
+        long ifModifiedSince = headers.getIfModifiedSince();
+        return ifModifiedSince >= 0 && lastModified != null
+                && toInstant(lastModified).getEpochSecond() <= ifModifiedSince / 1000;
+    }
+    
+    private static String opaqueTag(String tag) {
+        String trimmed = tag.trim();
+        return trimmed.startsWith("W/") ? trimmed.substring(2) : trimmed;
+    }
+    
+    /**
+     * Strong ETag of a single user, built from its ID and version.
+     * The version is bumped by every update, so unlike the update time it
+     * cannot stay the same across two writes; the ID keeps tags distinct
+     * when an email moves from one user to another.
+     * @return the quoted tag, or null if the user has no version
+     */
+    static String userTag(Long id, Long version) {
+        return version == null ? null : "\"" + id + "-" + version + "\"";
+    }
+    
+    /**
+     * Weak ETag of the user collection, built from the user count and the latest update time
+     */
+    static String collectionTag(UserCollectionStamp stamp) {
+        LocalDateTime lastUpdatedAt = stamp.getLastUpdatedAt();
+        String updated = lastUpdatedAt == null
+                ? "0"
+                : lastUpdatedAt.toEpochSecond(ZoneOffset.UTC) + "." + lastUpdatedAt.getNano();
+        return "W/\"" + stamp.getCount() + "-" + updated + "\"";
+    }
+    
+    /**
+     * Add the strong ETag, for conditional reads and If-Match on later updates,
+     * and Last-Modified from the user's update time
+     */
+    private static ResponseEntity.BodyBuilder withValidators(ResponseEntity.BodyBuilder builder, User user) {
+        return withValidators(builder, user.getId(), user.getVersion(), user.getUpdatedAt());
+    }
+    
+    private static ResponseEntity.BodyBuilder withValidators(ResponseEntity.BodyBuilder builder, Long id,
+                                                             Long version, LocalDateTime updatedAt) {
+        String tag = userTag(id, version);
+        if (tag != null) {
+            builder.eTag(tag);
+        }
+        if (updatedAt != null) {
+            builder.lastModified(toInstant(updatedAt));
+        }
+        return builder;
+    }
+    
+    /**
+     * Update times are stored as local date-times in the server's time zone
+     */
+    private static Instant toInstant(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant();
+    }
+    
+    /**
+     * Parse the version out of an If-Match header such as "7-3", the ETag of
+     * user 7 at version 3.
+     * @return the expected version, or null when the header is absent or "*"
+     * @throws IllegalArgumentException if the header is not a user ETag
+     * @throws VersionConflictException if the tag belongs to a different user
+     */
+    static Long parseVersionTag(String ifMatch, Long id) {
+        if (ifMatch == null || ifMatch.isBlank() || "*".equals(ifMatch.trim())) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new IllegalArgumentException("If-Match must be a single strong ETag");
+        }
+        String value = tag.substring(1, tag.length() - 1);
+        int separator = value.lastIndexOf('-');
+        if (separator < 0) {
+            throw new IllegalArgumentException("If-Match does not carry a user ID");
+        }
+        try {
+            long taggedId = Long.parseLong(value.substring(0, separator));
+            long version = Long.parseLong(value.substring(separator + 1));
+            if (!id.equals(taggedId)) {
+                throw new VersionConflictException(id, version);
+            }
+            return version;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("If-Match does not carry a user version", e);
+        }
+    }
 }
@@ -0,0 +1,39 @@
+package com.example.native_jpa_servlet.infrastructure.adapter.inbound.web.dto;
+
+import com.example.native_jpa_servlet.domain.model.UserCreationResult;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * DTO for the outcome of a single item in a batch creation request
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchCreateItemResponse {
+    
+    private final int index;
+    private final String status;
+    private final UserResponse user;
+    private final String error;
+    
+    public BatchCreateItemResponse(UserCreationResult result) {
+        this.index = result.getIndex();
+        this.status = result.getStatus().name();
+        this.user = result.getUser() != null ? new UserResponse(result.getUser()) : null;
+        this.error = result.getError();
+    }
+    
+    public int getIndex() {
+        return index;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public UserResponse getUser() {
+        return user;
+    }
+    
+    public String getError() {
+        return error;
+    }
+}
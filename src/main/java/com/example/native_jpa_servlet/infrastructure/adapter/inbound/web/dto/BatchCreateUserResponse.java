@@ -0,0 +1,36 @@
+package com.example.native_jpa_servlet.infrastructure.adapter.inbound.web.dto;
+
+import com.example.native_jpa_servlet.domain.model.UserCreationResult;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * DTO for batch user creation responses
+ */
+public class BatchCreateUserResponse {
+    
+    private final int created;
+    private final int failed;
+    private final List<BatchCreateItemResponse> results;
+    
+    public BatchCreateUserResponse(List<UserCreationResult> results) {
+        this.created = (int) results.stream().filter(UserCreationResult::isCreated).count();
+        this.failed = results.size() - created;
+        this.results = results.stream()
+                .map(BatchCreateItemResponse::new)
+                .collect(Collectors.toList());
+    }
+    
+    public int getCreated() {
+        return created;
+    }
+    
+    public int getFailed() {
+        return failed;
+    }
+    
+    public List<BatchCreateItemResponse> getResults() {
+        return results;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.native_jpa_servlet.infrastructure.adapter.inbound.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * DTO for bulk user deletion requests
+ */
+public class BulkDeleteRequest {
+    
+    private final List<Long> ids;
+    
+    @JsonCreator
+    public BulkDeleteRequest(@JsonProperty("ids") List<Long> ids) {
+        this.ids = ids;
+    }
+    
+    public List<Long> getIds() {
+        return ids;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.native_jpa_servlet.infrastructure.adapter.inbound.web.dto;
+
+/**
+ * DTO for bulk user deletion responses
+ */
+public class BulkDeleteResponse {
+    
+    private final int requested;
+    private final int deleted;
+    
+    public BulkDeleteResponse(int requested, int deleted) {
+        this.requested = requested;
+        this.deleted = deleted;
+    }
+    
+    public int getRequested() {
+        return requested;
+    }
+    
+    public int getDeleted() {
+        return deleted;
+    }
+}
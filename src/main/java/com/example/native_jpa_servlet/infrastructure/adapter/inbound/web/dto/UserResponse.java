@@ -1,31 +1,50 @@
 package com.example.native_jpa_servlet.infrastructure.adapter.inbound.web.dto;
 
 import com.example.native_jpa_servlet.domain.model.User;
+import com.example.native_jpa_servlet.domain.model.UserField;
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import java.time.LocalDateTime;
+import java.util.Set;
 
 /**
  * DTO for User responses
+ * May be restricted to a subset of fields for sparse fieldset requests.
  */
 public class UserResponse {
     
+    /**
+     * Format of the createdAt and updatedAt fields
+     */
+    public static final String DATE_TIME_PATTERN = "yyyy-MM-dd HH:mm:ss";
+    
     private final Long id;
     private final String name;
     private final String email;
     
-    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    @JsonFormat(pattern = DATE_TIME_PATTERN)
     private final LocalDateTime createdAt;
     
-    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    @JsonFormat(pattern = DATE_TIME_PATTERN)
     private final LocalDateTime updatedAt;
     
+    private final Long version;
+    
+    private final Set<UserField> fields;
+    
     public UserResponse(User user) {
+        this(user, UserField.ALL);
+    }
+    
+    public UserResponse(User user, Set<UserField> fields) {
+        this.fields = fields;
         this.id = user.getId();
         this.name = user.getName();
         this.email = user.getEmail();
         this.createdAt = user.getCreatedAt();
         this.updatedAt = user.getUpdatedAt();
+        this.version = user.getVersion();
     }
     
     public Long getId() {
@@ -47,4 +66,17 @@ public class UserResponse {
     public LocalDateTime getUpdatedAt() {
         return updatedAt;
     }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    /**
+     * The fields to write; the others are left out of the JSON rather than written as null.
+     * Only honoured by the UserJsonModule serializer.
+     */
+    @JsonIgnore
+    public Set<UserField> getFields() {
+        return fields;
+    }
 }
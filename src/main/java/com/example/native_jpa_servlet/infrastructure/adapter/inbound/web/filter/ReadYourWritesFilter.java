@@ -0,0 +1,84 @@
+package com.example.native_jpa_servlet.infrastructure.adapter.inbound.web.filter;
+
+import com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.routing.PrimaryReadScope;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Keeps a client's reads on the primary for a while after it writes, so it
+ * does not read a replica that has not caught up with its own changes.
+ *
+ * A request with an unsafe method (POST, PUT, PATCH, DELETE) counts as a
+ * write: it runs in a {@link PrimaryReadScope} and the response sets a
+ * cookie holding the time until which the client stays pinned. Later
+ * requests carrying an unexpired cookie run in the scope as well. The window
+ * travels with the client, so it holds whichever instance serves the next
+ * request; a value further ahead than one window is ignored.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    
+    static final String COOKIE_NAME = "read-your-writes-until";
+    
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+    
+    private final Duration window;
+    
+    public ReadYourWritesFilter(Duration window) {
+        this.window = window;
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return window.isZero() || window.isNegative();
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long now = System.currentTimeMillis();
+        boolean write = !SAFE_METHODS.contains(request.getMethod());
+        if (write) {
+            // Set before the chain runs, while the response is not yet committed
+            Cookie cookie = new Cookie(COOKIE_NAME, Long.toString(now + window.toMillis()));
+            cookie.setPath("/");
+            cookie.setMaxAge((int) Math.max(window.toSeconds(), 1));
+            cookie.setHttpOnly(true);
+            cookie.setAttribute("SameSite", "Lax");
+            response.addCookie(cookie);
+        }
+        
+        if (!write && !isPinned(request, now)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        try (PrimaryReadScope.Binding ignored = PrimaryReadScope.bind()) {
+            chain.doFilter(request, response);
+        }
+    }
+    
+    private boolean isPinned(HttpServletRequest request, long now) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    long until = Long.parseLong(cookie.getValue());
+                    return until > now && until <= now + window.toMillis();
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.native_jpa_servlet.infrastructure.adapter.inbound.web.filter;
+
+import com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.statement.SqlStatementScope;
+import com.example.native_jpa_servlet.infrastructure.config.StatementBudgetProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Counts the SQL statements each request runs and checks them against the
+ * endpoint's budget.
+ * A {@link SqlStatementScope} is bound for the request; for async requests it
+ * follows the work onto executor threads and is reported when the request
+ * completes. Each count is published to http.server.sql.statements tagged by
+ * endpoint, and a warning is logged when a request exceeds its budget or runs
+ * the same statement repeatedly.
+ */
+public class StatementBudgetFilter extends OncePerRequestFilter {
+    
+    static final String STATEMENTS_METRIC = "http.server.sql.statements";
+    static final String OVER_BUDGET_METRIC = "http.server.sql.statements.over.budget";
+    
+    private static final double[] HISTOGRAM_BUCKETS = {1, 2, 3, 4, 5, 8, 16, 32, 64, 128};
+    
+    private static final Logger log = LoggerFactory.getLogger(StatementBudgetFilter.class);
+    
+    private final StatementBudgetProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, DistributionSummary> summaries = new ConcurrentHashMap<>();
+    
+    public StatementBudgetFilter(StatementBudgetProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled();
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlStatementScope scope = new SqlStatementScope();
+        try (SqlStatementScope.Binding ignored = scope.bind()) {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        report(request, scope);
+                    }
+                    
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+                    
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+                    
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                report(request, scope);
+            }
+        }
+    }
+    
+    private void report(HttpServletRequest request, SqlStatementScope scope) {
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        if (!(handler instanceof HandlerMethod)) {
+            return;
+        }
+        HandlerMethod handlerMethod = (HandlerMethod) handler;
+        String endpoint = handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+        
+        int statements = scope.statements();
+        summaries.computeIfAbsent(endpoint, key -> DistributionSummary.builder(STATEMENTS_METRIC)
+                        .description("SQL statements run per request")
+                        .baseUnit("statements")
+                        .serviceLevelObjectives(HISTOGRAM_BUCKETS)
+                        .tag("endpoint", key)
+                        .register(meterRegistry))
+                .record(statements);
+        
+        int budget = properties.budgetFor(endpoint);
+        if (statements > budget) {
+            Counter.builder(OVER_BUDGET_METRIC)
+                    .description("Requests that ran more SQL statements than their endpoint budget")
+                    .tag("endpoint", endpoint)
+                    .register(meterRegistry)
+                    .increment();
+            log.warn("{} {} ran {} SQL statements, budget for {} is {} ({})",
+                    request.getMethod(), request.getRequestURI(), statements, endpoint, budget, scope.summary());
+        }
+        scope.repeatedStatements(properties.getRepeatedStatementThreshold()).forEach((sql, count) ->
+                log.warn("Possible N+1 in {}: statement ran {} times in one request: {}", endpoint, count, sql));
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.native_jpa_servlet.infrastructure.adapter.inbound.web.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+import java.util.function.BiFunction;
+
+/**
+ * Streaming deserializer for the request DTOs that carry a name and an email.
+ * Reads the two fields token by token and calls the DTO constructor directly,
+ * with no creator introspection. Unknown properties are skipped, as with
+ * Spring Boot's default ObjectMapper; scalars are coerced to strings and
+ * objects or arrays in place of a string are rejected.
+ */
+public class NameEmailRequestDeserializer<T> extends StdDeserializer<T> {
+    
+    private final BiFunction<String, String, T> factory;
+    
+    public NameEmailRequestDeserializer(Class<T> type, BiFunction<String, String, T> factory) {
+        super(type);
+        this.factory = factory;
+    }
+    
+    @Override
+    @SuppressWarnings("unchecked")
+    public T deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            token = p.nextToken();
+        } else if (token != JsonToken.FIELD_NAME) {
+            return (T) ctxt.handleUnexpectedToken(handledType(), p);
+        }
+        
+        String name = null;
+        String email = null;
+        for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+            String field = p.currentName();
+            p.nextToken();
+            switch (field) {
+                case "name" -> name = readString(p, ctxt);
+                case "email" -> email = readString(p, ctxt);
+                default -> p.skipChildren();
+            }
+        }
+        return factory.apply(name, email);
+    }
+    
+    private static String readString(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.VALUE_STRING) {
+            return p.getText();
+        }
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token.isScalarValue()) {
+            return p.getValueAsString();
+        }
+        return (String) ctxt.handleUnexpectedToken(String.class, p);
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.native_jpa_servlet.infrastructure.adapter.inbound.web.json;
+
+import com.example.native_jpa_servlet.infrastructure.adapter.inbound.web.dto.CreateUserRequest;
+import com.example.native_jpa_servlet.infrastructure.adapter.inbound.web.dto.UpdateUserRequest;
+import com.example.native_jpa_servlet.infrastructure.adapter.inbound.web.dto.UserResponse;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+/**
+ * Jackson module with the hand-written serializers for the user DTOs on the
+ * request hot path. Serializers are created with plain constructor calls, so
+ * the JAR and the native image take the same reflection-free path.
+ */
+public class UserJsonModule extends SimpleModule {
+    
+    public UserJsonModule() {
+        super(UserJsonModule.class.getSimpleName());
+        addSerializer(UserResponse.class, new UserResponseSerializer());
+        addDeserializer(CreateUserRequest.class,
+                new NameEmailRequestDeserializer<>(CreateUserRequest.class, CreateUserRequest::new));
+        addDeserializer(UpdateUserRequest.class,
+                new NameEmailRequestDeserializer<>(UpdateUserRequest.class, UpdateUserRequest::new));
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.native_jpa_servlet.infrastructure.adapter.inbound.web.json;
+
+import com.example.native_jpa_servlet.domain.model.UserField;
+import com.example.native_jpa_servlet.infrastructure.adapter.inbound.web.dto.UserResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Set;
+
+/**
+ * Streaming serializer for UserResponse.
+ * Writes the fields in declaration order straight to the generator, with
+ * pre-encoded field names and no bean introspection, producing the same
+ * JSON as the annotated bean. For sparse fieldsets only the selected
+ * fields are written. Dates are formatted into a fixed-width char
+ * buffer instead of going through DateTimeFormatter and an intermediate String.
+ */
+public class UserResponseSerializer extends StdSerializer<UserResponse> {
+    
+    static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern(UserResponse.DATE_TIME_PATTERN);
+    
+    private static final int DATE_TIME_LENGTH = UserResponse.DATE_TIME_PATTERN.length();
+    
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString NAME = new SerializedString("name");
+    private static final SerializableString EMAIL = new SerializedString("email");
+    private static final SerializableString CREATED_AT = new SerializedString("createdAt");
+    private static final SerializableString UPDATED_AT = new SerializedString("updatedAt");
+    private static final SerializableString VERSION = new SerializedString("version");
+    
+    public UserResponseSerializer() {
+        super(UserResponse.class);
+    }
+    
+    @Override
+    public void serialize(UserResponse value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        Set<UserField> fields = value.getFields();
+        gen.writeStartObject(value);
+        if (fields.contains(UserField.ID)) {
+            gen.writeFieldName(ID);
+            writeLong(gen, value.getId());
+        }
+        if (fields.contains(UserField.NAME)) {
+            gen.writeFieldName(NAME);
+            gen.writeString(value.getName());
+        }
+        if (fields.contains(UserField.EMAIL)) {
+            gen.writeFieldName(EMAIL);
+            gen.writeString(value.getEmail());
+        }
+        if (fields.contains(UserField.CREATED_AT)) {
+            gen.writeFieldName(CREATED_AT);
+            writeDateTime(gen, value.getCreatedAt());
+        }
+        if (fields.contains(UserField.UPDATED_AT)) {
+            gen.writeFieldName(UPDATED_AT);
+            writeDateTime(gen, value.getUpdatedAt());
+        }
+        if (fields.contains(UserField.VERSION)) {
+            gen.writeFieldName(VERSION);
+            writeLong(gen, value.getVersion());
+        }
+        gen.writeEndObject();
+    }
+    
+    private static void writeLong(JsonGenerator gen, Long value) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value.longValue());
+        }
+    }
+    
+    /**
+     * Write a date-time as yyyy-MM-dd HH:mm:ss. Years outside 0-9999 do not
+     * fit the fixed-width layout and fall back to the formatter.
+     */
+    static void writeDateTime(JsonGenerator gen, LocalDateTime value) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+            return;
+        }
+        int year = value.getYear();
+        if (year < 0 || year > 9999) {
+            gen.writeString(DATE_TIME_FORMAT.format(value));
+            return;
+        }
+        char[] buffer = new char[DATE_TIME_LENGTH];
+        putDigits(buffer, 0, year, 4);
+        buffer[4] = '-';
+        putDigits(buffer, 5, value.getMonthValue(), 2);
+        buffer[7] = '-';
+        putDigits(buffer, 8, value.getDayOfMonth(), 2);
+        buffer[10] = ' ';
+        putDigits(buffer, 11, value.getHour(), 2);
+        buffer[13] = ':';
+        putDigits(buffer, 14, value.getMinute(), 2);
+        buffer[16] = ':';
+        putDigits(buffer, 17, value.getSecond(), 2);
+        gen.writeString(buffer, 0, DATE_TIME_LENGTH);
+    }
+    
+    private static void putDigits(char[] buffer, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
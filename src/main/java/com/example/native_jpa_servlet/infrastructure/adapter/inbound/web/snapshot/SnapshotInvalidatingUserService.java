@@ -0,0 +1,135 @@
+package com.example.native_jpa_servlet.infrastructure.adapter.inbound.web.snapshot;
+
+import com.example.native_jpa_servlet.domain.model.User;
+import com.example.native_jpa_servlet.domain.model.UserCollectionStamp;
+import com.example.native_jpa_servlet.domain.model.UserCreationResult;
+import com.example.native_jpa_servlet.domain.model.UserField;
+import com.example.native_jpa_servlet.domain.model.UserPage;
+import com.example.native_jpa_servlet.domain.model.UserSearchPage;
+import com.example.native_jpa_servlet.domain.model.UserStamp;
+import com.example.native_jpa_servlet.domain.port.inbound.UserServicePort;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * UserServicePort decorator that retires the cached user pages after every write.
+ * The cache is invalidated once the write has returned, also when it failed,
+ * since a failed batch may still have changed some users.
+ */
+public class SnapshotInvalidatingUserService implements UserServicePort {
+    
+    private final UserServicePort delegate;
+    private final UserPageSnapshotCache snapshots;
+    
+    public SnapshotInvalidatingUserService(UserServicePort delegate, UserPageSnapshotCache snapshots) {
+        this.delegate = delegate;
+        this.snapshots = snapshots;
+    }
+    
+    @Override
+    public User createUser(String name, String email) {
+        try {
+            return delegate.createUser(name, email);
+        } finally {
+            snapshots.invalidate();
+        }
+    }
+    
+    @Override
+    public List<UserCreationResult> createUsers(List<User> users) {
+        try {
+            return delegate.createUsers(users);
+        } finally {
+            snapshots.invalidate();
+        }
+    }
+    
+    @Override
+    public User findUserById(Long id) {
+        return delegate.findUserById(id);
+    }
+    
+    @Override
+    public User findUserById(Long id, Set<UserField> fields) {
+        return delegate.findUserById(id, fields);
+    }
+    
+    @Override
+    public User findUserByEmail(String email) {
+        return delegate.findUserByEmail(email);
+    }
+    
+    @Override
+    public User findUserByEmail(String email, Set<UserField> fields) {
+        return delegate.findUserByEmail(email, fields);
+    }
+    
+    @Override
+    public UserStamp findUserStampById(Long id) {
+        return delegate.findUserStampById(id);
+    }
+    
+    @Override
+    public UserStamp findUserStampByEmail(String email) {
+        return delegate.findUserStampByEmail(email);
+    }
+    
+    @Override
+    public UserCollectionStamp getUsersStamp() {
+        return delegate.getUsersStamp();
+    }
+    
+    @Override
+    public List<User> getAllUsers() {
+        return delegate.getAllUsers();
+    }
+    
+    @Override
+    public UserPage getUsersPage(Long afterId, Integer limit) {
+        return delegate.getUsersPage(afterId, limit);
+    }
+    
+    @Override
+    public UserPage getUsersPage(Long afterId, Integer limit, Set<UserField> fields) {
+        return delegate.getUsersPage(afterId, limit, fields);
+    }
+    
+    @Override
+    public UserSearchPage searchUsersByName(String namePrefix, String cursor, Integer limit) {
+        return delegate.searchUsersByName(namePrefix, cursor, limit);
+    }
+    
+    @Override
+    public void exportUsers(Consumer<User> action) {
+        delegate.exportUsers(action);
+    }
+    
+    @Override
+    public User updateUser(Long id, String name, String email, Long expectedVersion) {
+        try {
+            return delegate.updateUser(id, name, email, expectedVersion);
+        } finally {
+            snapshots.invalidate();
+        }
+    }
+    
+    @Override
+    public void deleteUser(Long id) {
+        try {
+            delegate.deleteUser(id);
+        } finally {
+            snapshots.invalidate();
+        }
+    }
+    
+    @Override
+    public int deleteUsers(List<Long> ids) {
+        try {
+            return delegate.deleteUsers(ids);
+        } finally {
+            snapshots.invalidate();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.native_jpa_servlet.infrastructure.adapter.inbound.web.snapshot;
+
+/**
+ * A page of users serialized once and served as-is to every request for it.
+ * Holds the JSON body, optionally its gzip encoding, the cursor of the next
+ * page and the ETag the page was built under.
+ */
+public class UserPageSnapshot {
+    private final String eTag;
+    private final Long nextCursor;
+    private final byte[] body;
+    private final byte[] gzipBody;
+
+    public UserPageSnapshot(String eTag, Long nextCursor, byte[] body, byte[] gzipBody) {
+        this.eTag = eTag;
+        this.nextCursor = nextCursor;
+        this.body = body;
+        this.gzipBody = gzipBody;
+    }
+
+    public String getETag() {
+        return eTag;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * The JSON body; shared by all readers and must not be modified
+     */
+    public byte[] getBody() {
+        return body;
+    }
+
+    /**
+     * The gzip-encoded JSON body, or null when the page was not compressed
+     */
+    public byte[] getGzipBody() {
+        return gzipBody;
+    }
+
+    /**
+     * Approximate retained size in bytes, used to bound the cache by memory
+     */
+    int weight() {
+        return body.length + (gzipBody != null ? gzipBody.length : 0);
+    }
+}
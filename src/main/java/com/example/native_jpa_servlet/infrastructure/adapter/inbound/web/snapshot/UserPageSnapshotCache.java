@@ -0,0 +1,148 @@
+package com.example.native_jpa_servlet.infrastructure.adapter.inbound.web.snapshot;
+
+import com.example.native_jpa_servlet.domain.model.UserField;
+import com.example.native_jpa_servlet.domain.model.UserPage;
+import com.example.native_jpa_servlet.infrastructure.adapter.inbound.web.dto.UserResponse;
+import com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.routing.PrimaryReadScope;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Versioned cache of serialized user pages.
+ * Every write to the users bumps the version, which is part of the cache key,
+ * so pages built before the write are never served again and are rebuilt
+ * lazily on the next read. Concurrent misses for the same page share a single
+ * load. The cache is bounded by the total size of the cached bytes.
+ * Only writes through this instance bump the version, so a snapshot also
+ * expires a fixed time after it was loaded: that bounds how long a write by
+ * another pod to a shared store stays invisible, in listings and in the
+ * 304s answered from a cached snapshot's tag.
+ * When disabled every call loads and serializes the page afresh.
+ * Cached pages are shared by every client, so they are loaded inside a
+ * {@link PrimaryReadScope}: a page read from a lagging replica could
+ * otherwise hide a client's own write from it until the next write.
+ */
+public class UserPageSnapshotCache {
+    
+    /**
+     * Bodies smaller than this are not compressed; matches Tomcat's default
+     * server.compression.min-response-size
+     */
+    static final int GZIP_MIN_SIZE = 2048;
+    
+    private record PageKey(long version, Long after, Integer limit, Set<UserField> fields) {
+    }
+    
+    private final boolean enabled;
+    private final boolean gzip;
+    private final ObjectWriter writer;
+    private final AtomicLong version = new AtomicLong();
+    private final AsyncCache<PageKey, UserPageSnapshot> snapshots;
+    
+    public UserPageSnapshotCache(boolean enabled, long maximumBytes, Duration expireAfterWrite, boolean gzip,
+                                 ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this(enabled, maximumBytes, expireAfterWrite, gzip, objectMapper, meterRegistry, Ticker.systemTicker());
+    }
+    
+    UserPageSnapshotCache(boolean enabled, long maximumBytes, Duration expireAfterWrite, boolean gzip,
+                          ObjectMapper objectMapper, MeterRegistry meterRegistry, Ticker ticker) {
+        this.enabled = enabled;
+        this.gzip = gzip;
+        this.writer = objectMapper.writerFor(new TypeReference<List<UserResponse>>() { });
+        this.snapshots = Caffeine.newBuilder()
+                .maximumWeight(maximumBytes)
+                .weigher((PageKey key, UserPageSnapshot snapshot) -> snapshot.weight())
+                .expireAfterWrite(expireAfterWrite)
+                .ticker(ticker)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, snapshots.synchronous(), "users.pageSnapshots");
+    }
+    
+    /**
+     * Get the current snapshot of a page, loading it if it is missing or predates the last write
+     * @param after the page cursor
+     * @param limit the requested page size
+     * @param fields the fields of the sparse fieldset, or all fields
+     * @param loader builds the snapshot, normally through {@link #snapshot(UserPage, Set, String)};
+     *               work it submits to other threads must carry the scope along
+     */
+    public CompletableFuture<UserPageSnapshot> get(Long after, Integer limit, Set<UserField> fields,
+                                                   Supplier<CompletableFuture<UserPageSnapshot>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        return snapshots.get(new PageKey(version.get(), after, limit, fields), (key, executor) -> {
+            try (PrimaryReadScope.Binding ignored = PrimaryReadScope.bind()) {
+                return loader.get();
+            }
+        });
+    }
+    
+    /**
+     * Check whether a current snapshot of the page is cached or being loaded
+     */
+    public boolean contains(Long after, Integer limit, Set<UserField> fields) {
+        return enabled && snapshots.getIfPresent(new PageKey(version.get(), after, limit, fields)) != null;
+    }
+    
+    /**
+     * Serialize a page, compressing it when gzip is enabled and the body is large enough
+     * @param page the page to serialize
+     * @param fields the fields to write for each user
+     * @param eTag the tag of the collection the page was read from
+     */
+    public UserPageSnapshot snapshot(UserPage page, Set<UserField> fields, String eTag) {
+        List<UserResponse> responses = page.getUsers().stream()
+                .map(user -> new UserResponse(user, fields))
+                .collect(Collectors.toList());
+        byte[] body;
+        try {
+            body = writer.writeValueAsBytes(responses);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        byte[] gzipBody = gzip && body.length >= GZIP_MIN_SIZE ? compress(body) : null;
+        return new UserPageSnapshot(eTag, page.getNextCursor(), body, gzipBody);
+    }
+    
+    /**
+     * Retire every cached page; called after each write to the users.
+     * Pages under the previous version are dropped right away to free their memory.
+     */
+    public void invalidate() {
+        version.incrementAndGet();
+        if (enabled) {
+            snapshots.synchronous().invalidateAll();
+        }
+    }
+    
+    private static byte[] compress(byte[] body) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzipStream = new GZIPOutputStream(compressed)) {
+            gzipStream.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+}
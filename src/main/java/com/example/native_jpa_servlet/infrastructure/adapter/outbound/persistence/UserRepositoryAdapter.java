@@ -1,50 +1,187 @@
 package com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence;
 
+import com.example.native_jpa_servlet.domain.exception.DuplicateEmailException;
 import com.example.native_jpa_servlet.domain.model.User;
+import com.example.native_jpa_servlet.domain.model.UserCollectionStamp;
+import com.example.native_jpa_servlet.domain.model.UserField;
+import com.example.native_jpa_servlet.domain.model.UserStamp;
 import com.example.native_jpa_servlet.domain.port.outbound.UserRepositoryPort;
 import com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.entity.UserJpaEntity;
 import com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.mapper.UserMapper;
 import com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.repository.UserJpaRepository;
-import org.springframework.stereotype.Repository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * JPA implementation of UserRepositoryPort
- * This adapter implements the outbound port using JPA/Hibernate
+ * This adapter implements the outbound port using JPA/Hibernate.
+ * Reads select columns into tuples rather than loading entities, so nothing
+ * enters the persistence context and Hibernate keeps no snapshots to
+ * dirty-check; entities are only used for inserts and the export cursor.
+ * Reads run in read-only transactions and writes in read-write ones, which
+ * is what the replica profile routes on.
+ * This is a plain component rather than a @Repository: exception translation
+ * would turn DuplicateEmailException, an IllegalArgumentException, into an
+ * InvalidDataAccessApiUsageException. The Spring Data repository underneath
+ * still translates its own persistence exceptions.
  */
-@Repository
+@Component
+@Transactional(readOnly = true)
 public class UserRepositoryAdapter implements UserRepositoryPort {
     
+    /**
+     * Rows flushed per JDBC batch; matches hibernate.jdbc.batch_size
+     */
+    static final int INSERT_BATCH_SIZE = 50;
+    
+    /**
+     * Upper bound on bind parameters in a single IN clause
+     */
+    static final int IN_CLAUSE_CHUNK_SIZE = 1_000;
+    
     private final UserJpaRepository userJpaRepository;
     private final UserMapper userMapper;
+    private final EntityManager entityManager;
     
-    public UserRepositoryAdapter(UserJpaRepository userJpaRepository, UserMapper userMapper) {
+    public UserRepositoryAdapter(UserJpaRepository userJpaRepository, UserMapper userMapper,
+                                 EntityManager entityManager) {
         this.userJpaRepository = userJpaRepository;
         this.userMapper = userMapper;
+        this.entityManager = entityManager;
     }
     
     @Override
+    @Transactional
     public User save(User user) {
         UserJpaEntity entity = userMapper.toEntity(user);
-        UserJpaEntity savedEntity = userJpaRepository.save(entity);
+        UserJpaEntity savedEntity;
+        try {
+            // Flush inside the adapter so a duplicate email surfaces here, not at an outer commit
+            savedEntity = userJpaRepository.saveAndFlush(entity);
+        } catch (DataIntegrityViolationException e) {
+            throw translate(e, user.getEmail());
+        }
         return userMapper.toDomain(savedEntity);
     }
     
+    @Override
+    @Transactional
+    public List<User> saveAll(List<User> users) {
+        List<User> savedUsers = new ArrayList<>(users.size());
+        List<UserJpaEntity> pending = new ArrayList<>(INSERT_BATCH_SIZE);
+        try {
+            for (User user : users) {
+                UserJpaEntity entity = userMapper.toEntity(user);
+                entityManager.persist(entity);
+                pending.add(entity);
+                if (pending.size() == INSERT_BATCH_SIZE) {
+                    flushBatch(pending, savedUsers);
+                }
+            }
+            flushBatch(pending, savedUsers);
+        } catch (ConstraintViolationException e) {
+            // Another writer took one of the emails after the set-based check
+            if (isEmailConstraintViolation(e)) {
+                String message = String.valueOf(e.getSQLException().getMessage());
+                throw new DuplicateEmailException(users.stream()
+                        .map(User::getEmail)
+                        .filter(email -> email != null && message.contains(email))
+                        .findFirst()
+                        .orElse(null));
+            }
+            throw e;
+        }
+        return savedUsers;
+    }
+    
+    @Override
+    @Transactional
+    public Optional<User> updateInfo(Long id, String name, String email, Long expectedVersion) {
+        int updated;
+        try {
+            updated = userJpaRepository.updateInfo(id, name, User.nameKey(name), email, LocalDateTime.now(),
+                    expectedVersion);
+        } catch (DataIntegrityViolationException e) {
+            throw translate(e, email);
+        }
+        if (updated == 0) {
+            return Optional.empty();
+        }
+        // Primary key read of the new state for the response, in the same transaction
+        return userJpaRepository.findRowById(id).map(userMapper::toDomain);
+    }
+    
     @Override
     public Optional<User> findById(Long id) {
-        return userJpaRepository.findById(id)
+        return userJpaRepository.findRowById(id)
                 .map(userMapper::toDomain);
     }
     
     @Override
     public Optional<User> findByEmail(String email) {
-        return userJpaRepository.findByEmail(email)
+        return userJpaRepository.findRowByEmail(email)
                 .map(userMapper::toDomain);
     }
     
+    @Override
+    public Optional<User> findFieldsById(Long id, Set<UserField> fields) {
+        List<UserField> selected = List.copyOf(EnumSet.copyOf(fields));
+        return entityManager.createQuery(selectFields(selected) + " WHERE u.id = :id", Tuple.class)
+                .setParameter("id", id)
+                .getResultList()
+                .stream()
+                .findFirst()
+                .map(row -> userMapper.toDomain(row, selected));
+    }
+    
+    @Override
+    public Optional<User> findFieldsByEmail(String email, Set<UserField> fields) {
+        List<UserField> selected = List.copyOf(EnumSet.copyOf(fields));
+        return entityManager.createQuery(selectFields(selected) + " WHERE u.email = :email", Tuple.class)
+                .setParameter("email", email)
+                .getResultList()
+                .stream()
+                .findFirst()
+                .map(row -> userMapper.toDomain(row, selected));
+    }
+    
+    @Override
+    public Optional<UserStamp> findStampById(Long id) {
+        return userJpaRepository.findStampById(id).map(UserRepositoryAdapter::toStamp);
+    }
+    
+    @Override
+    public Optional<UserStamp> findStampByEmail(String email) {
+        return userJpaRepository.findStampByEmail(email).map(UserRepositoryAdapter::toStamp);
+    }
+    
+    @Override
+    public UserCollectionStamp findCollectionStamp() {
+        Tuple row = userJpaRepository.findCollectionStamp();
+        return new UserCollectionStamp(row.get(0, Long.class), row.get(1, LocalDateTime.class));
+    }
+    
     @Override
     public List<User> findAll() {
         return userJpaRepository.findAll()
@@ -54,8 +191,81 @@ public class UserRepositoryAdapter implements UserRepositoryPort {
     }
     
     @Override
+    public List<User> findPage(Long afterId, int limit) {
+        long cursor = afterId != null ? afterId : 0L;
+        return userJpaRepository.findRowsByIdGreaterThan(cursor, Limit.of(limit))
+                .stream()
+                .map(userMapper::toDomain)
+                .collect(Collectors.toList());
+    }
+    
+    @Override
+    public List<User> findPageFields(Long afterId, int limit, Set<UserField> fields) {
+        List<UserField> selected = List.copyOf(EnumSet.copyOf(fields));
+        long cursor = afterId != null ? afterId : 0L;
+        return entityManager.createQuery(selectFields(selected) + " WHERE u.id > :id ORDER BY u.id", Tuple.class)
+                .setParameter("id", cursor)
+                .setMaxResults(limit)
+                .getResultList()
+                .stream()
+                .map(row -> userMapper.toDomain(row, selected))
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Every name starting with the prefix sorts between the prefix itself and
+     * the prefix followed by the highest char, so the prefix becomes an index
+     * range and no LIKE pattern (or escaping of % and _) is involved
+     */
+    @Override
+    public List<User> findPageByNamePrefix(String namePrefix, String afterNameKey, Long afterId, int limit) {
+        boolean first = afterNameKey == null || afterId == null;
+        String afterName = first ? namePrefix : afterNameKey;
+        String lowest = afterName.compareTo(namePrefix) > 0 ? afterName : namePrefix;
+        return userJpaRepository.findRowsByNameLowerBetween(lowest, namePrefix + Character.MAX_VALUE,
+                        afterName, first ? 0L : afterId, Limit.of(limit))
+                .stream()
+                .map(userMapper::toDomain)
+                .collect(Collectors.toList());
+    }
+    
+    @Override
+    public void forEachUser(Consumer<User> action) {
+        try (Stream<UserJpaEntity> entities = userJpaRepository.streamAllOrderById()) {
+            Iterator<UserJpaEntity> iterator = entities.iterator();
+            int count = 0;
+            while (iterator.hasNext()) {
+                action.accept(userMapper.toDomain(iterator.next()));
+                // Keep the persistence context bounded while the cursor is open
+                if (++count % UserJpaRepository.STREAM_FETCH_SIZE == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+    
+    @Override
+    @Transactional
     public void deleteById(Long id) {
-        userJpaRepository.deleteById(id);
+        deleteByIdReturningCount(id);
+    }
+    
+    @Override
+    @Transactional
+    public int deleteByIdReturningCount(Long id) {
+        return userJpaRepository.deleteRowById(id);
+    }
+    
+    @Override
+    @Transactional
+    public int deleteAllByIdIn(Collection<Long> ids) {
+        List<Long> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        int deleted = 0;
+        for (int from = 0; from < distinct.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            int to = Math.min(from + IN_CLAUSE_CHUNK_SIZE, distinct.size());
+            deleted += userJpaRepository.deleteRowsByIdIn(distinct.subList(from, to));
+        }
+        return deleted;
     }
     
     @Override
@@ -67,4 +277,79 @@ public class UserRepositoryAdapter implements UserRepositoryPort {
     public boolean existsByEmail(String email) {
         return userJpaRepository.existsByEmail(email);
     }
+    
+    @Override
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        List<String> distinct = new ArrayList<>(new HashSet<>(emails));
+        Set<String> existing = new HashSet<>();
+        for (int from = 0; from < distinct.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            int to = Math.min(from + IN_CLAUSE_CHUNK_SIZE, distinct.size());
+            existing.addAll(userJpaRepository.findEmailsIn(distinct.subList(from, to)));
+        }
+        return existing;
+    }
+    
+    /**
+     * Start a JPQL projection of only the given fields. Fields come from the
+     * UserField enum, whose property names match the entity attributes, and are
+     * in enum order, so there are at most 63 distinct query strings and each
+     * has its plan cached by Hibernate.
+     */
+    private static String selectFields(List<UserField> fields) {
+        StringBuilder jpql = new StringBuilder("SELECT ");
+        for (int i = 0; i < fields.size(); i++) {
+            if (i > 0) {
+                jpql.append(", ");
+            }
+            jpql.append("u.").append(fields.get(i).getPropertyName());
+        }
+        return jpql.append(" FROM UserJpaEntity u").toString();
+    }
+    
+    /**
+     * Read a stamp from a (id, version, updatedAt) projection. Tuples are read
+     * positionally, which needs no reflection in the native image.
+     */
+    private static UserStamp toStamp(Tuple row) {
+        return new UserStamp(row.get(0, Long.class), row.get(1, Long.class), row.get(2, LocalDateTime.class));
+    }
+    
+    /**
+     * Translate a unique email constraint violation into the domain exception
+     */
+    private RuntimeException translate(DataIntegrityViolationException e, String email) {
+        return isEmailConstraintViolation(e) ? new DuplicateEmailException(email) : e;
+    }
+    
+    /**
+     * Check whether an exception was caused by the unique email constraint,
+     * using the constraint name Hibernate extracted or, failing that, the driver message
+     */
+    private static boolean isEmailConstraintViolation(Throwable e) {
+        Throwable cause = e;
+        while (cause != null) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                return violation.getConstraintName().toLowerCase(Locale.ROOT).contains(UserJpaEntity.EMAIL_CONSTRAINT);
+            }
+            cause = cause.getCause();
+        }
+        String message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+        return message != null && message.toLowerCase(Locale.ROOT).contains(UserJpaEntity.EMAIL_CONSTRAINT);
+    }
+    
+    /**
+     * Flush the pending inserts as one JDBC batch and detach them
+     * so the persistence context does not grow with the batch size
+     */
+    private void flushBatch(List<UserJpaEntity> pending, List<User> savedUsers) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        entityManager.flush();
+        for (UserJpaEntity entity : pending) {
+            savedUsers.add(userMapper.toDomain(entity));
+        }
+        pending.clear();
+        entityManager.clear();
+    }
 }
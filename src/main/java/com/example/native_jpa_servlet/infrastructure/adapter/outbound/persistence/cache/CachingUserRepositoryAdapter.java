@@ -0,0 +1,253 @@
+package com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.cache;
+
+import com.example.native_jpa_servlet.domain.model.User;
+import com.example.native_jpa_servlet.domain.model.UserCollectionStamp;
+import com.example.native_jpa_servlet.domain.model.UserField;
+import com.example.native_jpa_servlet.domain.model.UserStamp;
+import com.example.native_jpa_servlet.domain.port.outbound.UserRepositoryPort;
+import com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.routing.PrimaryReadScope;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Read-through caching decorator for UserRepositoryPort.
+ * Keeps two bounded indexes, id -> User and email -> id, using Caffeine's
+ * W-TinyLFU eviction so frequently read users survive scans of cold ones.
+ * Writes go to the delegate first and then invalidate both indexes.
+ * Stamp and partial-field lookups are answered from a cached user when
+ * there is one; their results are never cached since they are incomplete.
+ * Cached users are copied on the way in and out because User is mutable.
+ * Misses are loaded inside a {@link PrimaryReadScope}: with read replicas a
+ * user read from a lagging replica would be cached and then served to
+ * clients that expect to see their own writes.
+ */
+public class CachingUserRepositoryAdapter implements UserRepositoryPort {
+    
+    private final UserRepositoryPort delegate;
+    private final Cache<Long, User> usersById;
+    private final Cache<String, Long> idsByEmail;
+    
+    /**
+     * Incremented after every write. A loader that sees it change while it was
+     * reading from the delegate drops what it just cached, since the value may
+     * predate the write.
+     */
+    private final AtomicLong writeEpoch = new AtomicLong();
+    
+    public CachingUserRepositoryAdapter(UserRepositoryPort delegate, long maximumSize,
+                                        Duration expireAfterWrite, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.usersById = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        this.idsByEmail = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, usersById, "users.byId");
+        CaffeineCacheMetrics.monitor(meterRegistry, idsByEmail, "users.byEmail");
+    }
+    
+    @Override
+    public User save(User user) {
+        try {
+            return delegate.save(user);
+        } finally {
+            afterWrite(user.getId(), user.getEmail());
+        }
+    }
+    
+    @Override
+    public List<User> saveAll(List<User> users) {
+        try {
+            return delegate.saveAll(users);
+        } finally {
+            users.forEach(user -> afterWrite(user.getId(), user.getEmail()));
+        }
+    }
+    
+    @Override
+    public Optional<User> updateInfo(Long id, String name, String email, Long expectedVersion) {
+        try {
+            return delegate.updateInfo(id, name, email, expectedVersion);
+        } finally {
+            afterWrite(id, email);
+        }
+    }
+    
+    @Override
+    public Optional<User> findById(Long id) {
+        User cached = usersById.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(new User(cached));
+        }
+        
+        long epoch = writeEpoch.get();
+        Optional<User> loaded;
+        try (PrimaryReadScope.Binding ignored = PrimaryReadScope.bind()) {
+            loaded = delegate.findById(id);
+        }
+        loaded.ifPresent(user -> cache(user, epoch));
+        return loaded;
+    }
+    
+    @Override
+    public Optional<User> findByEmail(String email) {
+        User cached = cachedByEmail(email);
+        if (cached != null) {
+            return Optional.of(new User(cached));
+        }
+        
+        long epoch = writeEpoch.get();
+        Optional<User> loaded;
+        try (PrimaryReadScope.Binding ignored = PrimaryReadScope.bind()) {
+            loaded = delegate.findByEmail(email);
+        }
+        loaded.ifPresent(user -> cache(user, epoch));
+        return loaded;
+    }
+    
+    @Override
+    public Optional<User> findFieldsById(Long id, Set<UserField> fields) {
+        User cached = usersById.getIfPresent(id);
+        return cached != null ? Optional.of(new User(cached)) : delegate.findFieldsById(id, fields);
+    }
+    
+    @Override
+    public Optional<User> findFieldsByEmail(String email, Set<UserField> fields) {
+        User cached = cachedByEmail(email);
+        return cached != null ? Optional.of(new User(cached)) : delegate.findFieldsByEmail(email, fields);
+    }
+    
+    @Override
+    public Optional<UserStamp> findStampById(Long id) {
+        User cached = usersById.getIfPresent(id);
+        return cached != null ? Optional.of(UserStamp.of(cached)) : delegate.findStampById(id);
+    }
+    
+    @Override
+    public Optional<UserStamp> findStampByEmail(String email) {
+        User cached = cachedByEmail(email);
+        return cached != null ? Optional.of(UserStamp.of(cached)) : delegate.findStampByEmail(email);
+    }
+    
+    @Override
+    public UserCollectionStamp findCollectionStamp() {
+        return delegate.findCollectionStamp();
+    }
+    
+    @Override
+    public List<User> findAll() {
+        return delegate.findAll();
+    }
+    
+    @Override
+    public List<User> findPage(Long afterId, int limit) {
+        return delegate.findPage(afterId, limit);
+    }
+    
+    @Override
+    public List<User> findPageFields(Long afterId, int limit, Set<UserField> fields) {
+        return delegate.findPageFields(afterId, limit, fields);
+    }
+    
+    @Override
+    public List<User> findPageByNamePrefix(String namePrefix, String afterNameKey, Long afterId, int limit) {
+        return delegate.findPageByNamePrefix(namePrefix, afterNameKey, afterId, limit);
+    }
+    
+    @Override
+    public void forEachUser(Consumer<User> action) {
+        delegate.forEachUser(action);
+    }
+    
+    @Override
+    public void deleteById(Long id) {
+        try {
+            delegate.deleteById(id);
+        } finally {
+            afterWrite(id, null);
+        }
+    }
+    
+    @Override
+    public int deleteByIdReturningCount(Long id) {
+        try {
+            return delegate.deleteByIdReturningCount(id);
+        } finally {
+            afterWrite(id, null);
+        }
+    }
+    
+    @Override
+    public int deleteAllByIdIn(Collection<Long> ids) {
+        try {
+            return delegate.deleteAllByIdIn(ids);
+        } finally {
+            ids.forEach(id -> afterWrite(id, null));
+        }
+    }
+    
+    @Override
+    public boolean existsById(Long id) {
+        return usersById.asMap().containsKey(id) || delegate.existsById(id);
+    }
+    
+    @Override
+    public boolean existsByEmail(String email) {
+        return cachedByEmail(email) != null || delegate.existsByEmail(email);
+    }
+    
+    @Override
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        return delegate.findExistingEmails(emails);
+    }
+    
+    /**
+     * Resolve a user through the email index, ignoring index entries that
+     * point to a user whose email has since changed
+     */
+    private User cachedByEmail(String email) {
+        Long id = idsByEmail.getIfPresent(email);
+        if (id == null) {
+            return null;
+        }
+        User cached = usersById.getIfPresent(id);
+        return cached != null && email.equals(cached.getEmail()) ? cached : null;
+    }
+    
+    private void cache(User user, long epoch) {
+        usersById.put(user.getId(), new User(user));
+        idsByEmail.put(user.getEmail(), user.getId());
+        if (writeEpoch.get() != epoch) {
+            usersById.invalidate(user.getId());
+            idsByEmail.invalidate(user.getEmail());
+        }
+    }
+    
+    private void afterWrite(Long id, String email) {
+        writeEpoch.incrementAndGet();
+        if (id != null) {
+            User previous = usersById.asMap().remove(id);
+            if (previous != null) {
+                idsByEmail.invalidate(previous.getEmail());
+            }
+        }
+        if (email != null) {
+            idsByEmail.invalidate(email);
+        }
+    }
+}
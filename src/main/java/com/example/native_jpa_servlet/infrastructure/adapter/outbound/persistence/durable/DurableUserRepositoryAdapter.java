@@ -0,0 +1,550 @@
+package com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.durable;
+
+import com.example.native_jpa_servlet.domain.exception.DuplicateEmailException;
+import com.example.native_jpa_servlet.domain.model.User;
+import com.example.native_jpa_servlet.domain.model.UserCollectionStamp;
+import com.example.native_jpa_servlet.domain.model.UserField;
+import com.example.native_jpa_servlet.domain.model.UserStamp;
+import com.example.native_jpa_servlet.domain.port.outbound.UserRepositoryPort;
+import com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.memory.InMemoryUserRepositoryAdapter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Durable in-process implementation of UserRepositoryPort.
+ * Users are served from an {@link InMemoryUserRepositoryAdapter}; every write
+ * is also appended to a write-ahead log in the data directory and the caller
+ * returns once the log is on disk. Every {@code snapshotEvery} records a
+ * background thread writes a compacted snapshot of all users and drops the
+ * log files it replaces, so startup reads one snapshot plus a short log
+ * instead of the full history.
+ *
+ * Writes are checked, logged and applied under one lock, so the log order
+ * is the order in which they were applied, and wait for the fsync outside
+ * it, so concurrent writers share fsyncs. A write is only applied once its
+ * record is in the log; one that changes several users is logged as a
+ * single record, so a crash keeps all of it or none. Reads take no locks
+ * and may see a write shortly before it is durable. If the log cannot be
+ * written the store stops accepting writes rather than diverge from its
+ * log; reads keep working.
+ *
+ * Files in the directory, numbered by generation:
+ * wal-N.log holds the writes made after snapshot-N.dat was cut.
+ */
+public class DurableUserRepositoryAdapter implements UserRepositoryPort, Closeable {
+    
+    private static final Logger log = LoggerFactory.getLogger(DurableUserRepositoryAdapter.class);
+    
+    static final String FSYNC_METRIC = "users.store.fsync";
+    static final String SNAPSHOT_METRIC = "users.store.snapshot";
+    
+    private static final String WAL_PREFIX = "wal-";
+    private static final String WAL_SUFFIX = ".log";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".dat";
+    
+    private final InMemoryUserRepositoryAdapter delegate = new InMemoryUserRepositoryAdapter();
+    private final Path directory;
+    private final long snapshotEvery;
+    private final Timer snapshotTimer;
+    
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+    private final AtomicBoolean snapshotScheduled = new AtomicBoolean();
+    private final ExecutorService snapshotExecutor;
+    private final WriteAheadLog wal;
+    
+    /** Generation of the log being appended to; guarded by writeLock */
+    private long generation;
+    /** Records appended since the last snapshot was cut; guarded by writeLock */
+    private long recordsSinceSnapshot;
+    private volatile IOException failure;
+    
+    /**
+     * Open the store, recovering its users from the directory
+     * @param directory where the log and snapshots are kept, created if missing
+     * @param fsync whether writes wait for the log to reach the disk
+     * @param snapshotEvery user writes logged between snapshots, 0 to snapshot only on request
+     * @throws UncheckedIOException if the directory cannot be read
+     * @throws IllegalStateException if a snapshot or an older log file is damaged
+     */
+    public DurableUserRepositoryAdapter(Path directory, boolean fsync, long snapshotEvery, MeterRegistry meterRegistry) {
+        this(directory, fsync, snapshotEvery, meterRegistry, WriteAheadLog::new);
+    }
+    
+    DurableUserRepositoryAdapter(Path directory, boolean fsync, long snapshotEvery, MeterRegistry meterRegistry,
+                                 WriteAheadLog.Opener walOpener) {
+        if (snapshotEvery < 0) {
+            throw new IllegalArgumentException("Snapshot interval cannot be negative");
+        }
+        this.directory = directory;
+        this.snapshotEvery = snapshotEvery;
+        this.snapshotTimer = Timer.builder(SNAPSHOT_METRIC)
+                .description("Time to write a snapshot of the user store")
+                .register(meterRegistry);
+        Timer fsyncTimer = Timer.builder(FSYNC_METRIC)
+                .description("Time to force the user store's write-ahead log to disk")
+                .register(meterRegistry);
+        try {
+            recover();
+            this.wal = walOpener.open(walFile(generation), fsync,
+                    nanos -> fsyncTimer.record(nanos, TimeUnit.NANOSECONDS));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open user store in " + directory, e);
+        }
+        this.snapshotExecutor = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "user-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * Store a new user. The ID is always generated, as with the other adapters.
+     */
+    @Override
+    public User save(User user) {
+        return write(() -> {
+            if (delegate.existsByEmail(user.getEmail())) {
+                throw new DuplicateEmailException(user.getEmail());
+            }
+            User created = created(delegate.lastGeneratedId() + 1, user);
+            return new Staged<>(UserRecords.put(created), 1, () -> {
+                delegate.restore(created);
+                return created;
+            });
+        });
+    }
+    
+    /**
+     * Store new users all or nothing, logged as one record
+     */
+    @Override
+    public List<User> saveAll(List<User> users) {
+        if (users.isEmpty()) {
+            return List.of();
+        }
+        return write(() -> {
+            Set<String> emails = new HashSet<>();
+            List<User> created = new ArrayList<>(users.size());
+            List<ByteBuffer> records = new ArrayList<>(users.size());
+            long id = delegate.lastGeneratedId();
+            for (User user : users) {
+                if (!emails.add(user.getEmail()) || delegate.existsByEmail(user.getEmail())) {
+                    throw new DuplicateEmailException(user.getEmail());
+                }
+                User next = created(++id, user);
+                created.add(next);
+                records.add(UserRecords.put(next));
+            }
+            return new Staged<>(UserRecords.batch(records), created.size(), () -> {
+                created.forEach(delegate::restore);
+                return created;
+            });
+        });
+    }
+    
+    @Override
+    public Optional<User> updateInfo(Long id, String name, String email, Long expectedVersion) {
+        return write(() -> {
+            User current = delegate.findById(id).orElse(null);
+            if (current == null || (expectedVersion != null && !expectedVersion.equals(current.getVersion()))) {
+                return Staged.unchanged(Optional.empty());
+            }
+            if (!current.getEmail().equals(email) && delegate.existsByEmail(email)) {
+                throw new DuplicateEmailException(email);
+            }
+            User updated = new User(id, name, email, current.getCreatedAt(), LocalDateTime.now(),
+                    current.getVersion() + 1);
+            return new Staged<>(UserRecords.put(updated), 1, () -> delegate.replace(updated));
+        });
+    }
+    
+    @Override
+    public Optional<User> findById(Long id) {
+        return delegate.findById(id);
+    }
+    
+    @Override
+    public Optional<User> findByEmail(String email) {
+        return delegate.findByEmail(email);
+    }
+    
+    @Override
+    public Optional<User> findFieldsById(Long id, Set<UserField> fields) {
+        return delegate.findFieldsById(id, fields);
+    }
+    
+    @Override
+    public Optional<User> findFieldsByEmail(String email, Set<UserField> fields) {
+        return delegate.findFieldsByEmail(email, fields);
+    }
+    
+    @Override
+    public Optional<UserStamp> findStampById(Long id) {
+        return delegate.findStampById(id);
+    }
+    
+    @Override
+    public Optional<UserStamp> findStampByEmail(String email) {
+        return delegate.findStampByEmail(email);
+    }
+    
+    @Override
+    public UserCollectionStamp findCollectionStamp() {
+        return delegate.findCollectionStamp();
+    }
+    
+    @Override
+    public List<User> findAll() {
+        return delegate.findAll();
+    }
+    
+    @Override
+    public List<User> findPage(Long afterId, int limit) {
+        return delegate.findPage(afterId, limit);
+    }
+    
+    @Override
+    public List<User> findPageFields(Long afterId, int limit, Set<UserField> fields) {
+        return delegate.findPageFields(afterId, limit, fields);
+    }
+    
+    @Override
+    public List<User> findPageByNamePrefix(String namePrefix, String afterNameKey, Long afterId, int limit) {
+        return delegate.findPageByNamePrefix(namePrefix, afterNameKey, afterId, limit);
+    }
+    
+    @Override
+    public void forEachUser(Consumer<User> action) {
+        delegate.forEachUser(action);
+    }
+    
+    @Override
+    public void deleteById(Long id) {
+        deleteByIdReturningCount(id);
+    }
+    
+    @Override
+    public int deleteByIdReturningCount(Long id) {
+        return write(() -> delegate.existsById(id)
+                ? new Staged<>(UserRecords.delete(id), 1, () -> delegate.deleteByIdReturningCount(id))
+                : Staged.unchanged(0));
+    }
+    
+    /**
+     * Delete the given users that exist, logged as one record
+     */
+    @Override
+    public int deleteAllByIdIn(Collection<Long> ids) {
+        return write(() -> {
+            List<Long> existing = new ArrayList<>();
+            List<ByteBuffer> records = new ArrayList<>();
+            for (Long id : new HashSet<>(ids)) {
+                if (delegate.existsById(id)) {
+                    existing.add(id);
+                    records.add(UserRecords.delete(id));
+                }
+            }
+            if (existing.isEmpty()) {
+                return Staged.unchanged(0);
+            }
+            return new Staged<>(UserRecords.batch(records), existing.size(),
+                    () -> delegate.deleteAllByIdIn(existing));
+        });
+    }
+    
+    @Override
+    public boolean existsById(Long id) {
+        return delegate.existsById(id);
+    }
+    
+    @Override
+    public boolean existsByEmail(String email) {
+        return delegate.existsByEmail(email);
+    }
+    
+    @Override
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        return delegate.findExistingEmails(emails);
+    }
+    
+    /**
+     * Write a snapshot of all users now and delete the files it makes obsolete.
+     * Writes pause only while the users are copied, not while the file is written.
+     * @throws UncheckedIOException if the snapshot cannot be written; the log still holds every write
+     */
+    public void snapshot() {
+        snapshotLock.lock();
+        try {
+            long started = System.nanoTime();
+            long cut;
+            long lastGeneratedId;
+            List<User> users;
+            writeLock.lock();
+            try {
+                checkWritable();
+                cut = generation + 1;
+                try {
+                    wal.rotate(walFile(cut));
+                } catch (IOException e) {
+                    throw fail(e);
+                }
+                generation = cut;
+                recordsSinceSnapshot = 0;
+                users = delegate.findAll();
+                lastGeneratedId = delegate.lastGeneratedId();
+            } finally {
+                writeLock.unlock();
+            }
+            
+            try {
+                SnapshotFile.write(snapshotFile(cut), lastGeneratedId, users);
+                for (long older : generations(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+                    if (older < cut) {
+                        Files.deleteIfExists(snapshotFile(older));
+                    }
+                }
+                for (long older : generations(WAL_PREFIX, WAL_SUFFIX)) {
+                    if (older < cut) {
+                        Files.deleteIfExists(walFile(older));
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot write user snapshot " + cut, e);
+            }
+            snapshotTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            log.info("Wrote snapshot {} of {} users in {} ms", cut, users.size(),
+                    Duration.ofNanos(System.nanoTime() - started).toMillis());
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+    
+    /**
+     * Wait for a running snapshot, then force and close the log
+     */
+    @Override
+    public void close() throws IOException {
+        snapshotExecutor.shutdown();
+        try {
+            snapshotExecutor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writeLock.lock();
+        try {
+            wal.close();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+    
+    @FunctionalInterface
+    private interface Mutation<T> {
+        /**
+         * Check the write against the in-memory store and stage it, without changing anything
+         * @throws DuplicateEmailException if the write would take an email another user holds
+         */
+        Staged<T> stage();
+    }
+    
+    /**
+     * A write that was checked but not applied yet
+     * @param record the record that replays it, or null if it changes nothing
+     * @param users the number of users it changes
+     * @param apply applies it to the in-memory store
+     */
+    private record Staged<T>(ByteBuffer record, int users, Supplier<T> apply) {
+        
+        static <T> Staged<T> unchanged(T result) {
+            return new Staged<>(null, 0, () -> result);
+        }
+    }
+    
+    /**
+     * Stage a write, append its record and only then apply it, all under the
+     * write lock so nothing changes between the check and the apply. A failed
+     * append leaves the in-memory store as it was. A failed fsync leaves the
+     * write applied but maybe not on disk; like a failed append, it stops
+     * the store accepting further writes.
+     */
+    private <T> T write(Mutation<T> mutation) {
+        T result;
+        long position;
+        boolean snapshotDue;
+        writeLock.lock();
+        try {
+            checkWritable();
+            Staged<T> staged = mutation.stage();
+            if (staged.record() == null) {
+                return staged.apply().get();
+            }
+            try {
+                position = wal.append(staged.record());
+            } catch (IOException e) {
+                throw fail(e);
+            }
+            result = staged.apply().get();
+            recordsSinceSnapshot += staged.users();
+            snapshotDue = snapshotEvery > 0 && recordsSinceSnapshot >= snapshotEvery;
+        } finally {
+            writeLock.unlock();
+        }
+        
+        try {
+            wal.awaitDurable(position);
+        } catch (IOException e) {
+            throw fail(e);
+        }
+        if (snapshotDue && snapshotScheduled.compareAndSet(false, true)) {
+            snapshotExecutor.execute(this::backgroundSnapshot);
+        }
+        return result;
+    }
+    
+    private void backgroundSnapshot() {
+        try {
+            snapshot();
+        } catch (RuntimeException e) {
+            log.error("Background snapshot failed, the write-ahead log keeps growing until one succeeds", e);
+        } finally {
+            snapshotScheduled.set(false);
+        }
+    }
+    
+    private void checkWritable() {
+        IOException cause = failure;
+        if (cause != null) {
+            throw new IllegalStateException("User store is read-only after a write-ahead log failure", cause);
+        }
+    }
+    
+    private UncheckedIOException fail(IOException e) {
+        failure = e;
+        log.error("Write-ahead log failed, the user store no longer accepts writes", e);
+        return new UncheckedIOException("Cannot write to the user store's write-ahead log", e);
+    }
+    
+    /**
+     * Load the latest snapshot, then replay the logs written after it.
+     * Only the last log can end in a torn record, which is cut off.
+     */
+    private void recover() throws IOException {
+        long started = System.nanoTime();
+        Files.createDirectories(directory);
+        try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(directory, "*.tmp")) {
+            for (Path leftover : leftovers) {
+                Files.delete(leftover);
+            }
+        }
+        
+        List<Long> snapshots = generations(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        long snapshotUsers = 0;
+        if (!snapshots.isEmpty()) {
+            generation = snapshots.get(snapshots.size() - 1);
+            SnapshotFile.Header header = SnapshotFile.read(snapshotFile(generation), delegate::restore);
+            delegate.reserveIdsThrough(header.lastGeneratedId());
+            snapshotUsers = header.count();
+        }
+        
+        List<Long> logs = new ArrayList<>();
+        for (long logGeneration : generations(WAL_PREFIX, WAL_SUFFIX)) {
+            if (logGeneration >= generation) {
+                logs.add(logGeneration);
+            }
+        }
+        for (int i = 0; i < logs.size(); i++) {
+            boolean last = i == logs.size() - 1;
+            WriteAheadLog.replay(walFile(logs.get(i)), last, this::replay);
+        }
+        if (!logs.isEmpty()) {
+            generation = logs.get(logs.size() - 1);
+        }
+        
+        log.info("Recovered {} users from {} ({} from snapshot, {} log records) in {} ms",
+                delegate.findCollectionStamp().getCount(), directory, snapshotUsers, recordsSinceSnapshot,
+                Duration.ofNanos(System.nanoTime() - started).toMillis());
+    }
+    
+    private void replay(ByteBuffer record) {
+        byte type = record.get();
+        switch (type) {
+            case UserRecords.PUT -> {
+                delegate.restore(UserRecords.readPut(record));
+                recordsSinceSnapshot++;
+            }
+            case UserRecords.DELETE -> {
+                long id = record.getLong();
+                delegate.deleteByIdReturningCount(id);
+                delegate.reserveIdsThrough(id);
+                recordsSinceSnapshot++;
+            }
+            case UserRecords.BATCH -> UserRecords.readBatch(record, this::replay);
+            default -> throw new IllegalStateException("Unknown user record type " + type);
+        }
+    }
+    
+    /**
+     * A new user with the given ID, stored at version 0
+     */
+    private static User created(long id, User user) {
+        LocalDateTime now = LocalDateTime.now();
+        return new User(id, user.getName(), user.getEmail(),
+                user.getCreatedAt() != null ? user.getCreatedAt() : now,
+                user.getUpdatedAt() != null ? user.getUpdatedAt() : now,
+                0L);
+    }
+    
+    /**
+     * Generations of the files with the given name pattern, in ascending order
+     */
+    private List<Long> generations(String prefix, String suffix) throws IOException {
+        List<Long> generations = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, prefix + "*" + suffix)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    generations.add(Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())));
+                } catch (NumberFormatException e) {
+                    log.warn("Ignoring unexpected file {} in the user store", file);
+                }
+            }
+        }
+        generations.sort(null);
+        return generations;
+    }
+    
+    private Path walFile(long generation) {
+        return directory.resolve(String.format("%s%020d%s", WAL_PREFIX, generation, WAL_SUFFIX));
+    }
+    
+    private Path snapshotFile(long generation) {
+        return directory.resolve(String.format("%s%020d%s", SNAPSHOT_PREFIX, generation, SNAPSHOT_SUFFIX));
+    }
+}
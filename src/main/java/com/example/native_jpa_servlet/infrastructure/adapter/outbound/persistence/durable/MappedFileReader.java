@@ -0,0 +1,77 @@
+package com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.durable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Sequential reader over a file mapped into memory one region at a time, so
+ * files larger than a single mapping (2 GB) can be read and the page cache
+ * is used without copying through a read buffer. A request for more bytes
+ * than the current region holds remaps from the current position.
+ */
+final class MappedFileReader {
+    
+    /** Size of each mapped region */
+    static final int REGION_SIZE = 64 * 1024 * 1024;
+    
+    private final FileChannel channel;
+    private final long size;
+    private long regionStart;
+    private MappedByteBuffer region;
+    
+    MappedFileReader(FileChannel channel) throws IOException {
+        this.channel = channel;
+        this.size = channel.size();
+        map(0);
+    }
+    
+    /**
+     * Make sure the next {@code bytes} bytes can be read from {@link #buffer()}
+     * @return false if the file ends first
+     */
+    boolean request(int bytes) throws IOException {
+        if (region.remaining() >= bytes) {
+            return true;
+        }
+        long position = position();
+        if (size - position < bytes) {
+            return false;
+        }
+        map(position);
+        return true;
+    }
+    
+    /**
+     * The current region, positioned at the next unread byte
+     */
+    ByteBuffer buffer() {
+        return region;
+    }
+    
+    /**
+     * Read the next {@code length} bytes as a buffer of their own; the caller must have requested them
+     */
+    ByteBuffer slice(int length) {
+        ByteBuffer slice = region.slice(region.position(), length);
+        region.position(region.position() + length);
+        return slice;
+    }
+    
+    /**
+     * Offset in the file of the next unread byte
+     */
+    long position() {
+        return regionStart + region.position();
+    }
+    
+    long size() {
+        return size;
+    }
+    
+    private void map(long position) throws IOException {
+        regionStart = position;
+        region = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(REGION_SIZE, size - position));
+    }
+}
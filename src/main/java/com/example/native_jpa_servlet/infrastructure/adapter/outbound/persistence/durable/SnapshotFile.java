@@ -0,0 +1,181 @@
+package com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.durable;
+
+import com.example.native_jpa_servlet.domain.model.User;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Compacted image of every user at one point in the log, written and read
+ * through memory-mapped regions.
+ *
+ * Layout: magic(4) format(4) lastGeneratedId(8) count(8), then count records
+ * of length(4) payload as in {@link UserRecords}, then a CRC32C of everything
+ * before it. A snapshot is written to a temporary file and renamed into place
+ * once it is on disk, so a crash while writing never leaves a partial
+ * snapshot under the final name.
+ */
+final class SnapshotFile {
+    
+    private static final int MAGIC = 0x5553_4E50;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 8;
+    private static final int TRAILER_SIZE = 4;
+    
+    /**
+     * What a snapshot holds besides its users
+     * @param lastGeneratedId the highest user ID generated when the snapshot was taken
+     * @param count the number of users
+     */
+    record Header(long lastGeneratedId, long count) {
+    }
+    
+    private SnapshotFile() {
+    }
+    
+    /**
+     * Write the users to a new snapshot file, replacing any file with that name
+     */
+    static void write(Path file, long lastGeneratedId, List<User> users) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedWriter writer = new MappedWriter(channel);
+            writer.write(ByteBuffer.allocate(HEADER_SIZE)
+                    .putInt(MAGIC)
+                    .putInt(FORMAT_VERSION)
+                    .putLong(lastGeneratedId)
+                    .putLong(users.size())
+                    .flip());
+            ByteBuffer length = ByteBuffer.allocate(4);
+            for (User user : users) {
+                ByteBuffer payload = UserRecords.put(user);
+                writer.write(length.clear().putInt(payload.remaining()).flip());
+                writer.write(payload);
+            }
+            long size = writer.finish();
+            channel.truncate(size);
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        syncDirectory(file.getParent());
+    }
+    
+    /**
+     * Read a snapshot, passing each user to the action in ID order.
+     * The whole file is checked against its checksum before any user is read.
+     * @throws IllegalStateException if the file is not a complete, intact snapshot
+     */
+    static Header read(Path file, Consumer<User> action) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE + TRAILER_SIZE) {
+                throw new IllegalStateException("Snapshot " + file + " is truncated");
+            }
+            verifyChecksum(file, channel, size - TRAILER_SIZE);
+            
+            MappedFileReader reader = new MappedFileReader(channel);
+            reader.request(HEADER_SIZE);
+            ByteBuffer buffer = reader.buffer();
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                throw new IllegalStateException("Snapshot " + file + " has an unknown format");
+            }
+            Header header = new Header(buffer.getLong(), buffer.getLong());
+            for (long i = 0; i < header.count(); i++) {
+                if (!reader.request(4)) {
+                    throw new IllegalStateException("Snapshot " + file + " ends after " + i + " users");
+                }
+                int length = reader.buffer().getInt();
+                if (length <= 0 || length > UserRecords.MAX_RECORD_SIZE || !reader.request(length)) {
+                    throw new IllegalStateException("Snapshot " + file + " has a corrupt record at user " + i);
+                }
+                ByteBuffer payload = reader.slice(length);
+                if (payload.get() != UserRecords.PUT) {
+                    throw new IllegalStateException("Snapshot " + file + " has a corrupt record at user " + i);
+                }
+                action.accept(UserRecords.readPut(payload));
+            }
+            return header;
+        }
+    }
+    
+    private static void verifyChecksum(Path file, FileChannel channel, long contentSize) throws IOException {
+        CRC32C crc = new CRC32C();
+        for (long position = 0; position < contentSize; position += MappedFileReader.REGION_SIZE) {
+            crc.update(channel.map(FileChannel.MapMode.READ_ONLY, position,
+                    Math.min(MappedFileReader.REGION_SIZE, contentSize - position)));
+        }
+        ByteBuffer trailer = ByteBuffer.allocate(TRAILER_SIZE);
+        while (trailer.hasRemaining() && channel.read(trailer, contentSize + trailer.position()) > 0) {
+            // read until the trailer is complete
+        }
+        if (trailer.flip().getInt() != (int) crc.getValue()) {
+            throw new IllegalStateException("Snapshot " + file + " fails its checksum");
+        }
+    }
+    
+    /**
+     * Make a rename durable; not every platform can open a directory, so this is best effort
+     */
+    private static void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // the rename is still atomic, only its durability is left to the operating system
+        }
+    }
+    
+    /**
+     * Sequential writer over mapped regions of a growing file, checksumming what it writes
+     */
+    private static final class MappedWriter {
+        
+        private final FileChannel channel;
+        private final CRC32C crc = new CRC32C();
+        private long regionStart;
+        private MappedByteBuffer region;
+        
+        MappedWriter(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.region = channel.map(FileChannel.MapMode.READ_WRITE, 0, MappedFileReader.REGION_SIZE);
+        }
+        
+        void write(ByteBuffer source) throws IOException {
+            crc.update(source.duplicate());
+            copy(source);
+        }
+        
+        /**
+         * Append the checksum and flush the mapping
+         * @return the size of the written content
+         */
+        long finish() throws IOException {
+            copy(ByteBuffer.allocate(TRAILER_SIZE).putInt((int) crc.getValue()).flip());
+            region.force();
+            return regionStart + region.position();
+        }
+        
+        private void copy(ByteBuffer source) throws IOException {
+            while (source.hasRemaining()) {
+                if (!region.hasRemaining()) {
+                    region.force();
+                    regionStart += region.position();
+                    region = channel.map(FileChannel.MapMode.READ_WRITE, regionStart, MappedFileReader.REGION_SIZE);
+                }
+                int chunk = Math.min(source.remaining(), region.remaining());
+                region.put(region.position(), source, source.position(), chunk);
+                region.position(region.position() + chunk);
+                source.position(source.position() + chunk);
+            }
+        }
+    }
+}
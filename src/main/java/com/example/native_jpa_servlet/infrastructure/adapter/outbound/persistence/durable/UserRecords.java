@@ -0,0 +1,127 @@
+package com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.durable;
+
+import com.example.native_jpa_servlet.domain.model.User;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Binary encoding of user mutations, shared by the write-ahead log and snapshots.
+ * A PUT carries the complete state of a user, so replaying it is idempotent;
+ * a DELETE carries only the ID. A BATCH wraps the records of a write that
+ * changes several users, so it is logged, and lost to a crash, as a whole.
+ * Timestamps are stored as seconds and nanos of the local date-time, which
+ * round-trips exactly.
+ *
+ * PUT:    type(1) id(8) version(8) created(8+4) updated(8+4) name(4+n) email(4+n)
+ * DELETE: type(1) id(8)
+ * BATCH:  type(1) count(4) then count times length(4) record
+ */
+final class UserRecords {
+    
+    static final byte PUT = 1;
+    static final byte DELETE = 2;
+    static final byte BATCH = 3;
+    
+    /** Largest single-user record accepted when reading a snapshot; real ones are about 1 KB at most */
+    static final int MAX_RECORD_SIZE = 64 * 1024;
+    
+    private static final int PUT_FIXED_SIZE = 1 + 8 + 8 + 12 + 12 + 4 + 4;
+    private static final int DELETE_SIZE = 1 + 8;
+    
+    private UserRecords() {
+    }
+    
+    /**
+     * Encode a PUT into a new buffer, ready to be read
+     */
+    static ByteBuffer put(User user) {
+        byte[] name = user.getName().getBytes(StandardCharsets.UTF_8);
+        byte[] email = user.getEmail().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(PUT_FIXED_SIZE + name.length + email.length)
+                .put(PUT)
+                .putLong(user.getId())
+                .putLong(user.getVersion());
+        writeDateTime(buffer, user.getCreatedAt());
+        writeDateTime(buffer, user.getUpdatedAt());
+        return buffer.putInt(name.length).put(name)
+                .putInt(email.length).put(email)
+                .flip();
+    }
+    
+    /**
+     * Encode a DELETE into a new buffer, ready to be read
+     */
+    static ByteBuffer delete(long id) {
+        return ByteBuffer.allocate(DELETE_SIZE).put(DELETE).putLong(id).flip();
+    }
+    
+    /**
+     * Encode records into one BATCH, ready to be read
+     */
+    static ByteBuffer batch(List<ByteBuffer> records) {
+        int size = 1 + 4;
+        for (ByteBuffer record : records) {
+            size += 4 + record.remaining();
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size).put(BATCH).putInt(records.size());
+        for (ByteBuffer record : records) {
+            buffer.putInt(record.remaining()).put(record.duplicate());
+        }
+        return buffer.flip();
+    }
+    
+    /**
+     * Decode a BATCH whose type byte has already been read, handing each record to the action
+     * @throws IllegalStateException if a record length runs past the batch
+     */
+    static void readBatch(ByteBuffer buffer, Consumer<ByteBuffer> action) {
+        int count = buffer.getInt();
+        for (int i = 0; i < count; i++) {
+            int length = buffer.getInt();
+            if (length <= 0 || length > buffer.remaining()) {
+                throw new IllegalStateException("Corrupt user record: batch entry length " + length);
+            }
+            action.accept(buffer.slice(buffer.position(), length));
+            buffer.position(buffer.position() + length);
+        }
+    }
+    
+    /**
+     * Decode a PUT whose type byte has already been read
+     * @throws IllegalStateException if a string length runs past the record
+     */
+    static User readPut(ByteBuffer buffer) {
+        long id = buffer.getLong();
+        long version = buffer.getLong();
+        LocalDateTime createdAt = readDateTime(buffer);
+        LocalDateTime updatedAt = readDateTime(buffer);
+        String name = readString(buffer);
+        String email = readString(buffer);
+        return new User(id, name, email, createdAt, updatedAt, version);
+    }
+    
+    private static void writeDateTime(ByteBuffer buffer, LocalDateTime dateTime) {
+        buffer.putLong(dateTime.toEpochSecond(ZoneOffset.UTC)).putInt(dateTime.getNano());
+    }
+    
+    private static LocalDateTime readDateTime(ByteBuffer buffer) {
+        long seconds = buffer.getLong();
+        int nanos = buffer.getInt();
+        return LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+    
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalStateException("Corrupt user record: string length " + length);
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
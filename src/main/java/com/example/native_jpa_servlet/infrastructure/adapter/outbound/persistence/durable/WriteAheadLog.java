@@ -0,0 +1,227 @@
+package com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.durable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of user mutations with group commit.
+ *
+ * Each record is framed as length(4) crc32c(4) payload, so a write torn by a
+ * crash is recognised on replay by a short frame or a checksum mismatch and
+ * cut off. Records are appended by one writer at a time (the caller
+ * serializes appends) and made durable by {@link #awaitDurable}: the first
+ * waiting thread forces the file for every record appended so far while the
+ * others wait for it, so one fsync covers all writers that arrived during the
+ * previous one.
+ *
+ * Positions handed out by {@link #append} grow across rotations, so a
+ * position from an older file compares correctly with the current one.
+ */
+class WriteAheadLog implements Closeable {
+    
+    private static final Logger log = LoggerFactory.getLogger(WriteAheadLog.class);
+    
+    private static final int FRAME_HEADER_SIZE = 8;
+    
+    /**
+     * Largest record accepted. A batch of users is logged as one record, so
+     * this is well above a single user; it must fit in one mapped region for replay.
+     */
+    static final int MAX_RECORD_SIZE = 32 * 1024 * 1024;
+    
+    /**
+     * Opens the log; tests substitute one whose writes fail
+     */
+    @FunctionalInterface
+    interface Opener {
+        WriteAheadLog open(Path file, boolean fsync, Consumer<Long> syncListener) throws IOException;
+    }
+    
+    private final boolean fsync;
+    private final Consumer<Long> syncListener;
+    
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final Condition synced = syncLock.newCondition();
+    
+    private FileChannel channel;
+    /** Total bytes appended, across all files; written by the appending thread only */
+    private volatile long written;
+    /** Total bytes known to be on disk; guarded by syncLock */
+    private long durable;
+    /** Whether a thread is forcing the file; guarded by syncLock */
+    private boolean syncing;
+    
+    /**
+     * @param file the log file to append to, created if missing
+     * @param fsync whether {@link #awaitDurable} forces the file to disk; if false
+     *              records survive a process crash but not an operating system crash
+     * @param syncListener receives the duration of every fsync in nanoseconds
+     */
+    WriteAheadLog(Path file, boolean fsync, Consumer<Long> syncListener) throws IOException {
+        this.fsync = fsync;
+        this.syncListener = syncListener;
+        this.channel = open(file);
+    }
+    
+    /**
+     * Append one record. Callers must not append concurrently.
+     * @return the log position just after the record, to pass to {@link #awaitDurable}
+     * @throws IllegalArgumentException if the record is larger than {@link #MAX_RECORD_SIZE}; nothing is written
+     */
+    long append(ByteBuffer payload) throws IOException {
+        int length = payload.remaining();
+        if (length > MAX_RECORD_SIZE) {
+            throw new IllegalArgumentException("Record of " + length + " bytes is too large for the write-ahead log");
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(payload.duplicate());
+        ByteBuffer frame = ByteBuffer.allocate(FRAME_HEADER_SIZE + length)
+                .putInt(length)
+                .putInt((int) crc.getValue())
+                .put(payload)
+                .flip();
+        while (frame.hasRemaining()) {
+            channel.write(frame);
+        }
+        long position = written + frame.limit();
+        written = position;
+        return position;
+    }
+    
+    /**
+     * Wait until every record up to the given position is on disk
+     */
+    void awaitDurable(long position) throws IOException {
+        if (!fsync) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            while (durable < position) {
+                if (syncing) {
+                    synced.awaitUninterruptibly();
+                    continue;
+                }
+                // Lead a group commit for everything appended so far
+                syncing = true;
+                long target = written;
+                FileChannel current = channel;
+                syncLock.unlock();
+                long started = System.nanoTime();
+                try {
+                    current.force(false);
+                } finally {
+                    syncLock.lock();
+                    syncing = false;
+                    synced.signalAll();
+                }
+                syncListener.accept(System.nanoTime() - started);
+                durable = Math.max(durable, target);
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+    
+    /**
+     * Force the current file and continue in a new one. Callers must not append concurrently.
+     */
+    void rotate(Path next) throws IOException {
+        syncLock.lock();
+        try {
+            while (syncing) {
+                synced.awaitUninterruptibly();
+            }
+            channel.force(false);
+            channel.close();
+            channel = open(next);
+            durable = written;
+            synced.signalAll();
+        } finally {
+            syncLock.unlock();
+        }
+    }
+    
+    @Override
+    public void close() throws IOException {
+        syncLock.lock();
+        try {
+            if (!channel.isOpen()) {
+                return;
+            }
+            while (syncing) {
+                synced.awaitUninterruptibly();
+            }
+            channel.force(false);
+            channel.close();
+        } finally {
+            syncLock.unlock();
+        }
+    }
+    
+    /**
+     * Read every intact record of a log file in order.
+     * The first frame that is cut short or fails its checksum ends the log:
+     * with {@code truncate} the file is cut there so appends continue after
+     * the last good record, otherwise the damage is reported.
+     * @return the number of records read
+     * @throws IllegalStateException if the file is damaged and {@code truncate} is false
+     */
+    static long replay(Path file, boolean truncate, Consumer<ByteBuffer> action) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (channel.size() == 0) {
+                return 0;
+            }
+            MappedFileReader reader = new MappedFileReader(channel);
+            CRC32C crc = new CRC32C();
+            long records = 0;
+            long end = 0;
+            while (reader.request(FRAME_HEADER_SIZE)) {
+                ByteBuffer buffer = reader.buffer();
+                int length = buffer.getInt();
+                int checksum = buffer.getInt();
+                if (length <= 0 || length > MAX_RECORD_SIZE || !reader.request(length)) {
+                    break;
+                }
+                ByteBuffer payload = reader.slice(length);
+                crc.reset();
+                crc.update(payload.duplicate());
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+                action.accept(payload);
+                records++;
+                end = reader.position();
+            }
+            
+            if (end < reader.size()) {
+                if (!truncate) {
+                    throw new IllegalStateException("Write-ahead log " + file + " is damaged at offset " + end);
+                }
+                log.warn("Write-ahead log {} ends with {} bytes of an incomplete or corrupt record, truncating",
+                        file, reader.size() - end);
+                channel.truncate(end);
+                channel.force(true);
+            }
+            return records;
+        }
+    }
+    
+    private static FileChannel open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.READ);
+        channel.position(channel.size());
+        return channel;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.entity;
 
+import com.example.native_jpa_servlet.domain.model.User;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
@@ -9,25 +10,51 @@ import java.time.LocalDateTime;
  */
 @Entity
 @Table(name = "users", 
-       uniqueConstraints = @UniqueConstraint(columnNames = "email"))
+       uniqueConstraints = @UniqueConstraint(name = UserJpaEntity.EMAIL_CONSTRAINT, columnNames = "email"),
+       indexes = @Index(name = "idx_users_name_lower_id", columnList = "name_lower, id"))
 public class UserJpaEntity {
     
+    /**
+     * Name of the unique constraint on email, used to recognise duplicate email violations
+     */
+    public static final String EMAIL_CONSTRAINT = "uk_users_email";
+    
+    /**
+     * Sequence-based IDs let Hibernate batch inserts; IDENTITY would force one
+     * round trip per row. The allocation size enables the pooled optimizer so
+     * the sequence is only hit once per block of IDs.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false, length = 100)
     private String name;
     
-    @Column(nullable = false, unique = true, length = 255)
+    @Column(nullable = false, length = 255)
     private String email;
     
+    /**
+     * Lowercase copy of the name (User.nameKey), kept in step with it on every
+     * write. Indexed together with the ID so a case-insensitive prefix search
+     * is a range scan of the index in result order, which H2 cannot do with an
+     * expression index on LOWER(name). Longer than the name because
+     * lowercasing can turn one character into two.
+     */
+    @Column(name = "name_lower", nullable = false, length = 200)
+    private String nameLower;
+    
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
     
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
     
+    @Version
+    @Column(nullable = false)
+    private Long version;
+    
     // Default constructor
     public UserJpaEntity() {
     }
@@ -48,11 +75,13 @@ public class UserJpaEntity {
         if (updatedAt == null) {
             updatedAt = LocalDateTime.now();
         }
+        nameLower = User.nameKey(name);
     }
     
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        nameLower = User.nameKey(name);
     }
     
     // Getters and Setters
@@ -95,4 +124,12 @@ public class UserJpaEntity {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
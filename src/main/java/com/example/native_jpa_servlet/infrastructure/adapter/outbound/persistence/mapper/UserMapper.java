@@ -1,9 +1,14 @@
 package com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.mapper;
 
 import com.example.native_jpa_servlet.domain.model.User;
+import com.example.native_jpa_servlet.domain.model.UserField;
 import com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.entity.UserJpaEntity;
+import jakarta.persistence.Tuple;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 /**
  * Mapper between Domain User and JPA User Entity
  * This class handles the conversion between domain objects and persistence entities
@@ -27,6 +32,7 @@ public class UserMapper {
         entity.setEmail(user.getEmail());
         entity.setCreatedAt(user.getCreatedAt());
         entity.setUpdatedAt(user.getUpdatedAt());
+        entity.setVersion(user.getVersion());
         
         return entity;
     }
@@ -46,7 +52,51 @@ public class UserMapper {
             entity.getName(),
             entity.getEmail(),
             entity.getCreatedAt(),
-            entity.getUpdatedAt()
+            entity.getUpdatedAt(),
+            entity.getVersion()
+        );
+    }
+    
+    /**
+     * Convert a full-user projection row to domain User
+     * @param row tuple with the columns of UserJpaRepository.USER_COLUMNS
+     * @return domain user
+     */
+    public User toDomain(Tuple row) {
+        return new User(
+            row.get(0, Long.class),
+            row.get(1, String.class),
+            row.get(2, String.class),
+            row.get(3, LocalDateTime.class),
+            row.get(4, LocalDateTime.class),
+            row.get(5, Long.class)
         );
     }
+    
+    /**
+     * Convert a partial projection row to domain User; fields not selected stay null
+     * @param row tuple with one element per selected field
+     * @param fields the selected fields, in the order of the tuple elements
+     * @return domain user
+     */
+    public User toDomain(Tuple row, List<UserField> fields) {
+        // Collected first and passed to the constructor, since the User setters touch updatedAt
+        Long id = null;
+        String name = null;
+        String email = null;
+        LocalDateTime createdAt = null;
+        LocalDateTime updatedAt = null;
+        Long version = null;
+        for (int i = 0; i < fields.size(); i++) {
+            switch (fields.get(i)) {
+                case ID -> id = row.get(i, Long.class);
+                case NAME -> name = row.get(i, String.class);
+                case EMAIL -> email = row.get(i, String.class);
+                case CREATED_AT -> createdAt = row.get(i, LocalDateTime.class);
+                case UPDATED_AT -> updatedAt = row.get(i, LocalDateTime.class);
+                case VERSION -> version = row.get(i, Long.class);
+            }
+        }
+        return new User(id, name, email, createdAt, updatedAt, version);
+    }
 }
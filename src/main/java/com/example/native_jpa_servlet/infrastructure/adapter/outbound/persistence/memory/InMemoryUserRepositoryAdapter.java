@@ -0,0 +1,563 @@
+package com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.memory;
+
+import com.example.native_jpa_servlet.domain.exception.DuplicateEmailException;
+import com.example.native_jpa_servlet.domain.model.User;
+import com.example.native_jpa_servlet.domain.model.UserCollectionStamp;
+import com.example.native_jpa_servlet.domain.model.UserField;
+import com.example.native_jpa_servlet.domain.model.UserStamp;
+import com.example.native_jpa_servlet.domain.port.outbound.UserRepositoryPort;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * In-memory implementation of UserRepositoryPort, without JPA or JDBC.
+ * Users live in a skip list keyed by ID, which serves point reads and keyset
+ * pages in ID order, and a hash index maps each email to the claim of the
+ * user holding it. A second skip list keyed by name key and ID serves name
+ * prefix searches as a range scan. IDs come from an atomic sequence.
+ *
+ * Neither reads nor writes take locks or wait for each other. Stored rows
+ * are immutable and replaced with a compare-and-set on their identity, so
+ * an update with an expected version applies exactly once. Email uniqueness
+ * is enforced by claiming the email with putIfAbsent before the row is
+ * written. A write that meets another user's claim fails at once, even if
+ * that claim's write is still in progress, as a unique index with NOWAIT
+ * would; it never waits for the other write to finish. Claims left behind
+ * by deletes, email changes and failed writes are recognised because no
+ * row points at them and no write is in progress on them, and are cleared
+ * by the next writer that needs the email. The name index is updated after
+ * the row is written and its entries point at the row they were made for, so
+ * an entry left behind by two racing updates is recognised as stale and
+ * removed by the next search that meets it.
+ *
+ * Like the H2 in-memory database it replaces, the data lives only as long
+ * as the JVM.
+ */
+public class InMemoryUserRepositoryAdapter implements UserRepositoryPort {
+    
+    private final ConcurrentNavigableMap<Long, Row> rowsById = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<String, EmailClaim> claimsByEmail = new ConcurrentHashMap<>();
+    private final ConcurrentNavigableMap<NameKey, Row> rowsByName = new ConcurrentSkipListMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicReference<LocalDateTime> lastUpdatedAt = new AtomicReference<>();
+    
+    /**
+     * Store a new user. The ID is always generated, as with the JPA adapter's inserts.
+     */
+    @Override
+    public User save(User user) {
+        long id = sequence.incrementAndGet();
+        EmailClaim claim = claim(user.getEmail(), id);
+        Row row = insert(id, user, 0L, claim);
+        return row.toUser();
+    }
+    
+    /**
+     * Store new users all or nothing: every email is claimed before any row is
+     * written, so a duplicate leaves the store unchanged. Claims are taken in
+     * email order, so of two batches racing for the same emails the one that
+     * claims the first of them wins, rather than both failing on each
+     * other's claims.
+     */
+    @Override
+    public List<User> saveAll(List<User> users) {
+        if (users.isEmpty()) {
+            return List.of();
+        }
+        long firstId = sequence.getAndAdd(users.size()) + 1;
+        TreeMap<String, Integer> indexesByEmail = new TreeMap<>();
+        for (int i = 0; i < users.size(); i++) {
+            String email = users.get(i).getEmail();
+            if (indexesByEmail.put(email, i) != null) {
+                throw new DuplicateEmailException(email);
+            }
+        }
+        
+        EmailClaim[] claims = new EmailClaim[users.size()];
+        try {
+            for (var entry : indexesByEmail.entrySet()) {
+                int index = entry.getValue();
+                claims[index] = claim(entry.getKey(), firstId + index);
+            }
+        } catch (DuplicateEmailException e) {
+            for (EmailClaim claim : claims) {
+                if (claim != null) {
+                    release(claim);
+                }
+            }
+            throw e;
+        }
+        
+        List<User> saved = new ArrayList<>(users.size());
+        for (int i = 0; i < users.size(); i++) {
+            saved.add(insert(firstId + i, users.get(i), 0L, claims[i]).toUser());
+        }
+        return saved;
+    }
+    
+    @Override
+    public Optional<User> updateInfo(Long id, String name, String email, Long expectedVersion) {
+        return replace(id, expectedVersion, name, email, LocalDateTime.now(), null);
+    }
+    
+    /**
+     * Replace a stored user with the given state, keeping its version and
+     * timestamps as given. Unlike {@link #restore} the user stays visible
+     * throughout. Used to apply a write that was logged before it was applied.
+     * @return the user, or empty if there is no user with that ID
+     * @throws DuplicateEmailException if another user holds the email
+     */
+    public Optional<User> replace(User user) {
+        return replace(user.getId(), null, user.getName(), user.getEmail(), user.getUpdatedAt(), user.getVersion());
+    }
+    
+    /**
+     * @param version the version to store, or null for the current one plus one
+     */
+    private Optional<User> replace(long id, Long expectedVersion, String name, String email,
+                                   LocalDateTime updatedAt, Long version) {
+        while (true) {
+            Row current = rowsById.get(id);
+            if (current == null || (expectedVersion != null && expectedVersion != current.version)) {
+                return Optional.empty();
+            }
+            
+            boolean emailChanged = !current.email.equals(email);
+            EmailClaim claim = emailChanged ? claim(email, id) : current.claim;
+            if (claim == null) {
+                // A concurrent update already gave this user the email; start over from it
+                continue;
+            }
+            Row updated = new Row(id, name, email, current.createdAt, updatedAt,
+                    version != null ? version : current.version + 1, claim);
+            if (rowsById.replace(id, current, updated)) {
+                rowsByName.put(updated.nameKey, updated);
+                rowsByName.remove(current.nameKey, current);
+                if (emailChanged) {
+                    claim.leave();
+                    claimsByEmail.remove(current.email, current.claim);
+                }
+                recordWrite(updatedAt);
+                return Optional.of(updated.toUser());
+            }
+            // Another write to this user won; release the claim and re-check against its result
+            if (emailChanged) {
+                release(claim);
+            }
+        }
+    }
+    
+    @Override
+    public Optional<User> findById(Long id) {
+        Row row = rowsById.get(id);
+        return row == null ? Optional.empty() : Optional.of(row.toUser());
+    }
+    
+    @Override
+    public Optional<User> findByEmail(String email) {
+        Row row = rowByEmail(email);
+        return row == null ? Optional.empty() : Optional.of(row.toUser());
+    }
+    
+    @Override
+    public Optional<User> findFieldsById(Long id, Set<UserField> fields) {
+        Row row = rowsById.get(id);
+        return row == null ? Optional.empty() : Optional.of(row.toUser(fields));
+    }
+    
+    @Override
+    public Optional<User> findFieldsByEmail(String email, Set<UserField> fields) {
+        Row row = rowByEmail(email);
+        return row == null ? Optional.empty() : Optional.of(row.toUser(fields));
+    }
+    
+    @Override
+    public Optional<UserStamp> findStampById(Long id) {
+        Row row = rowsById.get(id);
+        return row == null ? Optional.empty() : Optional.of(row.toStamp());
+    }
+    
+    @Override
+    public Optional<UserStamp> findStampByEmail(String email) {
+        Row row = rowByEmail(email);
+        return row == null ? Optional.empty() : Optional.of(row.toStamp());
+    }
+    
+    /**
+     * The count and the time of the latest insert or update, both kept current
+     * as writes happen rather than computed by scanning. Unlike MAX(updated_at)
+     * the time does not move back when the latest user is deleted; the count
+     * changes instead, so the stamp still changes with every write.
+     */
+    @Override
+    public UserCollectionStamp findCollectionStamp() {
+        long users = count.get();
+        return new UserCollectionStamp(users, users == 0 ? null : lastUpdatedAt.get());
+    }
+    
+    @Override
+    public List<User> findAll() {
+        List<User> users = new ArrayList<>();
+        for (Row row : rowsById.values()) {
+            users.add(row.toUser());
+        }
+        return users;
+    }
+    
+    @Override
+    public List<User> findPage(Long afterId, int limit) {
+        return findPageFields(afterId, limit, UserField.ALL);
+    }
+    
+    @Override
+    public List<User> findPageFields(Long afterId, int limit, Set<UserField> fields) {
+        List<User> page = new ArrayList<>(Math.min(limit, 1024));
+        for (Row row : rowsById.tailMap(afterId != null ? afterId : 0L, false).values()) {
+            if (page.size() == limit) {
+                break;
+            }
+            page.add(row.toUser(fields));
+        }
+        return page;
+    }
+    
+    /**
+     * Walk the name index from the cursor while names still start with the
+     * prefix, so a page costs its own size whatever the number of users
+     */
+    @Override
+    public List<User> findPageByNamePrefix(String namePrefix, String afterNameKey, Long afterId, int limit) {
+        NameKey from = new NameKey(namePrefix, Long.MIN_VALUE);
+        if (afterNameKey != null && afterId != null) {
+            NameKey after = new NameKey(afterNameKey, afterId);
+            if (after.compareTo(from) > 0) {
+                from = after;
+            }
+        }
+        List<User> page = new ArrayList<>(Math.min(limit, 1024));
+        for (var entry : rowsByName.tailMap(from, false).entrySet()) {
+            if (!entry.getKey().name().startsWith(namePrefix) || page.size() == limit) {
+                break;
+            }
+            Row row = entry.getValue();
+            if (rowsById.get(row.id) != row) {
+                // The row was replaced or deleted since this entry was made
+                rowsByName.remove(entry.getKey(), row);
+                continue;
+            }
+            page.add(row.toUser());
+        }
+        return page;
+    }
+    
+    /**
+     * Visit every user in ID order. The skip list iterator is weakly consistent:
+     * users written during the visit may or may not be seen, none twice.
+     */
+    @Override
+    public void forEachUser(Consumer<User> action) {
+        for (Row row : rowsById.values()) {
+            action.accept(row.toUser());
+        }
+    }
+    
+    @Override
+    public void deleteById(Long id) {
+        deleteByIdReturningCount(id);
+    }
+    
+    @Override
+    public int deleteByIdReturningCount(Long id) {
+        Row removed = rowsById.remove(id);
+        if (removed == null) {
+            return 0;
+        }
+        claimsByEmail.remove(removed.email, removed.claim);
+        rowsByName.remove(removed.nameKey, removed);
+        count.decrementAndGet();
+        return 1;
+    }
+    
+    @Override
+    public int deleteAllByIdIn(Collection<Long> ids) {
+        int deleted = 0;
+        for (Long id : new HashSet<>(ids)) {
+            deleted += deleteByIdReturningCount(id);
+        }
+        return deleted;
+    }
+    
+    @Override
+    public boolean existsById(Long id) {
+        return rowsById.containsKey(id);
+    }
+    
+    @Override
+    public boolean existsByEmail(String email) {
+        return rowByEmail(email) != null;
+    }
+    
+    @Override
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        Set<String> existing = new HashSet<>();
+        for (String email : emails) {
+            if (rowByEmail(email) != null) {
+                existing.add(email);
+            }
+        }
+        return existing;
+    }
+    
+    /**
+     * Put a user exactly as given, keeping its ID, version and timestamps, and
+     * replacing any user with the same ID. Used to rebuild the store from
+     * durable storage, before it serves other writes.
+     * @throws DuplicateEmailException if another user holds the email
+     */
+    public void restore(User user) {
+        long id = user.getId();
+        deleteByIdReturningCount(id);
+        reserveIdsThrough(id);
+        insert(id, user, user.getVersion(), claim(user.getEmail(), id));
+    }
+    
+    /**
+     * Make sure IDs generated from now on are greater than the given one,
+     * so IDs of deleted users are not handed out again after a restore
+     */
+    public void reserveIdsThrough(long id) {
+        sequence.accumulateAndGet(id, Math::max);
+    }
+    
+    /**
+     * The highest ID generated or reserved so far, 0 for an empty store
+     */
+    public long lastGeneratedId() {
+        return sequence.get();
+    }
+    
+    /**
+     * The row currently holding the email, or null. An index entry only counts
+     * while its row still points at the claim: entries for emails that were
+     * just changed or deleted, or that are claimed by a write still in
+     * progress, are not visible.
+     */
+    private Row rowByEmail(String email) {
+        EmailClaim claim = claimsByEmail.get(email);
+        if (claim == null) {
+            return null;
+        }
+        Row row = rowsById.get(claim.id);
+        return row != null && row.claim == claim ? row : null;
+    }
+    
+    /**
+     * Claim an email for a user ID, the atomic check-and-insert that keeps emails unique.
+     * Nothing here waits on another write. Another user's claim fails the
+     * call at once, whether its row is written or its write is still in
+     * progress. A claim of the same user whose write is in progress, from a
+     * concurrent update to the same email, is joined rather than duplicated,
+     * so whichever of the updates wins leaves the email indexed. A claim that
+     * no row points at and no write is in progress on is stale and is removed.
+     * The caller must call {@link EmailClaim#leave()} on the returned claim
+     * once its row is written, or {@link #release} if it is not.
+     * @return the claim, or null if the user with that ID already holds the email
+     * @throws DuplicateEmailException if another user holds or is claiming the email
+     */
+    private EmailClaim claim(String email, long id) {
+        EmailClaim claim = new EmailClaim(email, id);
+        while (true) {
+            EmailClaim existing = claimsByEmail.putIfAbsent(email, claim);
+            if (existing == null) {
+                return claim;
+            }
+            if (existing.id == id) {
+                if (isHeld(existing)) {
+                    return null;
+                }
+                if (existing.join()) {
+                    return existing;
+                }
+            } else if (existing.isPending() || isHeld(existing)) {
+                throw new DuplicateEmailException(email);
+            } else if (!existing.close()) {
+                // A write joined it since the check; look again
+                continue;
+            } else if (isHeld(existing)) {
+                // That write finished before the claim was closed
+                throw new DuplicateEmailException(email);
+            }
+            claimsByEmail.remove(email, existing);
+        }
+    }
+    
+    /**
+     * Give up a claim whose row was not written. It is removed unless another
+     * write joined it, in which case that write removes or keeps it.
+     */
+    private void release(EmailClaim claim) {
+        claim.leave();
+        if (claim.close() && !isHeld(claim)) {
+            claimsByEmail.remove(claim.email, claim);
+        }
+    }
+    
+    private boolean isHeld(EmailClaim claim) {
+        Row owner = rowsById.get(claim.id);
+        return owner != null && owner.claim == claim;
+    }
+    
+    private Row insert(long id, User user, long version, EmailClaim claim) {
+        LocalDateTime now = LocalDateTime.now();
+        Row row = new Row(id, user.getName(), user.getEmail(),
+                user.getCreatedAt() != null ? user.getCreatedAt() : now,
+                user.getUpdatedAt() != null ? user.getUpdatedAt() : now,
+                version, claim);
+        rowsById.put(id, row);
+        rowsByName.put(row.nameKey, row);
+        claim.leave();
+        count.incrementAndGet();
+        recordWrite(row.updatedAt);
+        return row;
+    }
+    
+    private void recordWrite(LocalDateTime updatedAt) {
+        lastUpdatedAt.accumulateAndGet(updatedAt,
+                (latest, candidate) -> latest == null || candidate.isAfter(latest) ? candidate : latest);
+    }
+    
+    /**
+     * Ownership of an email by a user ID. Compared by identity, so a stale
+     * claim for the same email and ID is never mistaken for the current one.
+     * It counts the writes in progress that will point a row at it, starting
+     * with the one that created it. Once none is left it can be closed, after
+     * which no write can join it and it is safe to remove if no row points at it.
+     */
+    private static final class EmailClaim {
+        
+        private static final int CLOSED = -1;
+        
+        private final String email;
+        private final long id;
+        private final AtomicInteger writers = new AtomicInteger(1);
+        
+        private EmailClaim(String email, long id) {
+            this.email = email;
+            this.id = id;
+        }
+        
+        /**
+         * @return true if a write is in progress on this claim
+         */
+        private boolean isPending() {
+            return writers.get() > 0;
+        }
+        
+        /**
+         * Add a write in progress, unless the claim was closed
+         * @return false if the claim is closed and must not be used
+         */
+        private boolean join() {
+            while (true) {
+                int current = writers.get();
+                if (current == CLOSED) {
+                    return false;
+                }
+                if (writers.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+        
+        /**
+         * End a write in progress, whether or not its row was written
+         */
+        private void leave() {
+            writers.decrementAndGet();
+        }
+        
+        /**
+         * Close the claim to new writes, if none is in progress
+         * @return true if the claim is closed
+         */
+        private boolean close() {
+            return writers.get() == CLOSED || writers.compareAndSet(0, CLOSED);
+        }
+    }
+    
+    /**
+     * Position of a user in the name index: name key, then ID for users with the same name
+     */
+    private record NameKey(String name, long id) implements Comparable<NameKey> {
+        
+        @Override
+        public int compareTo(NameKey other) {
+            int byName = name.compareTo(other.name);
+            return byName != 0 ? byName : Long.compare(id, other.id);
+        }
+    }
+    
+    /**
+     * Immutable stored state of a user. Rows are compared by identity, so
+     * replacing one is a compare-and-set on the exact version read.
+     */
+    private static final class Row {
+        
+        private final long id;
+        private final String name;
+        private final String email;
+        private final LocalDateTime createdAt;
+        private final LocalDateTime updatedAt;
+        private final long version;
+        private final EmailClaim claim;
+        private final NameKey nameKey;
+        
+        private Row(long id, String name, String email, LocalDateTime createdAt, LocalDateTime updatedAt,
+                    long version, EmailClaim claim) {
+            this.id = id;
+            this.name = name;
+            this.email = email;
+            this.createdAt = createdAt;
+            this.updatedAt = updatedAt;
+            this.version = version;
+            this.claim = claim;
+            this.nameKey = new NameKey(User.nameKey(name), id);
+        }
+        
+        private User toUser() {
+            return new User(id, name, email, createdAt, updatedAt, version);
+        }
+        
+        /**
+         * A user with only the given fields set, like the JPA adapter's projections
+         */
+        private User toUser(Set<UserField> fields) {
+            return new User(
+                    fields.contains(UserField.ID) ? id : null,
+                    fields.contains(UserField.NAME) ? name : null,
+                    fields.contains(UserField.EMAIL) ? email : null,
+                    fields.contains(UserField.CREATED_AT) ? createdAt : null,
+                    fields.contains(UserField.UPDATED_AT) ? updatedAt : null,
+                    fields.contains(UserField.VERSION) ? version : null);
+        }
+        
+        private UserStamp toStamp() {
+            return new UserStamp(id, version, updatedAt);
+        }
+    }
+}
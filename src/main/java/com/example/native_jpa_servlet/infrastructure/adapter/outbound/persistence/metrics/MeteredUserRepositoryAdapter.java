@@ -0,0 +1,211 @@
+package com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.metrics;
+
+import com.example.native_jpa_servlet.domain.model.User;
+import com.example.native_jpa_servlet.domain.model.UserCollectionStamp;
+import com.example.native_jpa_servlet.domain.model.UserField;
+import com.example.native_jpa_servlet.domain.model.UserStamp;
+import com.example.native_jpa_servlet.domain.port.outbound.UserRepositoryPort;
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Metrics decorator for UserRepositoryPort.
+ * Times every call with users.repository.calls and counts failures with
+ * users.repository.errors, both tagged by operation (the port method name),
+ * so a latency regression can be traced to the persistence call behind it.
+ * Timers are registered up front; a call costs two clock reads and a timer
+ * update, and the error counter is only looked up when a call fails.
+ */
+public class MeteredUserRepositoryAdapter implements UserRepositoryPort {
+    
+    static final String CALLS_METRIC = "users.repository.calls";
+    static final String ERRORS_METRIC = "users.repository.errors";
+    
+    private enum Operation {
+        SAVE("save"),
+        SAVE_ALL("saveAll"),
+        UPDATE_INFO("updateInfo"),
+        FIND_BY_ID("findById"),
+        FIND_BY_EMAIL("findByEmail"),
+        FIND_FIELDS_BY_ID("findFieldsById"),
+        FIND_FIELDS_BY_EMAIL("findFieldsByEmail"),
+        FIND_STAMP_BY_ID("findStampById"),
+        FIND_STAMP_BY_EMAIL("findStampByEmail"),
+        FIND_COLLECTION_STAMP("findCollectionStamp"),
+        FIND_ALL("findAll"),
+        FIND_PAGE("findPage"),
+        FIND_PAGE_FIELDS("findPageFields"),
+        FIND_PAGE_BY_NAME_PREFIX("findPageByNamePrefix"),
+        FOR_EACH_USER("forEachUser"),
+        DELETE_BY_ID("deleteById"),
+        DELETE_BY_ID_RETURNING_COUNT("deleteByIdReturningCount"),
+        DELETE_ALL_BY_ID_IN("deleteAllByIdIn"),
+        EXISTS_BY_ID("existsById"),
+        EXISTS_BY_EMAIL("existsByEmail"),
+        FIND_EXISTING_EMAILS("findExistingEmails");
+        
+        private final String tag;
+        
+        Operation(String tag) {
+            this.tag = tag;
+        }
+    }
+    
+    private final UserRepositoryPort delegate;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final Map<Operation, Timer> timers = new EnumMap<>(Operation.class);
+    
+    public MeteredUserRepositoryAdapter(UserRepositoryPort delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.meterRegistry = meterRegistry;
+        this.clock = meterRegistry.config().clock();
+        for (Operation operation : Operation.values()) {
+            timers.put(operation, Timer.builder(CALLS_METRIC)
+                    .description("Calls to the user persistence port")
+                    .tag("operation", operation.tag)
+                    .register(meterRegistry));
+        }
+    }
+    
+    @Override
+    public User save(User user) {
+        return record(Operation.SAVE, () -> delegate.save(user));
+    }
+    
+    @Override
+    public List<User> saveAll(List<User> users) {
+        return record(Operation.SAVE_ALL, () -> delegate.saveAll(users));
+    }
+    
+    @Override
+    public Optional<User> updateInfo(Long id, String name, String email, Long expectedVersion) {
+        return record(Operation.UPDATE_INFO, () -> delegate.updateInfo(id, name, email, expectedVersion));
+    }
+    
+    @Override
+    public Optional<User> findById(Long id) {
+        return record(Operation.FIND_BY_ID, () -> delegate.findById(id));
+    }
+    
+    @Override
+    public Optional<User> findByEmail(String email) {
+        return record(Operation.FIND_BY_EMAIL, () -> delegate.findByEmail(email));
+    }
+    
+    @Override
+    public Optional<User> findFieldsById(Long id, Set<UserField> fields) {
+        return record(Operation.FIND_FIELDS_BY_ID, () -> delegate.findFieldsById(id, fields));
+    }
+    
+    @Override
+    public Optional<User> findFieldsByEmail(String email, Set<UserField> fields) {
+        return record(Operation.FIND_FIELDS_BY_EMAIL, () -> delegate.findFieldsByEmail(email, fields));
+    }
+    
+    @Override
+    public Optional<UserStamp> findStampById(Long id) {
+        return record(Operation.FIND_STAMP_BY_ID, () -> delegate.findStampById(id));
+    }
+    
+    @Override
+    public Optional<UserStamp> findStampByEmail(String email) {
+        return record(Operation.FIND_STAMP_BY_EMAIL, () -> delegate.findStampByEmail(email));
+    }
+    
+    @Override
+    public UserCollectionStamp findCollectionStamp() {
+        return record(Operation.FIND_COLLECTION_STAMP, delegate::findCollectionStamp);
+    }
+    
+    @Override
+    public List<User> findAll() {
+        return record(Operation.FIND_ALL, delegate::findAll);
+    }
+    
+    @Override
+    public List<User> findPage(Long afterId, int limit) {
+        return record(Operation.FIND_PAGE, () -> delegate.findPage(afterId, limit));
+    }
+    
+    @Override
+    public List<User> findPageFields(Long afterId, int limit, Set<UserField> fields) {
+        return record(Operation.FIND_PAGE_FIELDS, () -> delegate.findPageFields(afterId, limit, fields));
+    }
+    
+    @Override
+    public List<User> findPageByNamePrefix(String namePrefix, String afterNameKey, Long afterId, int limit) {
+        return record(Operation.FIND_PAGE_BY_NAME_PREFIX,
+                () -> delegate.findPageByNamePrefix(namePrefix, afterNameKey, afterId, limit));
+    }
+    
+    @Override
+    public void forEachUser(Consumer<User> action) {
+        record(Operation.FOR_EACH_USER, () -> {
+            delegate.forEachUser(action);
+            return null;
+        });
+    }
+    
+    @Override
+    public void deleteById(Long id) {
+        record(Operation.DELETE_BY_ID, () -> {
+            delegate.deleteById(id);
+            return null;
+        });
+    }
+    
+    @Override
+    public int deleteByIdReturningCount(Long id) {
+        return record(Operation.DELETE_BY_ID_RETURNING_COUNT, () -> delegate.deleteByIdReturningCount(id));
+    }
+    
+    @Override
+    public int deleteAllByIdIn(Collection<Long> ids) {
+        return record(Operation.DELETE_ALL_BY_ID_IN, () -> delegate.deleteAllByIdIn(ids));
+    }
+    
+    @Override
+    public boolean existsById(Long id) {
+        return record(Operation.EXISTS_BY_ID, () -> delegate.existsById(id));
+    }
+    
+    @Override
+    public boolean existsByEmail(String email) {
+        return record(Operation.EXISTS_BY_EMAIL, () -> delegate.existsByEmail(email));
+    }
+    
+    @Override
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        return record(Operation.FIND_EXISTING_EMAILS, () -> delegate.findExistingEmails(emails));
+    }
+    
+    private <T> T record(Operation operation, Supplier<T> call) {
+        long start = clock.monotonicTime();
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            Counter.builder(ERRORS_METRIC)
+                    .description("Failed calls to the user persistence port")
+                    .tag("operation", operation.tag)
+                    .tag("exception", e.getClass().getSimpleName())
+                    .register(meterRegistry)
+                    .increment();
+            throw e;
+        } finally {
+            timers.get(operation).record(clock.monotonicTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
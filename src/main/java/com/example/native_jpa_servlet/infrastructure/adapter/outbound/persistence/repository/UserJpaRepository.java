@@ -1,10 +1,23 @@
 package com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.repository;
 
 import com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.entity.UserJpaEntity;
+import jakarta.persistence.QueryHint;
+import jakarta.persistence.Tuple;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Spring Data JPA repository for User entities
@@ -12,6 +25,16 @@ import java.util.Optional;
 @Repository
 public interface UserJpaRepository extends JpaRepository<UserJpaEntity, Long> {
     
+    /**
+     * JDBC fetch size used by cursor-backed streaming queries
+     */
+    int STREAM_FETCH_SIZE = 500;
+    
+    /**
+     * Columns of the full-user projection, in the order UserMapper reads them
+     */
+    String USER_COLUMNS = "u.id, u.name, u.email, u.createdAt, u.updatedAt, u.version";
+    
     /**
      * Find user by email
      * @param email the user email
@@ -19,10 +42,142 @@ public interface UserJpaRepository extends JpaRepository<UserJpaEntity, Long> {
      */
     Optional<UserJpaEntity> findByEmail(String email);
     
+    /**
+     * Primary key lookup of all user columns as a projection, so no entity
+     * is managed, snapshotted or dirty-checked
+     * @param id the user ID
+     * @return Optional containing the row if found
+     */
+    @Query("SELECT " + USER_COLUMNS + " FROM UserJpaEntity u WHERE u.id = :id")
+    Optional<Tuple> findRowById(@Param("id") Long id);
+    
+    /**
+     * Unique index lookup of all user columns as a projection
+     * @param email the user email
+     * @return Optional containing the row if found
+     */
+    @Query("SELECT " + USER_COLUMNS + " FROM UserJpaEntity u WHERE u.email = :email")
+    Optional<Tuple> findRowByEmail(@Param("email") String email);
+    
+    /**
+     * Keyset page of all user columns as a projection, served by the primary key index
+     * @param id only users with an ID greater than this are returned
+     * @param limit maximum number of rows to return
+     * @return rows ordered by ascending ID
+     */
+    @Query("SELECT " + USER_COLUMNS + " FROM UserJpaEntity u WHERE u.id > :id ORDER BY u.id")
+    List<Tuple> findRowsByIdGreaterThan(@Param("id") Long id, Limit limit);
+    
+    /**
+     * Keyset page of all user columns for users whose lowercase name lies
+     * between two bounds, served by a range scan of the (name_lower, id) index.
+     * Rows must also come after the cursor: since the lower bound is never
+     * below the cursor name, that is a greater name or, for the same name, a
+     * greater ID.
+     * @param lowest lowest lowercase name to return, at least the cursor name
+     * @param highest highest lowercase name to return
+     * @param afterName lowercase name of the cursor
+     * @param afterId ID of the cursor
+     * @param limit maximum number of rows to return
+     * @return rows ordered by lowercase name, then ascending ID
+     */
+    @Query("SELECT " + USER_COLUMNS + " FROM UserJpaEntity u " +
+           "WHERE u.nameLower >= :lowest AND u.nameLower <= :highest " +
+           "AND (u.nameLower > :afterName OR u.id > :afterId) " +
+           "ORDER BY u.nameLower, u.id")
+    List<Tuple> findRowsByNameLowerBetween(@Param("lowest") String lowest,
+                                           @Param("highest") String highest,
+                                           @Param("afterName") String afterName,
+                                           @Param("afterId") Long afterId,
+                                           Limit limit);
+    
     /**
      * Check if user exists by email
      * @param email the user email
      * @return true if exists, false otherwise
      */
     boolean existsByEmail(String email);
+    
+    /**
+     * Primary key lookup of only the change-tracking columns of a user
+     * @param id the user ID
+     * @return Optional containing a tuple of (id, version, updatedAt) if found
+     */
+    @Query("SELECT u.id, u.version, u.updatedAt FROM UserJpaEntity u WHERE u.id = :id")
+    Optional<Tuple> findStampById(@Param("id") Long id);
+    
+    /**
+     * Unique index lookup of only the change-tracking columns of a user
+     * @param email the user email
+     * @return Optional containing a tuple of (id, version, updatedAt) if found
+     */
+    @Query("SELECT u.id, u.version, u.updatedAt FROM UserJpaEntity u WHERE u.email = :email")
+    Optional<Tuple> findStampByEmail(@Param("email") String email);
+    
+    /**
+     * Aggregate of the whole table used to validate cached listings
+     * @return a tuple of (count, max updatedAt); the maximum is null when the table is empty
+     */
+    @Query("SELECT COUNT(u), MAX(u.updatedAt) FROM UserJpaEntity u")
+    Tuple findCollectionStamp();
+    
+    /**
+     * Set-based lookup of the emails that already exist
+     * @param emails the emails to check
+     * @return the emails from the given collection that are already taken
+     */
+    @Query("SELECT u.email FROM UserJpaEntity u WHERE u.email IN :emails")
+    List<String> findEmailsIn(@Param("emails") Collection<String> emails);
+    
+    /**
+     * Update name and email in one statement, optionally guarded by the expected version.
+     * Bypasses the persistence context, so no entity is loaded or merged.
+     * @param expectedVersion the version that must still be current, or null to skip the check
+     * @return the number of updated rows, 0 if the user does not exist or the version did not match
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE UserJpaEntity u SET u.name = :name, u.nameLower = :nameLower, u.email = :email, " +
+           "u.updatedAt = :updatedAt, u.version = u.version + 1 " +
+           "WHERE u.id = :id AND (:expectedVersion IS NULL OR u.version = :expectedVersion)")
+    int updateInfo(@Param("id") Long id,
+                   @Param("name") String name,
+                   @Param("nameLower") String nameLower,
+                   @Param("email") String email,
+                   @Param("updatedAt") LocalDateTime updatedAt,
+                   @Param("expectedVersion") Long expectedVersion);
+    
+    /**
+     * Delete a user in one statement, without loading it into the persistence context
+     * @param id the user ID
+     * @return the number of deleted rows
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM UserJpaEntity u WHERE u.id = :id")
+    int deleteRowById(@Param("id") Long id);
+    
+    /**
+     * Set-based delete of several users in one statement
+     * @param ids the user IDs
+     * @return the number of deleted rows
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM UserJpaEntity u WHERE u.id IN :ids")
+    int deleteRowsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Stream all users through a JDBC cursor. Entities are loaded read-only so
+     * Hibernate keeps no snapshots for dirty checking. The stream must be
+     * consumed and closed inside a transaction.
+     * @return stream of user entities ordered by ascending ID
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT u FROM UserJpaEntity u ORDER BY u.id")
+    Stream<UserJpaEntity> streamAllOrderById();
 }
@@ -0,0 +1,47 @@
+package com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.routing;
+
+/**
+ * Marks a unit of work, usually an HTTP request, whose reads must see its
+ * client's recent writes and so go to the primary even in read-only
+ * transactions. The mark is bound to the current thread and can be carried
+ * to other threads that work for the same request
+ * (see {@link PrimaryReadScopeTaskDecorator}).
+ */
+public final class PrimaryReadScope {
+    
+    private static final ThreadLocal<Boolean> BOUND = new ThreadLocal<>();
+    
+    private PrimaryReadScope() {
+    }
+    
+    /**
+     * Whether reads on the current thread must go to the primary
+     */
+    public static boolean isBound() {
+        return BOUND.get() != null;
+    }
+    
+    /**
+     * Send reads on the current thread to the primary until the returned
+     * binding is closed, which restores whatever was bound before
+     */
+    public static Binding bind() {
+        Boolean previous = BOUND.get();
+        BOUND.set(Boolean.TRUE);
+        return () -> {
+            if (previous == null) {
+                BOUND.remove();
+            }
+        };
+    }
+    
+    /**
+     * An active binding of the scope to a thread
+     */
+    @FunctionalInterface
+    public interface Binding extends AutoCloseable {
+        
+        @Override
+        void close();
+    }
+}
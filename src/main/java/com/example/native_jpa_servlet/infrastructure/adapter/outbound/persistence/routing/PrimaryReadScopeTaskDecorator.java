@@ -0,0 +1,23 @@
+package com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.routing;
+
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Carries the submitting thread's {@link PrimaryReadScope} over to the thread
+ * that runs the task, so a request pinned to the primary stays pinned when
+ * its work runs on an executor.
+ */
+public class PrimaryReadScopeTaskDecorator implements TaskDecorator {
+    
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        if (!PrimaryReadScope.isBound()) {
+            return runnable;
+        }
+        return () -> {
+            try (PrimaryReadScope.Binding ignored = PrimaryReadScope.bind()) {
+                runnable.run();
+            }
+        };
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.routing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Sends connections for read-only transactions to a replica and everything
+ * else to the primary.
+ *
+ * The route is taken when a connection is requested, so this data source must
+ * sit behind a LazyConnectionDataSourceProxy: the transaction manager opens
+ * the connection before it publishes the transaction's read-only flag, and the
+ * proxy defers the real connection to the first statement, by which time the
+ * flag is set. Reads in a {@link PrimaryReadScope} go to the primary, so a
+ * client that has just written reads its own writes while the replica
+ * catches up. Every routed connection is counted in datasource.routing,
+ * tagged by target and reason.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+    
+    static final String ROUTING_METRIC = "datasource.routing";
+    
+    /**
+     * Where a connection is routed
+     */
+    public enum Target {
+        PRIMARY, REPLICA
+    }
+    
+    private final Counter writes;
+    private final Counter reads;
+    private final Counter pinnedReads;
+    
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, MeterRegistry meterRegistry) {
+        setTargetDataSources(Map.<Object, Object>of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+        
+        this.writes = counter(meterRegistry, Target.PRIMARY, "read-write");
+        this.reads = counter(meterRegistry, Target.REPLICA, "read-only");
+        this.pinnedReads = counter(meterRegistry, Target.PRIMARY, "read-your-writes");
+    }
+    
+    @Override
+    protected Target determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            writes.increment();
+            return Target.PRIMARY;
+        }
+        if (PrimaryReadScope.isBound()) {
+            pinnedReads.increment();
+            return Target.PRIMARY;
+        }
+        reads.increment();
+        return Target.REPLICA;
+    }
+    
+    private static Counter counter(MeterRegistry meterRegistry, Target target, String reason) {
+        return Counter.builder(ROUTING_METRIC)
+                .description("Connections routed to the primary or the replica")
+                .tag("target", target.name().toLowerCase(Locale.ROOT))
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
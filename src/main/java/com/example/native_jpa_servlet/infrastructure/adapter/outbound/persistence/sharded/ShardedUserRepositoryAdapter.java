@@ -0,0 +1,641 @@
+package com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.sharded;
+
+import com.example.native_jpa_servlet.domain.exception.DuplicateEmailException;
+import com.example.native_jpa_servlet.domain.model.User;
+import com.example.native_jpa_servlet.domain.model.UserCollectionStamp;
+import com.example.native_jpa_servlet.domain.model.UserField;
+import com.example.native_jpa_servlet.domain.model.UserStamp;
+import com.example.native_jpa_servlet.domain.port.outbound.UserRepositoryPort;
+import com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.sharded.UserShard.EmailClaim;
+import org.springframework.core.task.TaskDecorator;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Implementation of UserRepositoryPort spread over several databases.
+ * A user lives on the shard its ID hashes to, so every call by ID goes to
+ * one shard. Emails are kept unique by a directory, itself partitioned by
+ * the hash of the email, that maps each email to the ID of the user holding
+ * it; a lookup by email reads the directory and then the owning shard.
+ * Listings and pages query every shard in parallel and merge the results,
+ * each shard returning at most one page. IDs come in blocks from a sequence
+ * on the first shard, so they ascend across shards as with a single database.
+ *
+ * A write touching two shards is not one transaction. The email is claimed
+ * in the directory before the user row is written and released after the
+ * row stops using it; if a write fails half way its claims are released
+ * again. A claim left behind by a crash is recognised because its owner row
+ * does not hold the email, and once it is older than the claim timeout the
+ * next writer that needs the email takes it over. The timeout must therefore
+ * exceed the longest a write can take between claiming and writing its row.
+ *
+ * The number of shards decides where every user lives, so it is fixed for
+ * the life of the data; changing it needs the users moved to their new shards.
+ */
+public class ShardedUserRepositoryAdapter implements UserRepositoryPort, Closeable {
+    
+    /**
+     * IDs taken from the sequence at a time, matching its increment
+     */
+    static final int ID_BLOCK_SIZE = 50;
+    
+    /**
+     * Users read from each shard at a time while visiting all users
+     */
+    static final int VISIT_PAGE_SIZE = 1_000;
+    
+    private static final Comparator<User> BY_ID = Comparator.comparing(User::getId);
+    private static final Comparator<User> BY_NAME_KEY =
+            Comparator.comparing((User user) -> User.nameKey(user.getName())).thenComparing(User::getId);
+    
+    private final List<UserShard> shards;
+    private final Duration claimTimeout;
+    private final ExecutorService gatherExecutor;
+    private final TaskDecorator taskDecorator;
+    
+    /** Next ID to hand out and the last ID of its block; guarded by this */
+    private long nextId = 1;
+    private long lastIdInBlock = 0;
+    
+    /**
+     * Create the store over the given databases, creating the tables where missing
+     * @param dataSources one per shard, always in the same order
+     * @param gatherThreads threads querying the other shards while the caller queries the first
+     * @param claimTimeout age after which an email claim without a matching user may be taken over
+     */
+    public ShardedUserRepositoryAdapter(List<DataSource> dataSources, int gatherThreads, Duration claimTimeout) {
+        this(dataSources, gatherThreads, claimTimeout, task -> task);
+    }
+    
+    /**
+     * Create the store, decorating the queries handed to the gather threads so
+     * that request context, such as the statement count, follows them
+     * @param taskDecorator applied to every query run on a gather thread
+     */
+    public ShardedUserRepositoryAdapter(List<DataSource> dataSources, int gatherThreads, Duration claimTimeout,
+                                        TaskDecorator taskDecorator) {
+        if (dataSources.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        if (gatherThreads < 1) {
+            throw new IllegalArgumentException("At least one gather thread is required");
+        }
+        if (claimTimeout.isNegative()) {
+            throw new IllegalArgumentException("Claim timeout cannot be negative");
+        }
+        List<UserShard> created = new ArrayList<>(dataSources.size());
+        for (int i = 0; i < dataSources.size(); i++) {
+            UserShard shard = new UserShard(i, dataSources.get(i));
+            shard.createSchema();
+            created.add(shard);
+        }
+        created.get(0).createSequence(ID_BLOCK_SIZE);
+        this.shards = List.copyOf(created);
+        this.claimTimeout = claimTimeout;
+        this.taskDecorator = taskDecorator;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.gatherExecutor = Executors.newFixedThreadPool(gatherThreads, task -> {
+            Thread thread = new Thread(task, "user-shard-gather-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    @Override
+    public User save(User user) {
+        return saveAll(List.of(user)).get(0);
+    }
+    
+    /**
+     * Claim every email, then insert the users one batch per shard. A duplicate
+     * or a failed insert releases what was written, leaving the store unchanged.
+     */
+    @Override
+    public List<User> saveAll(List<User> users) {
+        if (users.isEmpty()) {
+            return List.of();
+        }
+        Set<String> emails = new HashSet<>();
+        for (User user : users) {
+            if (!emails.add(user.getEmail())) {
+                throw new DuplicateEmailException(user.getEmail());
+            }
+        }
+        
+        long[] ids = allocateIds(users.size());
+        LocalDateTime now = now();
+        List<User> rows = new ArrayList<>(users.size());
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+            rows.add(new User(ids[i], user.getName(), user.getEmail(),
+                    user.getCreatedAt() != null ? micros(user.getCreatedAt()) : now,
+                    user.getUpdatedAt() != null ? micros(user.getUpdatedAt()) : now,
+                    0L));
+        }
+        
+        List<User> claimed = new ArrayList<>(rows.size());
+        List<Long> inserted = new ArrayList<>(rows.size());
+        try {
+            for (User row : rows) {
+                claim(row.getEmail(), row.getId(), now);
+                claimed.add(row);
+            }
+            for (var entry : groupByShard(rows, row -> shardOf(row.getId())).entrySet()) {
+                entry.getKey().insert(entry.getValue());
+                for (User row : entry.getValue()) {
+                    inserted.add(row.getId());
+                }
+            }
+        } catch (RuntimeException e) {
+            for (var entry : groupByShard(inserted, this::shardOf).entrySet()) {
+                entry.getKey().delete(entry.getValue());
+            }
+            releaseClaims(claimed);
+            throw e;
+        }
+        return rows;
+    }
+    
+    /**
+     * Claim a changed email before the conditional update, and release the old
+     * one after it. If the update loses to another write the claim is released
+     * and the user re-read, as the in-memory adapter does.
+     */
+    @Override
+    public Optional<User> updateInfo(Long id, String name, String email, Long expectedVersion) {
+        UserShard shard = shardOf(id);
+        while (true) {
+            Optional<User> found = shard.findById(id, UserField.ALL);
+            if (found.isEmpty() || (expectedVersion != null && !expectedVersion.equals(found.get().getVersion()))) {
+                return Optional.empty();
+            }
+            User current = found.get();
+            LocalDateTime now = now();
+            boolean emailChanged = !current.getEmail().equals(email);
+            boolean claimed = emailChanged && claim(email, id, now);
+            int updated;
+            try {
+                updated = shard.update(id, name, email, now, current.getVersion());
+            } catch (RuntimeException e) {
+                if (claimed) {
+                    releaseClaims(List.of(new User(id, null, email, null, null)));
+                }
+                throw e;
+            }
+            if (updated == 1) {
+                if (emailChanged) {
+                    releaseClaims(List.of(current));
+                }
+                return Optional.of(new User(id, name, email, current.getCreatedAt(), now, current.getVersion() + 1));
+            }
+            if (claimed) {
+                releaseClaims(List.of(new User(id, null, email, null, null)));
+            }
+        }
+    }
+    
+    @Override
+    public Optional<User> findById(Long id) {
+        return findFieldsById(id, UserField.ALL);
+    }
+    
+    @Override
+    public Optional<User> findByEmail(String email) {
+        return findFieldsByEmail(email, UserField.ALL);
+    }
+    
+    @Override
+    public Optional<User> findFieldsById(Long id, Set<UserField> fields) {
+        return shardOf(id).findById(id, fields).map(user -> project(user, fields));
+    }
+    
+    /**
+     * Look up the owner in the directory, then read it from its shard. The
+     * row must still hold the email, so a claim for a write in progress or
+     * one left behind finds nothing.
+     */
+    @Override
+    public Optional<User> findFieldsByEmail(String email, Set<UserField> fields) {
+        return directoryShard(email).findClaim(email)
+                .flatMap(claim -> shardOf(claim.userId()).findByIdAndEmail(claim.userId(), email, fields))
+                .map(user -> project(user, fields));
+    }
+    
+    @Override
+    public Optional<UserStamp> findStampById(Long id) {
+        return findFieldsById(id, stampFields()).map(UserStamp::of);
+    }
+    
+    @Override
+    public Optional<UserStamp> findStampByEmail(String email) {
+        return findFieldsByEmail(email, stampFields()).map(UserStamp::of);
+    }
+    
+    /**
+     * Sum of the shards' counts and the latest of their update times
+     */
+    @Override
+    public UserCollectionStamp findCollectionStamp() {
+        long count = 0;
+        LocalDateTime lastUpdatedAt = null;
+        for (UserCollectionStamp stamp : onAllShards(UserShard::findCollectionStamp)) {
+            count += stamp.getCount();
+            LocalDateTime shardUpdatedAt = stamp.getLastUpdatedAt();
+            if (shardUpdatedAt != null && (lastUpdatedAt == null || shardUpdatedAt.isAfter(lastUpdatedAt))) {
+                lastUpdatedAt = shardUpdatedAt;
+            }
+        }
+        return new UserCollectionStamp(count, lastUpdatedAt);
+    }
+    
+    @Override
+    public List<User> findAll() {
+        List<User> users = new ArrayList<>();
+        for (List<User> shardUsers : onAllShards(UserShard::findAll)) {
+            users.addAll(shardUsers);
+        }
+        users.sort(BY_ID);
+        return users;
+    }
+    
+    @Override
+    public List<User> findPage(Long afterId, int limit) {
+        return findPageFields(afterId, limit, UserField.ALL);
+    }
+    
+    /**
+     * Take a page after the cursor from every shard and keep the lowest IDs.
+     * Any user of the merged page is within the first {@code limit} of its own
+     * shard, so no shard needs to return more.
+     */
+    @Override
+    public List<User> findPageFields(Long afterId, int limit, Set<UserField> fields) {
+        long after = afterId != null ? afterId : 0L;
+        List<User> page = merge(onAllShards(shard -> shard.findPage(after, limit, fields)), BY_ID, limit);
+        page.replaceAll(user -> project(user, fields));
+        return page;
+    }
+    
+    /**
+     * The JPA adapter's range scan on every shard, merged by name key and ID
+     */
+    @Override
+    public List<User> findPageByNamePrefix(String namePrefix, String afterNameKey, Long afterId, int limit) {
+        boolean first = afterNameKey == null || afterId == null;
+        String afterName = first ? namePrefix : afterNameKey;
+        String lowest = afterName.compareTo(namePrefix) > 0 ? afterName : namePrefix;
+        String highest = namePrefix + Character.MAX_VALUE;
+        long after = first ? 0L : afterId;
+        return merge(onAllShards(shard -> shard.findPageByNameLowerBetween(lowest, highest, afterName, after, limit)),
+                BY_NAME_KEY, limit);
+    }
+    
+    /**
+     * Visit every user in ID order by merging a page cursor per shard, so at
+     * most one page per shard is held at a time
+     */
+    @Override
+    public void forEachUser(Consumer<User> action) {
+        PriorityQueue<PageCursor> cursors = new PriorityQueue<>(
+                Comparator.comparing((PageCursor cursor) -> cursor.head().getId()));
+        for (UserShard shard : shards) {
+            PageCursor cursor = new PageCursor(shard);
+            if (cursor.advance()) {
+                cursors.add(cursor);
+            }
+        }
+        while (!cursors.isEmpty()) {
+            PageCursor cursor = cursors.poll();
+            action.accept(cursor.next());
+            if (cursor.advance()) {
+                cursors.add(cursor);
+            }
+        }
+    }
+    
+    @Override
+    public void deleteById(Long id) {
+        deleteByIdReturningCount(id);
+    }
+    
+    @Override
+    public int deleteByIdReturningCount(Long id) {
+        return deleteAllByIdIn(List.of(id));
+    }
+    
+    /**
+     * Delete on every shard involved in parallel, then release the deleted users' emails
+     */
+    @Override
+    public int deleteAllByIdIn(Collection<Long> ids) {
+        List<User> deleted = new ArrayList<>();
+        for (List<User> shardDeleted : onShards(groupByShard(new LinkedHashSet<>(ids), this::shardOf), UserShard::delete)) {
+            deleted.addAll(shardDeleted);
+        }
+        releaseClaims(deleted);
+        return deleted.size();
+    }
+    
+    @Override
+    public boolean existsById(Long id) {
+        return shardOf(id).existsById(id);
+    }
+    
+    @Override
+    public boolean existsByEmail(String email) {
+        return findFieldsByEmail(email, EnumSet.of(UserField.ID)).isPresent();
+    }
+    
+    /**
+     * Read the claims from the directory shards, then check on the owners'
+     * shards that each owner still holds its email; both steps run in parallel
+     */
+    @Override
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        List<EmailClaim> claims = new ArrayList<>();
+        for (List<EmailClaim> shardClaims : onShards(groupByShard(new HashSet<>(emails), this::directoryShard),
+                UserShard::findClaims)) {
+            claims.addAll(shardClaims);
+        }
+        Set<String> existing = new HashSet<>();
+        for (Set<String> held : onShards(groupByShard(claims, claim -> shardOf(claim.userId())), (shard, shardClaims) -> {
+            List<Long> owners = new ArrayList<>(shardClaims.size());
+            for (EmailClaim claim : shardClaims) {
+                owners.add(claim.userId());
+            }
+            Map<Long, String> ownerEmails = shard.findEmails(owners);
+            Set<String> shardHeld = new HashSet<>();
+            for (EmailClaim claim : shardClaims) {
+                if (claim.email().equals(ownerEmails.get(claim.userId()))) {
+                    shardHeld.add(claim.email());
+                }
+            }
+            return shardHeld;
+        })) {
+            existing.addAll(held);
+        }
+        return existing;
+    }
+    
+    /**
+     * Stop the gather threads and close the shards' data sources
+     */
+    @Override
+    public void close() throws IOException {
+        gatherExecutor.shutdown();
+        for (UserShard shard : shards) {
+            if (shard.dataSource() instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+    
+    /**
+     * Number of shards the users are spread over
+     */
+    public int shardCount() {
+        return shards.size();
+    }
+    
+    /**
+     * Index of the shard holding the user with the given ID
+     */
+    public int shardIndexOf(long id) {
+        return Math.floorMod(Long.hashCode(id), shards.size());
+    }
+    
+    private UserShard shardOf(long id) {
+        return shards.get(shardIndexOf(id));
+    }
+    
+    private UserShard directoryShard(String email) {
+        return shards.get(Math.floorMod(email.hashCode(), shards.size()));
+    }
+    
+    private synchronized long[] allocateIds(int count) {
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            if (nextId > lastIdInBlock) {
+                nextId = shards.get(0).nextIdBlock();
+                lastIdInBlock = nextId + ID_BLOCK_SIZE - 1;
+            }
+            ids[i] = nextId++;
+        }
+        return ids;
+    }
+    
+    /**
+     * Claim an email for a user ID in the directory, the check-and-insert that keeps emails unique
+     * @return true if the claim was taken, false if the user with that ID already held it
+     * @throws DuplicateEmailException if another user holds the email
+     */
+    private boolean claim(String email, long id, LocalDateTime now) {
+        UserShard directory = directoryShard(email);
+        while (true) {
+            if (directory.insertClaim(email, id, now)) {
+                return true;
+            }
+            Optional<EmailClaim> existing = directory.findClaim(email);
+            if (existing.isEmpty()) {
+                // Released since the insert failed; try again
+                continue;
+            }
+            EmailClaim claim = existing.get();
+            if (claim.userId() == id) {
+                return false;
+            }
+            if (!isAbandoned(claim, now)) {
+                throw new DuplicateEmailException(email);
+            }
+            if (directory.takeOverClaim(claim, id, now)) {
+                return true;
+            }
+        }
+    }
+    
+    /**
+     * A claim is abandoned once it is older than the claim timeout and its
+     * owner does not hold the email, having failed, been deleted or moved on
+     */
+    private boolean isAbandoned(EmailClaim claim, LocalDateTime now) {
+        if (claim.claimedAt().plus(claimTimeout).isAfter(now)) {
+            return false;
+        }
+        String ownerEmail = shardOf(claim.userId()).findEmails(List.of(claim.userId())).get(claim.userId());
+        return !claim.email().equals(ownerEmail);
+    }
+    
+    /**
+     * Release the given users' claims on their emails, one batch per directory shard
+     */
+    private void releaseClaims(List<User> owners) {
+        for (var entry : groupByShard(owners, owner -> directoryShard(owner.getEmail())).entrySet()) {
+            entry.getKey().releaseClaims(entry.getValue());
+        }
+    }
+    
+    private <T> Map<UserShard, List<T>> groupByShard(Collection<T> values, Function<T, UserShard> shardOf) {
+        Map<UserShard, List<T>> grouped = new TreeMap<>(Comparator.comparingInt(UserShard::index));
+        for (T value : values) {
+            grouped.computeIfAbsent(shardOf.apply(value), shard -> new ArrayList<>()).add(value);
+        }
+        return grouped;
+    }
+    
+    private <T> List<T> onAllShards(Function<UserShard, T> query) {
+        Map<UserShard, Void> all = new LinkedHashMap<>();
+        for (UserShard shard : shards) {
+            all.put(shard, null);
+        }
+        return onShards(all, (shard, ignored) -> query.apply(shard));
+    }
+    
+    /**
+     * Run a query on each of the given shards in parallel and gather the
+     * results in the same order. The calling thread takes the first shard
+     * itself rather than wait idle. If any query fails the rest are cancelled
+     * and its exception is rethrown.
+     */
+    private <K, T> List<T> onShards(Map<UserShard, K> work, BiFunction<UserShard, K, T> query) {
+        List<Map.Entry<UserShard, K>> entries = new ArrayList<>(work.entrySet());
+        if (entries.isEmpty()) {
+            return List.of();
+        }
+        List<Future<T>> futures = new ArrayList<>(entries.size() - 1);
+        for (var entry : entries.subList(1, entries.size())) {
+            FutureTask<T> future = new FutureTask<>(() -> query.apply(entry.getKey(), entry.getValue()));
+            gatherExecutor.execute(taskDecorator.decorate(future));
+            futures.add(future);
+        }
+        List<T> results = new ArrayList<>(entries.size());
+        try {
+            results.add(query.apply(entries.get(0).getKey(), entries.get(0).getValue()));
+            for (Future<T> future : futures) {
+                results.add(join(future));
+            }
+        } finally {
+            for (Future<T> future : futures) {
+                future.cancel(true);
+            }
+        }
+        return results;
+    }
+    
+    private static <T> T join(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while querying shards", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Shard query failed", e.getCause());
+        }
+    }
+    
+    /**
+     * The first {@code limit} users of the sorted per-shard lists, in order
+     */
+    private static List<User> merge(List<List<User>> shardPages, Comparator<User> order, int limit) {
+        List<User> merged = new ArrayList<>();
+        for (List<User> shardPage : shardPages) {
+            merged.addAll(shardPage);
+        }
+        merged.sort(order);
+        return merged.size() > limit ? new ArrayList<>(merged.subList(0, limit)) : merged;
+    }
+    
+    /**
+     * Shards always read the ID so results can be merged; drop it if it was not asked for
+     */
+    private static User project(User user, Set<UserField> fields) {
+        if (!fields.contains(UserField.ID)) {
+            user.setId(null);
+        }
+        return user;
+    }
+    
+    private static Set<UserField> stampFields() {
+        return EnumSet.of(UserField.ID, UserField.VERSION, UserField.UPDATED_AT);
+    }
+    
+    /**
+     * The current time at the precision of the TIMESTAMP columns, so returned users equal stored ones
+     */
+    private static LocalDateTime now() {
+        return micros(LocalDateTime.now());
+    }
+    
+    private static LocalDateTime micros(LocalDateTime time) {
+        return time.truncatedTo(ChronoUnit.MICROS);
+    }
+    
+    /**
+     * Keyset cursor over one shard's users in ID order, a page at a time
+     */
+    private static final class PageCursor {
+        
+        private final UserShard shard;
+        private List<User> page = List.of();
+        private int position;
+        private boolean last;
+        
+        private PageCursor(UserShard shard) {
+            this.shard = shard;
+        }
+        
+        /**
+         * @return true if there is a user at the cursor, fetching the next page if needed
+         */
+        private boolean advance() {
+            if (position < page.size()) {
+                return true;
+            }
+            if (last) {
+                return false;
+            }
+            long afterId = page.isEmpty() ? 0L : page.get(page.size() - 1).getId();
+            page = shard.findPage(afterId, VISIT_PAGE_SIZE, UserField.ALL);
+            position = 0;
+            last = page.size() < VISIT_PAGE_SIZE;
+            return !page.isEmpty();
+        }
+        
+        private User head() {
+            return page.get(position);
+        }
+        
+        private User next() {
+            return page.get(position++);
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.sharded;
+
+import com.example.native_jpa_servlet.domain.model.User;
+import com.example.native_jpa_servlet.domain.model.UserCollectionStamp;
+import com.example.native_jpa_servlet.domain.model.UserField;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * One database of the sharded store. It holds the users whose ID hashes to
+ * it and the part of the email directory whose emails hash to it, each in
+ * its own table; the schema is created on first use. Every query here runs
+ * on this shard alone; combining shards is up to the adapter.
+ */
+final class UserShard {
+    
+    /**
+     * Upper bound on bind parameters in a single IN clause
+     */
+    static final int IN_CLAUSE_CHUNK_SIZE = 1_000;
+    
+    private static final Map<UserField, String> COLUMNS = new EnumMap<>(Map.of(
+            UserField.ID, "id",
+            UserField.NAME, "name",
+            UserField.EMAIL, "email",
+            UserField.CREATED_AT, "created_at",
+            UserField.UPDATED_AT, "updated_at",
+            UserField.VERSION, "version"));
+    
+    private static final String INSERT_USER =
+            "INSERT INTO users (id, name, name_lower, email, created_at, updated_at, version) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    
+    /**
+     * Ownership of an email by a user ID, as recorded in the directory
+     * @param email the email
+     * @param userId the ID of the user holding it
+     * @param claimedAt when the claim was taken
+     */
+    record EmailClaim(String email, long userId, LocalDateTime claimedAt) {
+    }
+    
+    private final int index;
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transaction;
+    
+    UserShard(int index, DataSource dataSource) {
+        this.index = index;
+        this.dataSource = dataSource;
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+    
+    int index() {
+        return index;
+    }
+    
+    DataSource dataSource() {
+        return dataSource;
+    }
+    
+    void createSchema() {
+        jdbc.execute("CREATE TABLE IF NOT EXISTS users ("
+                + "id BIGINT PRIMARY KEY, "
+                + "name VARCHAR(100) NOT NULL, "
+                + "name_lower VARCHAR(200) NOT NULL, "
+                + "email VARCHAR(255) NOT NULL, "
+                + "created_at TIMESTAMP NOT NULL, "
+                + "updated_at TIMESTAMP NOT NULL, "
+                + "version BIGINT NOT NULL)");
+        jdbc.execute("CREATE INDEX IF NOT EXISTS idx_users_name_lower_id ON users (name_lower, id)");
+        jdbc.execute("CREATE TABLE IF NOT EXISTS user_emails ("
+                + "email VARCHAR(255) PRIMARY KEY, "
+                + "user_id BIGINT NOT NULL, "
+                + "claimed_at TIMESTAMP NOT NULL)");
+    }
+    
+    /**
+     * Create the ID sequence; only the shard that hands out IDs needs it
+     */
+    void createSequence(int blockSize) {
+        jdbc.execute("CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY " + blockSize);
+    }
+    
+    /**
+     * @return the first ID of a new block
+     */
+    long nextIdBlock() {
+        return jdbc.queryForObject("SELECT NEXT VALUE FOR users_seq", Long.class);
+    }
+    
+    // Users
+    
+    /**
+     * Insert users with IDs already assigned, in one transaction
+     */
+    void insert(List<User> users) {
+        transaction.executeWithoutResult(status -> jdbc.batchUpdate(INSERT_USER, users, users.size(), (statement, user) -> {
+            statement.setLong(1, user.getId());
+            statement.setString(2, user.getName());
+            statement.setString(3, User.nameKey(user.getName()));
+            statement.setString(4, user.getEmail());
+            statement.setObject(5, user.getCreatedAt());
+            statement.setObject(6, user.getUpdatedAt());
+            statement.setLong(7, user.getVersion());
+        }));
+    }
+    
+    Optional<User> findById(long id, Set<UserField> fields) {
+        return first(jdbc.query(select(fields) + " WHERE id = ?", mapper(fields), id));
+    }
+    
+    Optional<User> findByIdAndEmail(long id, String email, Set<UserField> fields) {
+        return first(jdbc.query(select(fields) + " WHERE id = ? AND email = ?", mapper(fields), id, email));
+    }
+    
+    boolean existsById(long id) {
+        return !jdbc.queryForList("SELECT 1 FROM users WHERE id = ?", Integer.class, id).isEmpty();
+    }
+    
+    /**
+     * The current email of each of the given users that exists on this shard
+     */
+    Map<Long, String> findEmails(Collection<Long> ids) {
+        Map<Long, String> emails = new HashMap<>();
+        for (List<Long> chunk : chunks(new ArrayList<>(ids))) {
+            jdbc.query("SELECT id, email FROM users WHERE id IN (" + placeholders(chunk.size()) + ")",
+                    (ResultSet rs) -> {
+                        emails.put(rs.getLong(1), rs.getString(2));
+                    }, chunk.toArray());
+        }
+        return emails;
+    }
+    
+    List<User> findPage(long afterId, int limit, Set<UserField> fields) {
+        return jdbc.query(select(fields) + " WHERE id > ? ORDER BY id FETCH FIRST ? ROWS ONLY",
+                mapper(fields), afterId, limit);
+    }
+    
+    /**
+     * Keyset page over the (name_lower, id) index; see the JPA adapter for the range
+     */
+    List<User> findPageByNameLowerBetween(String lowest, String highest, String afterName, long afterId, int limit) {
+        return jdbc.query(select(UserField.ALL) + " WHERE name_lower >= ? AND name_lower <= ? "
+                        + "AND (name_lower > ? OR id > ?) ORDER BY name_lower, id FETCH FIRST ? ROWS ONLY",
+                mapper(UserField.ALL), lowest, highest, afterName, afterId, limit);
+    }
+    
+    List<User> findAll() {
+        return jdbc.query(select(UserField.ALL) + " ORDER BY id", mapper(UserField.ALL));
+    }
+    
+    UserCollectionStamp findCollectionStamp() {
+        return jdbc.queryForObject("SELECT COUNT(*), MAX(updated_at) FROM users",
+                (rs, row) -> new UserCollectionStamp(rs.getLong(1), rs.getObject(2, LocalDateTime.class)));
+    }
+    
+    /**
+     * Update a user if it is still at the given version
+     * @return the number of rows updated, 0 or 1
+     */
+    int update(long id, String name, String email, LocalDateTime updatedAt, long version) {
+        return jdbc.update("UPDATE users SET name = ?, name_lower = ?, email = ?, updated_at = ?, version = version + 1 "
+                + "WHERE id = ? AND version = ?", name, User.nameKey(name), email, updatedAt, id, version);
+    }
+    
+    /**
+     * Delete users by ID in one transaction
+     * @return the deleted users, with only their ID and email set
+     */
+    List<User> delete(Collection<Long> ids) {
+        return transaction.execute(status -> {
+            List<User> deleted = new ArrayList<>();
+            for (List<Long> chunk : chunks(new ArrayList<>(ids))) {
+                String in = placeholders(chunk.size());
+                deleted.addAll(jdbc.query("SELECT id, email FROM users WHERE id IN (" + in + ") FOR UPDATE",
+                        mapper(EnumSet.of(UserField.ID, UserField.EMAIL)), chunk.toArray()));
+                jdbc.update("DELETE FROM users WHERE id IN (" + in + ")", chunk.toArray());
+            }
+            return deleted;
+        });
+    }
+    
+    // Email directory
+    
+    /**
+     * Claim an email unless someone holds it
+     * @return true if the claim was taken, false if the email is already claimed
+     */
+    boolean insertClaim(String email, long userId, LocalDateTime claimedAt) {
+        try {
+            jdbc.update("INSERT INTO user_emails (email, user_id, claimed_at) VALUES (?, ?, ?)",
+                    email, userId, claimedAt);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+    
+    Optional<EmailClaim> findClaim(String email) {
+        return first(jdbc.query("SELECT email, user_id, claimed_at FROM user_emails WHERE email = ?",
+                UserShard::claim, email));
+    }
+    
+    List<EmailClaim> findClaims(Collection<String> emails) {
+        List<EmailClaim> claims = new ArrayList<>();
+        for (List<String> chunk : chunks(new ArrayList<>(emails))) {
+            claims.addAll(jdbc.query("SELECT email, user_id, claimed_at FROM user_emails WHERE email IN ("
+                    + placeholders(chunk.size()) + ")", UserShard::claim, chunk.toArray()));
+        }
+        return claims;
+    }
+    
+    /**
+     * Hand an abandoned claim to another user, unless it changed since it was read
+     * @return true if the claim now belongs to the new user
+     */
+    boolean takeOverClaim(EmailClaim abandoned, long userId, LocalDateTime claimedAt) {
+        return jdbc.update("UPDATE user_emails SET user_id = ?, claimed_at = ? "
+                        + "WHERE email = ? AND user_id = ? AND claimed_at = ?",
+                userId, claimedAt, abandoned.email(), abandoned.userId(), abandoned.claimedAt()) == 1;
+    }
+    
+    /**
+     * Release the given users' claims on their emails; a claim that has passed
+     * to another user is left alone
+     */
+    void releaseClaims(List<User> owners) {
+        jdbc.batchUpdate("DELETE FROM user_emails WHERE email = ? AND user_id = ?", owners, owners.size(),
+                (statement, owner) -> {
+                    statement.setString(1, owner.getEmail());
+                    statement.setLong(2, owner.getId());
+                });
+    }
+    
+    private static String select(Set<UserField> fields) {
+        StringBuilder sql = new StringBuilder("SELECT id");
+        for (UserField field : fields) {
+            if (field != UserField.ID) {
+                sql.append(", ").append(COLUMNS.get(field));
+            }
+        }
+        return sql.append(" FROM users").toString();
+    }
+    
+    /**
+     * Maps the columns selected by {@link #select}. The ID is always read, so
+     * results from several shards can be merged; the adapter drops it if it
+     * was not asked for.
+     */
+    private static RowMapper<User> mapper(Set<UserField> fields) {
+        return (rs, row) -> new User(
+                rs.getLong("id"),
+                fields.contains(UserField.NAME) ? rs.getString("name") : null,
+                fields.contains(UserField.EMAIL) ? rs.getString("email") : null,
+                fields.contains(UserField.CREATED_AT) ? rs.getObject("created_at", LocalDateTime.class) : null,
+                fields.contains(UserField.UPDATED_AT) ? rs.getObject("updated_at", LocalDateTime.class) : null,
+                fields.contains(UserField.VERSION) ? rs.getLong("version") : null);
+    }
+    
+    private static EmailClaim claim(ResultSet rs, int row) throws SQLException {
+        return new EmailClaim(rs.getString(1), rs.getLong(2), rs.getObject(3, LocalDateTime.class));
+    }
+    
+    private static <T> Optional<T> first(List<T> results) {
+        return results.isEmpty() ? Optional.empty() : Optional.of(results.get(0));
+    }
+    
+    private static <T> List<List<T>> chunks(List<T> values) {
+        if (values.size() <= IN_CLAUSE_CHUNK_SIZE) {
+            return values.isEmpty() ? List.of() : List.of(values);
+        }
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < values.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            chunks.add(values.subList(from, Math.min(from + IN_CLAUSE_CHUNK_SIZE, values.size())));
+        }
+        return chunks;
+    }
+    
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.statement;
+
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+
+/**
+ * DataSource that counts the statements run on its connections against the
+ * {@link SqlStatementScope} bound to the calling thread, for code that uses
+ * JDBC directly and so bypasses {@link CountingStatementInspector}. As with
+ * Hibernate, a statement is counted when it is prepared, so a JDBC batch
+ * counts once; plain statements are counted per SQL string they run.
+ * Closing it closes the target when that can be closed, such as a pool.
+ * The connection and statement proxies are JDK proxies, which a native image
+ * only supports when declared at build time; see {@link Hints}.
+ */
+public class CountingDataSource extends DelegatingDataSource implements Closeable {
+    
+    private static final Set<String> PREPARE_METHODS = Set.of("prepareStatement", "prepareCall");
+    private static final Set<String> EXECUTE_METHODS =
+            Set.of("execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "addBatch");
+    
+    public CountingDataSource(DataSource target) {
+        super(target);
+    }
+    
+    @Override
+    public Connection getConnection() throws SQLException {
+        return counting(obtainTargetDataSource().getConnection());
+    }
+    
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return counting(obtainTargetDataSource().getConnection(username, password));
+    }
+    
+    @Override
+    public void close() throws IOException {
+        if (obtainTargetDataSource() instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+    
+    private static Connection counting(Connection connection) {
+        return proxy(Connection.class, connection, (method, args) -> {
+            if (PREPARE_METHODS.contains(method.getName())) {
+                SqlStatementScope.record((String) args[0]);
+            }
+        });
+    }
+    
+    private static Statement counting(Statement statement) {
+        return proxy(Statement.class, statement, (method, args) -> {
+            if (EXECUTE_METHODS.contains(method.getName()) && args != null && args[0] instanceof String sql) {
+                SqlStatementScope.record(sql);
+            }
+        });
+    }
+    
+    /**
+     * Proxy a connection or plain statement, calling the listener before each
+     * method; plain statements the connection creates are proxied in turn
+     */
+    private static <T> T proxy(Class<T> type, T target, CallListener listener) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            listener.before(method, args);
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            return "createStatement".equals(method.getName()) ? counting((Statement) result) : result;
+        }));
+    }
+    
+    @FunctionalInterface
+    private interface CallListener {
+        
+        void before(Method method, Object[] args);
+    }
+    
+    /**
+     * Declares the JDK proxies this DataSource creates. AOT does not see the
+     * Proxy.newProxyInstance calls, since the DataSource is built inside a
+     * bean method, so without these the native image fails on first use.
+     */
+    public static class Hints implements RuntimeHintsRegistrar {
+        
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            hints.proxies().registerJdkProxy(Connection.class);
+            hints.proxies().registerJdkProxy(Statement.class);
+        }
+    }
+}
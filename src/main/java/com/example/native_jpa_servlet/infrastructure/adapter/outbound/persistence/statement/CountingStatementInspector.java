@@ -0,0 +1,17 @@
+package com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.statement;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate StatementInspector that counts every statement Hibernate
+ * prepares against the {@link SqlStatementScope} bound to the calling thread.
+ * The SQL is passed through unchanged.
+ */
+public class CountingStatementInspector implements StatementInspector {
+    
+    @Override
+    public String inspect(String sql) {
+        SqlStatementScope.record(sql);
+        return sql;
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.statement;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Counts the SQL statements run on behalf of one unit of work, usually an
+ * HTTP request. A scope is bound to the current thread and can be bound to
+ * other threads that work for the same request (see {@link #bind()}), so
+ * counts are kept in atomic counters.
+ * Statements are recorded by {@link CountingStatementInspector}.
+ */
+public final class SqlStatementScope {
+    
+    /**
+     * Statement kinds. Sequence fetches are counted separately and left out of
+     * {@link #statements()}: the pooled id generator fetches a block of ids, so
+     * whether one runs in a given request is incidental.
+     */
+    public enum Kind {
+        SELECT, INSERT, UPDATE, DELETE, SEQUENCE, OTHER
+    }
+    
+    private static final ThreadLocal<SqlStatementScope> CURRENT = new ThreadLocal<>();
+    
+    private final AtomicIntegerArray counts = new AtomicIntegerArray(Kind.values().length);
+    private final Map<String, AtomicInteger> executions = new ConcurrentHashMap<>();
+    
+    /**
+     * The scope bound to the current thread, or null
+     */
+    public static SqlStatementScope current() {
+        return CURRENT.get();
+    }
+    
+    /**
+     * Record a statement against the scope bound to the current thread, if any
+     */
+    static void record(String sql) {
+        SqlStatementScope scope = CURRENT.get();
+        if (scope != null) {
+            scope.add(sql);
+        }
+    }
+    
+    /**
+     * Bind this scope to the current thread until the returned binding is closed,
+     * which restores whatever was bound before
+     */
+    public Binding bind() {
+        SqlStatementScope previous = CURRENT.get();
+        CURRENT.set(this);
+        return () -> {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        };
+    }
+    
+    /**
+     * Statements run in this scope, excluding sequence fetches
+     */
+    public int statements() {
+        int total = 0;
+        for (Kind kind : Kind.values()) {
+            if (kind != Kind.SEQUENCE) {
+                total += counts.get(kind.ordinal());
+            }
+        }
+        return total;
+    }
+    
+    public int count(Kind kind) {
+        return counts.get(kind.ordinal());
+    }
+    
+    /**
+     * Statements with identical SQL run at least {@code threshold} times in this
+     * scope, the usual sign of an N+1 query pattern
+     */
+    public Map<String, Integer> repeatedStatements(int threshold) {
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        executions.forEach((sql, count) -> {
+            if (count.get() >= threshold) {
+                repeated.put(sql, count.get());
+            }
+        });
+        return repeated;
+    }
+    
+    /**
+     * Counts per kind, for log messages
+     */
+    public String summary() {
+        StringBuilder summary = new StringBuilder();
+        for (Kind kind : Kind.values()) {
+            if (summary.length() > 0) {
+                summary.append(", ");
+            }
+            summary.append(kind.name().toLowerCase(Locale.ROOT)).append('=').append(count(kind));
+        }
+        return summary.toString();
+    }
+    
+    private void add(String sql) {
+        Kind kind = classify(sql);
+        counts.incrementAndGet(kind.ordinal());
+        if (kind != Kind.SEQUENCE) {
+            executions.computeIfAbsent(sql, key -> new AtomicInteger()).incrementAndGet();
+        }
+    }
+    
+    static Kind classify(String sql) {
+        String normalized = sql.stripLeading().toLowerCase(Locale.ROOT);
+        if (normalized.contains("next value for") || normalized.contains("nextval(")) {
+            return Kind.SEQUENCE;
+        }
+        if (normalized.startsWith("select") || normalized.startsWith("with")) {
+            return Kind.SELECT;
+        }
+        if (normalized.startsWith("insert")) {
+            return Kind.INSERT;
+        }
+        if (normalized.startsWith("update")) {
+            return Kind.UPDATE;
+        }
+        if (normalized.startsWith("delete")) {
+            return Kind.DELETE;
+        }
+        return Kind.OTHER;
+    }
+    
+    /**
+     * An active binding of a scope to a thread
+     */
+    @FunctionalInterface
+    public interface Binding extends AutoCloseable {
+        
+        @Override
+        void close();
+    }
+}
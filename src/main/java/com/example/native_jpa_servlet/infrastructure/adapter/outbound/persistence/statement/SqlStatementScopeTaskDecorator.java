@@ -0,0 +1,24 @@
+package com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.statement;
+
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Carries the submitting thread's {@link SqlStatementScope} over to the thread
+ * that runs the task, so statements run on executors still count against the
+ * request that caused them.
+ */
+public class SqlStatementScopeTaskDecorator implements TaskDecorator {
+    
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        SqlStatementScope scope = SqlStatementScope.current();
+        if (scope == null) {
+            return runnable;
+        }
+        return () -> {
+            try (SqlStatementScope.Binding ignored = scope.bind()) {
+                runnable.run();
+            }
+        };
+    }
+}
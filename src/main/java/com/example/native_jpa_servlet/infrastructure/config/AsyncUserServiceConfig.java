@@ -0,0 +1,84 @@
+package com.example.native_jpa_servlet.infrastructure.config;
+
+import com.example.native_jpa_servlet.domain.port.inbound.AsyncUserServicePort;
+import com.example.native_jpa_servlet.domain.port.inbound.UserServicePort;
+import com.example.native_jpa_servlet.domain.service.AsyncUserService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Configuration for the asynchronous inbound port.
+ * The bulkhead executor is created here and handed to the service rather
+ * than exposed as a bean: an Executor bean would make Spring Boot back off
+ * from its applicationTaskExecutor, which MVC async and other components use.
+ * With virtual threads enabled the bulkhead runs each operation on its own
+ * virtual thread instead of a platform thread pool, so JDBC calls run on
+ * virtual threads as well.
+ */
+@Configuration
+public class AsyncUserServiceConfig {
+    
+    /**
+     * The AsyncUserServicePort used by the web adapter.
+     * A TaskDecorator bean, when present, is applied to every task so that
+     * request-scoped context can follow the work onto the bulkhead threads.
+     * With virtual threads, pool-size is the concurrency limit and
+     * queue-capacity the number of callers that may wait up to max-wait for it.
+     */
+    @Bean
+    public AsyncUserServicePort asyncUserServicePort(
+            UserServicePort userServicePort,
+            MeterRegistry meterRegistry,
+            ObjectProvider<TaskDecorator> taskDecorator,
+            @Value("${app.user-bulkhead.pool-size:10}") int poolSize,
+            @Value("${app.user-bulkhead.queue-capacity:100}") int queueCapacity,
+            @Value("${app.user-bulkhead.max-wait:2s}") Duration maxWait,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        Counter rejected = Counter.builder("users.bulkhead.rejected")
+                .description("User service operations rejected because the bulkhead queue was full")
+                .register(meterRegistry);
+        
+        if (virtualThreads) {
+            VirtualThreadBulkheadExecutor executor = new VirtualThreadBulkheadExecutor("user-bulkhead-",
+                    poolSize, queueCapacity, maxWait, taskDecorator.getIfUnique(), rejected::increment);
+            // Same names as the pool's executor metrics, so dashboards work in both modes
+            Gauge.builder("executor.active", executor, VirtualThreadBulkheadExecutor::getActiveCount)
+                    .description("Operations running on the bulkhead")
+                    .tag("name", "users.bulkhead")
+                    .register(meterRegistry);
+            Gauge.builder("executor.queued", executor, VirtualThreadBulkheadExecutor::getWaitingCount)
+                    .description("Operations waiting for the bulkhead")
+                    .tag("name", "users.bulkhead")
+                    .register(meterRegistry);
+            return new AsyncUserService(userServicePort, executor);
+        }
+        
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("user-bulkhead-");
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            rejected.increment();
+            throw new RejectedExecutionException("User service bulkhead is full");
+        });
+        taskDecorator.ifUnique(executor::setTaskDecorator);
+        executor.initialize();
+        
+        ExecutorService monitored = ExecutorServiceMetrics.monitor(
+                meterRegistry, executor.getThreadPoolExecutor(), "users.bulkhead");
+        return new AsyncUserService(userServicePort, monitored);
+    }
+}
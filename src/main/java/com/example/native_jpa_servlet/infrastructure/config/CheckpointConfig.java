@@ -0,0 +1,26 @@
+package com.example.native_jpa_servlet.infrastructure.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Configuration for the checkpoint/restore start mode (profile {@code crac}).
+ * The application warms itself up and checkpoints once it is ready; the
+ * container image built from that checkpoint restores the warm process
+ * instead of starting Spring and the JIT from scratch.
+ */
+@Configuration
+@Profile("crac")
+public class CheckpointConfig {
+    
+    @Bean
+    public CheckpointWarmup checkpointWarmup(
+            ObjectMapper objectMapper,
+            @Value("${app.checkpoint.warmup-iterations:2000}") int warmupIterations,
+            @Value("${app.checkpoint.enabled:true}") boolean checkpoint) {
+        return new CheckpointWarmup(objectMapper, warmupIterations, checkpoint);
+    }
+}
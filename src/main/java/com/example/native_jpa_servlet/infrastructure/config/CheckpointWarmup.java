@@ -0,0 +1,142 @@
+package com.example.native_jpa_servlet.infrastructure.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.crac.CheckpointException;
+import org.crac.Core;
+import org.crac.RestoreException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Drives the user API over loopback once the application is ready, then
+ * takes a CRaC checkpoint so that containers restore an already warm JVM.
+ *
+ * Each iteration creates a user, reads it back by id and email (full,
+ * sparse and conditional), reads a page, updates it and deletes it, so the
+ * controller, service, persistence and JSON paths are JIT-compiled before
+ * the snapshot is taken and the data set is unchanged afterwards.
+ *
+ * Open sockets cannot be part of a checkpoint. The warm-up client is closed
+ * before the checkpoint; Spring stops Tomcat, its own task executor and the
+ * HikariCP pool before it and starts them again after the restore. The user
+ * bulkhead's executor is not a bean (see AsyncUserServiceConfig), so it is
+ * not stopped: once the warm-up has finished its threads are idle and hold
+ * no sockets or files, and they are checkpointed as they are. The H2 database
+ * lives in the heap and is restored with it.
+ */
+public class CheckpointWarmup implements ApplicationListener<ApplicationReadyEvent> {
+    
+    private static final Logger log = LoggerFactory.getLogger(CheckpointWarmup.class);
+    
+    private static final String JSON = "application/json";
+    
+    private final ObjectMapper objectMapper;
+    private final int iterations;
+    private final boolean checkpoint;
+    
+    public CheckpointWarmup(ObjectMapper objectMapper, int iterations, boolean checkpoint) {
+        if (iterations < 0) {
+            throw new IllegalArgumentException("Warm-up iterations cannot be negative");
+        }
+        this.objectMapper = objectMapper;
+        this.iterations = iterations;
+        this.checkpoint = checkpoint;
+    }
+    
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        Integer port = event.getApplicationContext().getEnvironment().getProperty("local.server.port", Integer.class);
+        if (port == null) {
+            log.warn("No local server port, skipping warm-up and checkpoint");
+            return;
+        }
+        
+        long started = System.nanoTime();
+        try (HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build()) {
+            warmUp(client, URI.create("http://localhost:" + port + "/api/users"));
+        }
+        log.info("Warm-up of {} iterations completed in {} ms", iterations,
+                Duration.ofNanos(System.nanoTime() - started).toMillis());
+        
+        if (checkpoint) {
+            checkpoint();
+        }
+    }
+    
+    private void warmUp(HttpClient client, URI users) {
+        for (int i = 0; i < iterations; i++) {
+            String email = "warmup-" + i + "@checkpoint.invalid";
+            HttpResponse<String> created = send(client, HttpRequest.newBuilder(users)
+                    .header("Content-Type", JSON)
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "{\"name\":\"Warmup " + i + "\",\"email\":\"" + email + "\"}")), 201);
+            long id = readId(created.body());
+            URI user = users.resolve("users/" + id);
+            
+            HttpResponse<String> read = send(client, HttpRequest.newBuilder(user).GET(), 200);
+            String eTag = read.headers().firstValue("ETag").orElseThrow();
+            send(client, HttpRequest.newBuilder(user).header("If-None-Match", eTag).GET(), 304);
+            send(client, HttpRequest.newBuilder(URI.create(user + "?fields=name,email")).GET(), 200);
+            send(client, HttpRequest.newBuilder(users.resolve("users/email/" + email)).GET(), 200);
+            send(client, HttpRequest.newBuilder(URI.create(users + "?limit=20")).GET(), 200);
+            send(client, HttpRequest.newBuilder(user)
+                    .header("Content-Type", JSON)
+                    .header("If-Match", eTag)
+                    .PUT(HttpRequest.BodyPublishers.ofString(
+                            "{\"name\":\"Warmup " + i + " updated\",\"email\":\"" + email + "\"}")), 200);
+            send(client, HttpRequest.newBuilder(user).DELETE(), 204);
+        }
+    }
+    
+    private HttpResponse<String> send(HttpClient client, HttpRequest.Builder request, int expectedStatus) {
+        HttpResponse<String> response;
+        try {
+            response = client.send(request.timeout(Duration.ofSeconds(10)).build(), HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Warm-up request failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Warm-up interrupted", e);
+        }
+        if (response.statusCode() != expectedStatus) {
+            throw new IllegalStateException("Warm-up request " + response.request().method() + " "
+                    + response.uri() + " returned " + response.statusCode() + ", expected " + expectedStatus);
+        }
+        return response;
+    }
+    
+    private long readId(String body) {
+        try {
+            return objectMapper.readTree(body).get("id").asLong();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unreadable warm-up response", e);
+        }
+    }
+    
+    /**
+     * Take the checkpoint. On a JVM with CRaC the process exits once the image
+     * is written, and a restored process continues from here. On any other JVM
+     * the request fails and the application simply keeps running.
+     */
+    private void checkpoint() {
+        log.info("Taking checkpoint");
+        try {
+            Core.checkpointRestore();
+            log.info("Restored from checkpoint");
+        } catch (UnsupportedOperationException e) {
+            log.warn("Checkpoints are not supported by this JVM, continuing without one");
+        } catch (CheckpointException | RestoreException e) {
+            log.error("Checkpoint failed, continuing without one", e);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.native_jpa_servlet.infrastructure.config;
+
+import com.example.native_jpa_servlet.infrastructure.adapter.inbound.web.json.UserJsonModule;
+import com.fasterxml.jackson.databind.Module;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration for JSON mapping.
+ * Spring Boot registers every Module bean with the ObjectMapper used by
+ * Spring MVC, so the web adapter picks up the user serializers.
+ * The module bean has no dependencies, so the class needs no CGLIB proxy;
+ * without one, Spring AOT registers no reflection for a generated subclass.
+ */
+@Configuration(proxyBeanMethods = false)
+public class JacksonConfig {
+    
+    @Bean
+    public Module userJsonModule() {
+        return new UserJsonModule();
+    }
+}
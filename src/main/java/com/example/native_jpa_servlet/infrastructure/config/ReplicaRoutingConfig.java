@@ -0,0 +1,81 @@
+package com.example.native_jpa_servlet.infrastructure.config;
+
+import com.example.native_jpa_servlet.infrastructure.adapter.inbound.web.filter.ReadYourWritesFilter;
+import com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.routing.PrimaryReadScopeTaskDecorator;
+import com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.routing.ReadWriteRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Configuration for read/write splitting (profile {@code replica}).
+ * Two HikariCP pools, one per database, sit behind a routing data source
+ * that sends read-only transactions to the replica. Spring Boot binds pool
+ * metrics to both, tagged pool="primary" and pool="replica". Replacing the
+ * DataSource is a bean-level change, so a native image must be built with
+ * this profile.
+ */
+@Configuration
+@Profile("replica")
+public class ReplicaRoutingConfig {
+    
+    @Bean
+    @ConfigurationProperties("app.datasource.primary")
+    public HikariDataSource primaryDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+    
+    @Bean
+    @ConfigurationProperties("app.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+    
+    /**
+     * The DataSource used by JPA. The lazy proxy holds back the physical
+     * connection until the first statement, when the transaction's read-only
+     * flag is known and the routing data source can act on it.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            @Qualifier("primaryDataSource") DataSource primaryDataSource,
+            @Qualifier("replicaDataSource") DataSource replicaDataSource,
+            MeterRegistry meterRegistry) {
+        return new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(primaryDataSource, replicaDataSource, meterRegistry));
+    }
+    
+    @Bean
+    public TaskDecorator primaryReadScopeTaskDecorator() {
+        return new PrimaryReadScopeTaskDecorator();
+    }
+    
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(
+            @Value("${app.datasource.read-your-writes-window:5s}") Duration window) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(window));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.native_jpa_servlet.infrastructure.config;
+
+import com.example.native_jpa_servlet.infrastructure.adapter.inbound.web.filter.StatementBudgetFilter;
+import com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.statement.CountingStatementInspector;
+import com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.statement.SqlStatementScopeTaskDecorator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Configuration for per-request SQL statement counting.
+ * Hibernate reports every statement to a StatementInspector, a servlet filter
+ * scopes the counts to the request, and a TaskDecorator carries the scope to
+ * the executors that run work for the request (the user service bulkhead and
+ * Spring MVC's async executor).
+ */
+@Configuration
+@EnableConfigurationProperties(StatementBudgetProperties.class)
+public class StatementBudgetConfig {
+    
+    @Bean
+    public HibernatePropertiesCustomizer statementInspectorCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new CountingStatementInspector());
+    }
+    
+    @Bean
+    public TaskDecorator sqlStatementScopeTaskDecorator() {
+        return new SqlStatementScopeTaskDecorator();
+    }
+    
+    @Bean
+    public FilterRegistrationBean<StatementBudgetFilter> statementBudgetFilter(
+            StatementBudgetProperties properties, MeterRegistry meterRegistry) {
+        FilterRegistrationBean<StatementBudgetFilter> registration =
+                new FilterRegistrationBean<>(new StatementBudgetFilter(properties, meterRegistry));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
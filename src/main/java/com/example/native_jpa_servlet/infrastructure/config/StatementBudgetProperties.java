@@ -0,0 +1,71 @@
+package com.example.native_jpa_servlet.infrastructure.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * SQL statement budgets per endpoint, bound from app.statement-budget.*
+ * Endpoints are named after their handler method, for example
+ * {@code app.statement-budget.endpoints[UserController.updateUser]=2}.
+ */
+@ConfigurationProperties(prefix = "app.statement-budget")
+public class StatementBudgetProperties {
+    
+    /**
+     * Count statements per request and publish them as metrics
+     */
+    private boolean enabled = true;
+    
+    /**
+     * Budget for endpoints without their own entry
+     */
+    private int defaultBudget = 4;
+    
+    /**
+     * Budgets by endpoint (ControllerSimpleName.method)
+     */
+    private Map<String, Integer> endpoints = new HashMap<>();
+    
+    /**
+     * Identical statements run this many times in one request are reported as a possible N+1
+     */
+    private int repeatedStatementThreshold = 5;
+    
+    public int budgetFor(String endpoint) {
+        return endpoints.getOrDefault(endpoint, defaultBudget);
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    public int getDefaultBudget() {
+        return defaultBudget;
+    }
+    
+    public void setDefaultBudget(int defaultBudget) {
+        this.defaultBudget = defaultBudget;
+    }
+    
+    public Map<String, Integer> getEndpoints() {
+        return endpoints;
+    }
+    
+    public void setEndpoints(Map<String, Integer> endpoints) {
+        this.endpoints = endpoints;
+    }
+    
+    public int getRepeatedStatementThreshold() {
+        return repeatedStatementThreshold;
+    }
+    
+    public void setRepeatedStatementThreshold(int repeatedStatementThreshold) {
+        this.repeatedStatementThreshold = repeatedStatementThreshold;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.native_jpa_servlet.infrastructure.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.support.CompositeTaskDecorator;
+
+import java.util.List;
+
+/**
+ * Configuration for carrying request context onto executor threads.
+ * Executors take a single TaskDecorator, and both the bulkhead and Spring
+ * Boot's task executor only use one when it is unique, so every decorator a
+ * feature declares is combined into one primary bean.
+ */
+@Configuration
+public class TaskDecoratorConfig {
+    
+    @Bean
+    @Primary
+    public TaskDecorator taskDecorator(List<TaskDecorator> taskDecorators) {
+        return new CompositeTaskDecorator(taskDecorators);
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.native_jpa_servlet.infrastructure.config;
+
+import com.example.native_jpa_servlet.domain.port.inbound.UserServicePort;
+import com.example.native_jpa_servlet.domain.service.UserService;
+import com.example.native_jpa_servlet.infrastructure.adapter.inbound.web.snapshot.SnapshotInvalidatingUserService;
+import com.example.native_jpa_servlet.infrastructure.adapter.inbound.web.snapshot.UserPageSnapshotCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Configuration for the serialized user page cache.
+ * The UserServicePort seen by the rest of the application is the domain
+ * service wrapped so that every write invalidates the cached pages.
+ */
+@Configuration
+public class UserPageSnapshotConfig {
+    
+    @Bean
+    public UserPageSnapshotCache userPageSnapshotCache(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${app.user-page-snapshot.enabled:true}") boolean enabled,
+            @Value("${app.user-page-snapshot.maximum-size:32MB}") DataSize maximumSize,
+            @Value("${app.user-page-snapshot.expire-after-write:1m}") Duration expireAfterWrite,
+            @Value("${app.user-page-snapshot.gzip:true}") boolean gzip) {
+        return new UserPageSnapshotCache(enabled, maximumSize.toBytes(), expireAfterWrite, gzip,
+                objectMapper, meterRegistry);
+    }
+    
+    /**
+     * The UserServicePort injected into the web adapter, the async service and the data initializer
+     */
+    @Bean
+    @Primary
+    public UserServicePort userServicePort(UserService userService, UserPageSnapshotCache userPageSnapshotCache) {
+        return new SnapshotInvalidatingUserService(userService, userPageSnapshotCache);
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.native_jpa_servlet.infrastructure.config;
+
+import com.example.native_jpa_servlet.domain.port.outbound.UserRepositoryPort;
+import com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.UserRepositoryAdapter;
+import com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.cache.CachingUserRepositoryAdapter;
+import com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.durable.DurableUserRepositoryAdapter;
+import com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.memory.InMemoryUserRepositoryAdapter;
+import com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.metrics.MeteredUserRepositoryAdapter;
+import com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.sharded.ShardedUserRepositoryAdapter;
+import com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.statement.CountingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.task.TaskDecorator;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration for the outbound persistence port.
+ * Assembles the UserRepositoryPort used by the domain from the storage
+ * adapter and the optional decorators enabled for the active profile.
+ */
+@Configuration
+@ImportRuntimeHints(CountingDataSource.Hints.class)
+public class UserRepositoryConfig {
+    
+    /**
+     * The UserRepositoryPort injected into the domain services.
+     * The storage adapter and decorators are chosen from properties at runtime
+     * rather than with conditional beans so the native image honours
+     * per-profile settings. Metrics wrap the cache so timings reflect what the
+     * domain sees.
+     */
+    @Bean
+    @Primary
+    public UserRepositoryPort userRepositoryPort(
+            UserRepositoryAdapter userRepositoryAdapter,
+            ObjectProvider<DurableUserRepositoryAdapter> durableUserRepositoryAdapter,
+            ObjectProvider<ShardedUserRepositoryAdapter> shardedUserRepositoryAdapter,
+            MeterRegistry meterRegistry,
+            @Value("${app.user-repository.storage:jpa}") String storage,
+            @Value("${app.user-cache.enabled:false}") boolean cacheEnabled,
+            @Value("${app.user-cache.maximum-size:10000}") long cacheMaximumSize,
+            @Value("${app.user-cache.expire-after-write:10m}") Duration cacheExpireAfterWrite,
+            @Value("${app.repository-metrics.enabled:true}") boolean metricsEnabled) {
+        UserRepositoryPort port = switch (storage) {
+            case "jpa" -> userRepositoryAdapter;
+            case "memory" -> new InMemoryUserRepositoryAdapter();
+            case "durable" -> durableUserRepositoryAdapter.getObject();
+            case "sharded" -> shardedUserRepositoryAdapter.getObject();
+            default -> throw new IllegalArgumentException("Unknown user repository storage '" + storage
+                    + "', expected 'jpa', 'memory', 'durable' or 'sharded'");
+        };
+        if (cacheEnabled) {
+            port = new CachingUserRepositoryAdapter(port, cacheMaximumSize, cacheExpireAfterWrite, meterRegistry);
+        }
+        if (metricsEnabled) {
+            port = new MeteredUserRepositoryAdapter(port, meterRegistry);
+        }
+        return port;
+    }
+    
+    /**
+     * The durable in-process store, recovered from its directory on first use.
+     * Lazy so that only the durable storage opens the directory; as a bean it
+     * is closed on shutdown, which forces the last writes to disk.
+     */
+    @Bean
+    @Lazy
+    public DurableUserRepositoryAdapter durableUserRepositoryAdapter(
+            MeterRegistry meterRegistry,
+            @Value("${app.user-repository.durable.directory:data/users}") Path directory,
+            @Value("${app.user-repository.durable.fsync:true}") boolean fsync,
+            @Value("${app.user-repository.durable.snapshot-every:100000}") long snapshotEvery) {
+        return new DurableUserRepositoryAdapter(directory, fsync, snapshotEvery, meterRegistry);
+    }
+    
+    /**
+     * The hash-sharded store, over one HikariCP pool per shard URL. The pools
+     * are owned by the adapter rather than published as DataSource beans, so
+     * they do not displace the application's DataSource; their metrics are
+     * tagged pool="shard-N". Lazy so that only the sharded storage connects.
+     * The adapter runs plain JDBC, which Hibernate's statement inspector never
+     * sees, so each pool is wrapped to count statements against the request's
+     * budget and the TaskDecorator carries the count to the gather threads.
+     */
+    @Bean
+    @Lazy
+    public ShardedUserRepositoryAdapter shardedUserRepositoryAdapter(
+            MeterRegistry meterRegistry,
+            ObjectProvider<TaskDecorator> taskDecorator,
+            @Value("${app.user-repository.sharded.urls}") List<String> urls,
+            @Value("${app.user-repository.sharded.username:sa}") String username,
+            @Value("${app.user-repository.sharded.password:}") String password,
+            @Value("${app.user-repository.sharded.pool-size:10}") int poolSize,
+            @Value("${app.user-repository.sharded.gather-threads:8}") int gatherThreads,
+            @Value("${app.user-repository.sharded.claim-timeout:1m}") Duration claimTimeout) {
+        List<DataSource> shards = new ArrayList<>(urls.size());
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("shard-" + i);
+            dataSource.setJdbcUrl(urls.get(i).trim());
+            dataSource.setUsername(username);
+            dataSource.setPassword(password);
+            dataSource.setMaximumPoolSize(poolSize);
+            dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            shards.add(new CountingDataSource(dataSource));
+        }
+        return new ShardedUserRepositoryAdapter(shards, gatherThreads, claimTimeout,
+                taskDecorator.getIfUnique(() -> task -> task));
+    }
+}
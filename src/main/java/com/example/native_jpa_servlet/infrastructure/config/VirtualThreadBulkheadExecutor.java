@@ -0,0 +1,150 @@
+package com.example.native_jpa_servlet.infrastructure.config;
+
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bulkhead executor for virtual-thread mode: each operation runs on its own
+ * virtual thread, and at most a fixed number run at once.
+ * A caller that finds every permit taken parks for up to the maximum wait
+ * (a virtual caller parks without pinning its carrier); when the permits stay
+ * taken, or more callers than the queue capacity are already waiting, the
+ * operation is rejected so the request can fail fast with 503.
+ * SimpleAsyncTaskExecutor's own concurrency limit waits without a bound,
+ * so the limit is a semaphore here and the Spring executor only starts the
+ * virtual threads and applies the task decorator.
+ */
+class VirtualThreadBulkheadExecutor extends AbstractExecutorService {
+    
+    private final SimpleAsyncTaskExecutor threads;
+    private final Semaphore permits;
+    private final int concurrencyLimit;
+    private final int queueCapacity;
+    private final Duration maxWait;
+    private final Runnable onRejected;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private volatile boolean shutdown;
+    
+    /**
+     * @param concurrencyLimit operations allowed to run at once
+     * @param queueCapacity callers allowed to wait for a permit
+     * @param maxWait how long a caller waits for a permit before it is rejected
+     * @param taskDecorator decorator applied to every operation, or null
+     * @param onRejected called before an operation is rejected
+     */
+    VirtualThreadBulkheadExecutor(String threadNamePrefix, int concurrencyLimit, int queueCapacity,
+                                  Duration maxWait, TaskDecorator taskDecorator, Runnable onRejected) {
+        this.threads = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        this.threads.setVirtualThreads(true);
+        if (taskDecorator != null) {
+            this.threads.setTaskDecorator(taskDecorator);
+        }
+        this.permits = new Semaphore(concurrencyLimit);
+        this.concurrencyLimit = concurrencyLimit;
+        this.queueCapacity = queueCapacity;
+        this.maxWait = maxWait;
+        this.onRejected = onRejected;
+    }
+    
+    @Override
+    public void execute(Runnable task) {
+        if (shutdown) {
+            throw reject("User service bulkhead is shut down");
+        }
+        acquirePermit();
+        try {
+            threads.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+    
+    /**
+     * Operations holding a permit
+     */
+    int getActiveCount() {
+        return concurrencyLimit - permits.availablePermits();
+    }
+    
+    /**
+     * Callers waiting for a permit
+     */
+    int getWaitingCount() {
+        return waiting.get();
+    }
+    
+    @Override
+    public void shutdown() {
+        shutdown = true;
+    }
+    
+    /**
+     * Stop accepting operations. Running operations are not interrupted.
+     */
+    @Override
+    public List<Runnable> shutdownNow() {
+        shutdown();
+        return List.of();
+    }
+    
+    @Override
+    public boolean isShutdown() {
+        return shutdown;
+    }
+    
+    @Override
+    public boolean isTerminated() {
+        return shutdown && permits.availablePermits() == concurrencyLimit;
+    }
+    
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        if (!permits.tryAcquire(concurrencyLimit, timeout, unit)) {
+            return false;
+        }
+        permits.release(concurrencyLimit);
+        return true;
+    }
+    
+    private void acquirePermit() {
+        if (permits.tryAcquire()) {
+            return;
+        }
+        if (waiting.incrementAndGet() > queueCapacity) {
+            waiting.decrementAndGet();
+            throw reject("User service bulkhead is full");
+        }
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw reject("Interrupted while waiting for the user service bulkhead");
+        } finally {
+            waiting.decrementAndGet();
+        }
+        if (!acquired) {
+            throw reject("User service bulkhead stayed full for " + maxWait);
+        }
+    }
+    
+    private RejectedExecutionException reject(String reason) {
+        onRejected.run();
+        return new RejectedExecutionException(reason);
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.native_jpa_servlet.domain.service;
+
+import com.example.native_jpa_servlet.domain.model.User;
+import com.example.native_jpa_servlet.domain.port.inbound.UserServicePort;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncUserServiceTest {
+
+    @Mock
+    private UserServicePort userServicePort;
+
+    private AsyncUserService asyncUserService;
+
+    @BeforeEach
+    void setUp() {
+        // One worker and one queue slot, so the third concurrent call is rejected
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1));
+        asyncUserService = new AsyncUserService(userServicePort, executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        asyncUserService.close();
+    }
+
+    @Test
+    void findUserById_ShouldCompleteWithUser_WhenUserExists() throws Exception {
+        // Arrange
+        User user = new User(1L, "John Doe", "john@example.com", LocalDateTime.now(), LocalDateTime.now());
+        when(userServicePort.findUserById(1L)).thenReturn(user);
+
+        // Act
+        User result = asyncUserService.findUserById(1L).get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertSame(user, result);
+    }
+
+    @Test
+    void deleteUser_ShouldFailWithServiceException_WhenUserNotFound() {
+        // Arrange
+        doThrow(new IllegalArgumentException("User with ID '1' not found"))
+                .when(userServicePort).deleteUser(1L);
+
+        // Act
+        CompletableFuture<Void> result = asyncUserService.deleteUser(1L);
+
+        // Assert
+        ExecutionException exception = assertThrows(ExecutionException.class,
+                () -> result.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, exception.getCause());
+    }
+
+    @Test
+    void findUserById_ShouldFailFast_WhenBulkheadIsFull() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        when(userServicePort.findUserById(1L)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        });
+        CompletableFuture<User> running = asyncUserService.findUserById(1L);
+        CompletableFuture<User> queued = asyncUserService.findUserById(1L);
+
+        // Act
+        CompletableFuture<User> rejected = asyncUserService.findUserById(2L);
+
+        // Assert
+        assertTrue(rejected.isCompletedExceptionally());
+        ExecutionException exception = assertThrows(ExecutionException.class, rejected::get);
+        assertInstanceOf(RejectedExecutionException.class, exception.getCause());
+        verify(userServicePort, never()).findUserById(2L);
+
+        release.countDown();
+        running.get(5, TimeUnit.SECONDS);
+        queued.get(5, TimeUnit.SECONDS);
+    }
+}
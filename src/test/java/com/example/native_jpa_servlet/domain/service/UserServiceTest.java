@@ -1,6 +1,13 @@
 package com.example.native_jpa_servlet.domain.service;
 
+import com.example.native_jpa_servlet.domain.exception.DuplicateEmailException;
+import com.example.native_jpa_servlet.domain.exception.VersionConflictException;
 import com.example.native_jpa_servlet.domain.model.User;
+import com.example.native_jpa_servlet.domain.model.UserCreationResult;
+import com.example.native_jpa_servlet.domain.model.UserField;
+import com.example.native_jpa_servlet.domain.model.UserPage;
+import com.example.native_jpa_servlet.domain.model.UserSearchPage;
+import com.example.native_jpa_servlet.domain.model.UserStamp;
 import com.example.native_jpa_servlet.domain.port.outbound.UserRepositoryPort;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,12 +17,18 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,7 +51,6 @@ class UserServiceTest {
         String email = "john@example.com";
         User expectedUser = new User(1L, name, email, LocalDateTime.now(), LocalDateTime.now());
         
-        when(userRepositoryPort.existsByEmail(email)).thenReturn(false);
         when(userRepositoryPort.save(any(User.class))).thenReturn(expectedUser);
 
         // Act
@@ -48,7 +60,7 @@ class UserServiceTest {
         assertNotNull(result);
         assertEquals(name, result.getName());
         assertEquals(email, result.getEmail());
-        verify(userRepositoryPort).existsByEmail(email);
+        verify(userRepositoryPort, never()).existsByEmail(anyString());
         verify(userRepositoryPort).save(any(User.class));
     }
 
@@ -58,17 +70,17 @@ class UserServiceTest {
         String name = "John Doe";
         String email = "john@example.com";
         
-        when(userRepositoryPort.existsByEmail(email)).thenReturn(true);
+        when(userRepositoryPort.save(any(User.class))).thenThrow(new DuplicateEmailException(email));
 
         // Act & Assert
-        IllegalArgumentException exception = assertThrows(
-            IllegalArgumentException.class, 
+        DuplicateEmailException exception = assertThrows(
+            DuplicateEmailException.class, 
             () -> userService.createUser(name, email)
         );
         
         assertEquals("User with email 'john@example.com' already exists", exception.getMessage());
-        verify(userRepositoryPort).existsByEmail(email);
-        verify(userRepositoryPort, never()).save(any(User.class));
+        verify(userRepositoryPort, never()).existsByEmail(anyString());
+        verify(userRepositoryPort).save(any(User.class));
     }
 
     @Test
@@ -93,6 +105,48 @@ class UserServiceTest {
         assertEquals("Invalid email format", exception.getMessage());
     }
 
+    @Test
+    void createUsers_ShouldReportResultPerItem_WhenBatchHasInvalidAndDuplicateItems() {
+        // Arrange
+        List<User> batch = Arrays.asList(
+            new User("John Doe", "john@example.com"),
+            new User("", "empty-name@example.com"),
+            new User("Jane Smith", "taken@example.com"),
+            new User("John Again", "john@example.com")
+        );
+        User savedUser = new User(1L, "John Doe", "john@example.com", LocalDateTime.now(), LocalDateTime.now());
+        
+        when(userRepositoryPort.findExistingEmails(anyCollection())).thenReturn(Set.of("taken@example.com"));
+        when(userRepositoryPort.saveAll(anyList())).thenReturn(List.of(savedUser));
+
+        // Act
+        List<UserCreationResult> results = userService.createUsers(batch);
+
+        // Assert
+        assertEquals(4, results.size());
+        assertEquals(UserCreationResult.Status.CREATED, results.get(0).getStatus());
+        assertEquals(1L, results.get(0).getUser().getId());
+        assertEquals(UserCreationResult.Status.INVALID, results.get(1).getStatus());
+        assertEquals("Name cannot be null or empty", results.get(1).getError());
+        assertEquals(UserCreationResult.Status.DUPLICATE, results.get(2).getStatus());
+        assertEquals(UserCreationResult.Status.DUPLICATE, results.get(3).getStatus());
+        verify(userRepositoryPort).findExistingEmails(anyCollection());
+        verify(userRepositoryPort, never()).existsByEmail(anyString());
+        verify(userRepositoryPort).saveAll(anyList());
+    }
+
+    @Test
+    void createUsers_ShouldThrowException_WhenBatchIsEmpty() {
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class, 
+            () -> userService.createUsers(List.of())
+        );
+        
+        assertEquals("Users cannot be null or empty", exception.getMessage());
+        verify(userRepositoryPort, never()).saveAll(anyList());
+    }
+
     @Test
     void findUserById_ShouldReturnUser_WhenUserExists() {
         // Arrange
@@ -128,6 +182,35 @@ class UserServiceTest {
         verify(userRepositoryPort).findById(userId);
     }
 
+    @Test
+    void findUserStampById_ShouldNotLoadUser_WhenUserExists() {
+        // Arrange
+        LocalDateTime updatedAt = LocalDateTime.now();
+        when(userRepositoryPort.findStampById(1L)).thenReturn(Optional.of(new UserStamp(1L, 3L, updatedAt)));
+
+        // Act
+        UserStamp result = userService.findUserStampById(1L);
+
+        // Assert
+        assertEquals(3L, result.getVersion());
+        assertEquals(updatedAt, result.getUpdatedAt());
+        verify(userRepositoryPort, never()).findById(anyLong());
+    }
+
+    @Test
+    void findUserStampById_ShouldThrowException_WhenUserNotFound() {
+        // Arrange
+        when(userRepositoryPort.findStampById(999L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> userService.findUserStampById(999L)
+        );
+
+        assertEquals("User with ID '999' not found", exception.getMessage());
+    }
+
     @Test
     void getAllUsers_ShouldReturnAllUsers() {
         // Arrange
@@ -149,6 +232,133 @@ class UserServiceTest {
         verify(userRepositoryPort).findAll();
     }
 
+    @Test
+    void getUsersPage_ShouldReturnNextCursor_WhenMoreUsersExist() {
+        // Arrange
+        List<User> users = Arrays.asList(
+            new User(1L, "John Doe", "john@example.com", LocalDateTime.now(), LocalDateTime.now()),
+            new User(2L, "Jane Smith", "jane@example.com", LocalDateTime.now(), LocalDateTime.now()),
+            new User(3L, "Bob Johnson", "bob@example.com", LocalDateTime.now(), LocalDateTime.now())
+        );
+        
+        when(userRepositoryPort.findPage(null, 3)).thenReturn(users);
+
+        // Act
+        UserPage result = userService.getUsersPage(null, 2);
+
+        // Assert
+        assertEquals(2, result.getUsers().size());
+        assertTrue(result.hasNext());
+        assertEquals(2L, result.getNextCursor());
+        verify(userRepositoryPort).findPage(null, 3);
+    }
+
+    @Test
+    void getUsersPage_ShouldCapLimit_WhenLimitExceedsMaximum() {
+        // Arrange
+        List<User> users = List.of(
+            new User(11L, "John Doe", "john@example.com", LocalDateTime.now(), LocalDateTime.now())
+        );
+        
+        when(userRepositoryPort.findPage(10L, UserService.MAX_PAGE_SIZE + 1)).thenReturn(users);
+
+        // Act
+        UserPage result = userService.getUsersPage(10L, 100_000);
+
+        // Assert
+        assertEquals(1, result.getUsers().size());
+        assertFalse(result.hasNext());
+        assertNull(result.getNextCursor());
+        verify(userRepositoryPort).findPage(10L, UserService.MAX_PAGE_SIZE + 1);
+    }
+
+    @Test
+    void getUsersPage_ShouldAlwaysReadId_WhenFieldsAreRestricted() {
+        // Arrange
+        User user = new User(1L, null, "john@example.com", null, null, null);
+        when(userRepositoryPort.findPageFields(null, 11, EnumSet.of(UserField.ID, UserField.EMAIL)))
+                .thenReturn(List.of(user));
+
+        // Act
+        UserPage page = userService.getUsersPage(null, 10, EnumSet.of(UserField.EMAIL));
+
+        // Assert
+        assertEquals(List.of(user), page.getUsers());
+        assertFalse(page.hasNext());
+        verify(userRepositoryPort, never()).findPage(any(), anyInt());
+    }
+
+    @Test
+    void searchUsersByName_ShouldReturnCursorThatResumesAfterLastUser() {
+        // Arrange
+        List<User> users = Arrays.asList(
+            new User(7L, "John Doe", "john@example.com", LocalDateTime.now(), LocalDateTime.now()),
+            new User(3L, "John Smith", "john.smith@example.com", LocalDateTime.now(), LocalDateTime.now()),
+            new User(5L, "Johnny Cash", "johnny@example.com", LocalDateTime.now(), LocalDateTime.now())
+        );
+        when(userRepositoryPort.findPageByNamePrefix("jo", null, null, 3)).thenReturn(users);
+        when(userRepositoryPort.findPageByNamePrefix("jo", "john smith", 3L, 3)).thenReturn(List.of(users.get(2)));
+
+        // Act
+        UserSearchPage first = userService.searchUsersByName("Jo", null, 2);
+        UserSearchPage second = userService.searchUsersByName("Jo", first.getNextCursor(), 2);
+
+        // Assert
+        assertEquals(users.subList(0, 2), first.getUsers());
+        assertTrue(first.hasNext());
+        assertEquals(List.of(users.get(2)), second.getUsers());
+        assertFalse(second.hasNext());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void searchUsersByName_ShouldThrowException_WhenPrefixIsBlank() {
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> userService.searchUsersByName("  ", null, 10)
+        );
+
+        assertEquals("Name prefix cannot be null or empty", exception.getMessage());
+        verifyNoInteractions(userRepositoryPort);
+    }
+
+    @Test
+    void searchUsersByName_ShouldThrowException_WhenCursorIsInvalid() {
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> userService.searchUsersByName("Jo", "not a cursor", 10)
+        );
+
+        assertEquals("Invalid search cursor", exception.getMessage());
+        verifyNoInteractions(userRepositoryPort);
+    }
+
+    @Test
+    void findUserById_ShouldThrowException_WhenFieldsAreEmpty() {
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class,
+            () -> userService.findUserById(1L, EnumSet.noneOf(UserField.class))
+        );
+
+        assertEquals("Fields cannot be null or empty", exception.getMessage());
+        verifyNoInteractions(userRepositoryPort);
+    }
+
+    @Test
+    void getUsersPage_ShouldThrowException_WhenLimitIsNotPositive() {
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class, 
+            () -> userService.getUsersPage(null, 0)
+        );
+        
+        assertEquals("Limit must be greater than zero", exception.getMessage());
+        verify(userRepositoryPort, never()).findPage(any(), anyInt());
+    }
+
     @Test
     void updateUser_ShouldUpdateUser_WhenValidInput() {
         // Arrange
@@ -156,12 +366,9 @@ class UserServiceTest {
         String newName = "John Updated";
         String newEmail = "john.updated@example.com";
         
-        User existingUser = new User(userId, "John Doe", "john@example.com", LocalDateTime.now(), LocalDateTime.now());
-        User updatedUser = new User(userId, newName, newEmail, existingUser.getCreatedAt(), LocalDateTime.now());
+        User updatedUser = new User(userId, newName, newEmail, LocalDateTime.now(), LocalDateTime.now(), 1L);
         
-        when(userRepositoryPort.findById(userId)).thenReturn(Optional.of(existingUser));
-        when(userRepositoryPort.existsByEmail(newEmail)).thenReturn(false);
-        when(userRepositoryPort.save(any(User.class))).thenReturn(updatedUser);
+        when(userRepositoryPort.updateInfo(userId, newName, newEmail, null)).thenReturn(Optional.of(updatedUser));
 
         // Act
         User result = userService.updateUser(userId, newName, newEmail);
@@ -170,24 +377,60 @@ class UserServiceTest {
         assertNotNull(result);
         assertEquals(newName, result.getName());
         assertEquals(newEmail, result.getEmail());
-        verify(userRepositoryPort).findById(userId);
-        verify(userRepositoryPort).existsByEmail(newEmail);
-        verify(userRepositoryPort).save(any(User.class));
+        assertEquals(1L, result.getVersion());
+        verify(userRepositoryPort).updateInfo(userId, newName, newEmail, null);
+        verify(userRepositoryPort, never()).findById(anyLong());
+        verify(userRepositoryPort, never()).existsByEmail(anyString());
+        verify(userRepositoryPort, never()).save(any(User.class));
     }
 
     @Test
-    void deleteUser_ShouldDeleteUser_WhenUserExists() {
+    void updateUser_ShouldThrowVersionConflict_WhenVersionIsStale() {
         // Arrange
         Long userId = 1L;
         
+        when(userRepositoryPort.updateInfo(userId, "John Doe", "john@example.com", 3L)).thenReturn(Optional.empty());
         when(userRepositoryPort.existsById(userId)).thenReturn(true);
 
+        // Act & Assert
+        assertThrows(
+            VersionConflictException.class, 
+            () -> userService.updateUser(userId, "John Doe", "john@example.com", 3L)
+        );
+        
+        verify(userRepositoryPort).existsById(userId);
+    }
+
+    @Test
+    void updateUser_ShouldThrowException_WhenUserNotFound() {
+        // Arrange
+        Long userId = 999L;
+        
+        when(userRepositoryPort.updateInfo(userId, "John Doe", "john@example.com", null)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(
+            IllegalArgumentException.class, 
+            () -> userService.updateUser(userId, "John Doe", "john@example.com")
+        );
+        
+        assertEquals("User with ID '999' not found", exception.getMessage());
+        verify(userRepositoryPort, never()).existsById(anyLong());
+    }
+
+    @Test
+    void deleteUser_ShouldDeleteUser_WhenUserExists() {
+        // Arrange
+        Long userId = 1L;
+        
+        when(userRepositoryPort.deleteByIdReturningCount(userId)).thenReturn(1);
+
         // Act
         userService.deleteUser(userId);
 
         // Assert
-        verify(userRepositoryPort).existsById(userId);
-        verify(userRepositoryPort).deleteById(userId);
+        verify(userRepositoryPort).deleteByIdReturningCount(userId);
+        verify(userRepositoryPort, never()).existsById(anyLong());
     }
 
     @Test
@@ -195,7 +438,7 @@ class UserServiceTest {
         // Arrange
         Long userId = 999L;
         
-        when(userRepositoryPort.existsById(userId)).thenReturn(false);
+        when(userRepositoryPort.deleteByIdReturningCount(userId)).thenReturn(0);
 
         // Act & Assert
         IllegalArgumentException exception = assertThrows(
@@ -204,7 +447,22 @@ class UserServiceTest {
         );
         
         assertEquals("User with ID '999' not found", exception.getMessage());
-        verify(userRepositoryPort).existsById(userId);
-        verify(userRepositoryPort, never()).deleteById(anyLong());
+        verify(userRepositoryPort).deleteByIdReturningCount(userId);
+        verify(userRepositoryPort, never()).existsById(anyLong());
+    }
+
+    @Test
+    void deleteUsers_ShouldReturnDeletedCount() {
+        // Arrange
+        List<Long> ids = List.of(1L, 2L, 999L);
+        
+        when(userRepositoryPort.deleteAllByIdIn(ids)).thenReturn(2);
+
+        // Act
+        int deleted = userService.deleteUsers(ids);
+
+        // Assert
+        assertEquals(2, deleted);
+        verify(userRepositoryPort).deleteAllByIdIn(ids);
     }
 }
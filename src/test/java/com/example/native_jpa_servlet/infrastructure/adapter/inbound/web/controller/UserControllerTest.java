@@ -0,0 +1,448 @@
+package com.example.native_jpa_servlet.infrastructure.adapter.inbound.web.controller;
+
+import com.example.native_jpa_servlet.domain.port.inbound.UserServicePort;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Exercises the HTTP contract of the user endpoints end to end, from the
+ * request through the bulkhead and the JPA adapter to the response.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class UserControllerTest {
+
+    /**
+     * Users on a page large enough to be gzip-encoded
+     */
+    private static final int PAGE_USERS = 30;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void createUser_ShouldReturnBadRequest_WhenEmailAlreadyExists() throws Exception {
+        // Arrange
+        String email = uniqueEmail();
+        createUser("John Doe", email);
+
+        // Act & Assert
+        perform(post("/api/users").contentType(MediaType.APPLICATION_JSON).content(userJson("Jane Doe", email)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void updateUser_ShouldReturnBadRequest_WhenEmailBelongsToAnotherUser() throws Exception {
+        // Arrange
+        String taken = uniqueEmail();
+        createUser("John Doe", taken);
+        long id = createUser("Jane Doe", uniqueEmail());
+
+        // Act & Assert
+        perform(put("/api/users/" + id).contentType(MediaType.APPLICATION_JSON).content(userJson("Jane Doe", taken)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void updateUser_ShouldReturnNotFound_WhenUserDoesNotExist() throws Exception {
+        // Act & Assert
+        perform(put("/api/users/" + Long.MAX_VALUE).contentType(MediaType.APPLICATION_JSON)
+                .content(userJson("Jane Doe", uniqueEmail())))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getUserById_ShouldReturnETagAndLastModified() throws Exception {
+        // Arrange
+        long id = createUser("John Doe", uniqueEmail());
+
+        // Act & Assert
+        perform(get("/api/users/" + id))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, UserController.userTag(id, 0L)))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED));
+    }
+
+    @Test
+    void getUserById_ShouldReturnNotModified_WhenIfNoneMatchHasCurrentTag() throws Exception {
+        // Arrange
+        long id = createUser("John Doe", uniqueEmail());
+        String tag = UserController.userTag(id, 0L);
+
+        // Act & Assert
+        perform(get("/api/users/" + id).header(HttpHeaders.IF_NONE_MATCH, tag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, tag))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void getUserById_ShouldReturnNotModified_WhenIfNoneMatchHasWeakFormOfCurrentTag() throws Exception {
+        // Arrange
+        long id = createUser("John Doe", uniqueEmail());
+
+        // Act & Assert
+        perform(get("/api/users/" + id).header(HttpHeaders.IF_NONE_MATCH, "W/" + UserController.userTag(id, 0L)))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void getUserById_ShouldReturnCurrentUser_WhenIfNoneMatchHasStaleTag() throws Exception {
+        // Arrange
+        String email = uniqueEmail();
+        long id = createUser("John Doe", email);
+        perform(put("/api/users/" + id).contentType(MediaType.APPLICATION_JSON).content(userJson("Jane Doe", email)))
+                .andExpect(status().isOk());
+
+        // Act & Assert
+        perform(get("/api/users/" + id).header(HttpHeaders.IF_NONE_MATCH, UserController.userTag(id, 0L)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, UserController.userTag(id, 1L)))
+                .andExpect(jsonPath("$.name").value("Jane Doe"));
+    }
+
+    @Test
+    void getUserById_ShouldReturnNotModified_WhenNotModifiedSinceLastModified() throws Exception {
+        // Arrange
+        long id = createUser("John Doe", uniqueEmail());
+        String lastModified = perform(get("/api/users/" + id)).andReturn()
+                .getResponse().getHeader(HttpHeaders.LAST_MODIFIED);
+
+        // Act & Assert
+        perform(get("/api/users/" + id).header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void getUserById_ShouldReturnUser_WhenModifiedSinceIfModifiedSince() throws Exception {
+        // Arrange
+        long id = createUser("John Doe", uniqueEmail());
+
+        // Act & Assert
+        perform(get("/api/users/" + id).header(HttpHeaders.IF_MODIFIED_SINCE, "Thu, 01 Jan 1970 00:00:00 GMT"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(id));
+    }
+
+    @Test
+    void getUserById_ShouldWriteOnlyRequestedFields_WhenFieldsAreGiven() throws Exception {
+        // Arrange
+        String email = uniqueEmail();
+        long id = createUser("John Doe", email);
+
+        // Act & Assert
+        perform(get("/api/users/" + id).param("fields", "id,email"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(id))
+                .andExpect(jsonPath("$.email").value(email))
+                .andExpect(jsonPath("$.name").doesNotExist())
+                .andExpect(jsonPath("$.createdAt").doesNotExist())
+                .andExpect(jsonPath("$.version").doesNotExist())
+                .andExpect(header().string(HttpHeaders.ETAG, UserController.userTag(id, 0L)));
+    }
+
+    @Test
+    void getUserByEmail_ShouldWriteOnlyRequestedFields_WhenFieldsAreGiven() throws Exception {
+        // Arrange
+        String email = uniqueEmail();
+        long id = createUser("John Doe", email);
+
+        // Act & Assert
+        perform(get("/api/users/email/" + email).param("fields", "id"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(id))
+                .andExpect(jsonPath("$.email").doesNotExist())
+                .andExpect(jsonPath("$.name").doesNotExist());
+    }
+
+    @Test
+    void getAllUsers_ShouldWriteOnlyRequestedFields_WhenFieldsAreGiven() throws Exception {
+        // Arrange
+        String email = uniqueEmail();
+        long id = createUser("John Doe", email);
+
+        // Act & Assert
+        perform(get("/api/users").param("after", String.valueOf(id - 1)).param("limit", "1")
+                .param("fields", "id,email"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(id))
+                .andExpect(jsonPath("$[0].email").value(email))
+                .andExpect(jsonPath("$[0].name").doesNotExist());
+    }
+
+    @Test
+    void getUser_ShouldReturnBadRequest_WhenFieldsNameUnknownField() throws Exception {
+        // Arrange
+        String email = uniqueEmail();
+        long id = createUser("John Doe", email);
+
+        // Act & Assert
+        perform(get("/api/users/" + id).param("fields", "bogus")).andExpect(status().isBadRequest());
+        perform(get("/api/users/email/" + email).param("fields", "id,bogus")).andExpect(status().isBadRequest());
+        perform(get("/api/users").param("fields", "bogus")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getUserById_ShouldReturnBadRequest_WhenFieldsIsEmpty() throws Exception {
+        // Arrange
+        long id = createUser("John Doe", uniqueEmail());
+
+        // Act & Assert
+        perform(get("/api/users/" + id).param("fields", "")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getAllUsers_ShouldReturnNotModified_WhenIfNoneMatchHasPageTag() throws Exception {
+        // Arrange
+        createUser("John Doe", uniqueEmail());
+        String tag = perform(get("/api/users")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Act & Assert
+        assertTrue(tag.startsWith("W/"));
+        perform(get("/api/users").header(HttpHeaders.IF_NONE_MATCH, tag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, tag));
+    }
+
+    @Test
+    void getAllUsers_ShouldReturnGzipBody_WhenClientAcceptsGzip() throws Exception {
+        // Arrange: enough users for a body above the compression threshold
+        long first = createUsers(PAGE_USERS);
+
+        // Act
+        MockHttpServletResponse response = perform(get("/api/users")
+                .param("after", String.valueOf(first - 1)).param("limit", String.valueOf(PAGE_USERS))
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse();
+
+        // Assert
+        assertVariesByEncoding(response);
+        byte[] body;
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            body = gzip.readAllBytes();
+        }
+        assertEquals(PAGE_USERS, objectMapper.readTree(body).size());
+        assertEquals(first, objectMapper.readTree(body).get(0).get("id").asLong());
+    }
+
+    @Test
+    void getAllUsers_ShouldReturnIdentityBody_WhenClientDoesNotAcceptGzip() throws Exception {
+        // Arrange
+        long first = createUsers(PAGE_USERS);
+
+        // Act
+        MockHttpServletResponse response = perform(get("/api/users")
+                .param("after", String.valueOf(first - 1)).param("limit", String.valueOf(PAGE_USERS))
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, identity"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andReturn().getResponse();
+
+        // Assert
+        assertVariesByEncoding(response);
+        assertEquals(PAGE_USERS, objectMapper.readTree(response.getContentAsByteArray()).size());
+    }
+
+    @Test
+    void getAllUsers_ShouldServeFreshPage_AfterUserIsUpdated() throws Exception {
+        // Arrange: the page is cached by the first read
+        String email = uniqueEmail();
+        long id = createUser("John Doe", email);
+        MockHttpServletRequestBuilder page = get("/api/users")
+                .param("after", String.valueOf(id - 1)).param("limit", "1");
+        String staleTag = perform(page)
+                .andExpect(jsonPath("$[0].name").value("John Doe"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Act
+        perform(put("/api/users/" + id).contentType(MediaType.APPLICATION_JSON).content(userJson("Jane Doe", email)))
+                .andExpect(status().isOk());
+
+        // Assert
+        MockHttpServletResponse response = perform(page)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Jane Doe"))
+                .andReturn().getResponse();
+        assertNotEquals(staleTag, response.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void updateUser_ShouldApplyAndReturnNewTag_WhenIfMatchHasCurrentTag() throws Exception {
+        // Arrange
+        String email = uniqueEmail();
+        long id = createUser("John Doe", email);
+
+        // Act & Assert
+        perform(put("/api/users/" + id).header(HttpHeaders.IF_MATCH, UserController.userTag(id, 0L))
+                .contentType(MediaType.APPLICATION_JSON).content(userJson("Jane Doe", email)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, UserController.userTag(id, 1L)))
+                .andExpect(jsonPath("$.name").value("Jane Doe"));
+    }
+
+    @Test
+    void updateUser_ShouldReturnPreconditionFailed_WhenIfMatchHasStaleTag() throws Exception {
+        // Arrange
+        String email = uniqueEmail();
+        long id = createUser("John Doe", email);
+        perform(put("/api/users/" + id).contentType(MediaType.APPLICATION_JSON).content(userJson("Jane Doe", email)))
+                .andExpect(status().isOk());
+
+        // Act & Assert
+        perform(put("/api/users/" + id).header(HttpHeaders.IF_MATCH, UserController.userTag(id, 0L))
+                .contentType(MediaType.APPLICATION_JSON).content(userJson("Jim Doe", email)))
+                .andExpect(status().isPreconditionFailed());
+        perform(get("/api/users/" + id)).andExpect(jsonPath("$.name").value("Jane Doe"));
+    }
+
+    @Test
+    void updateUser_ShouldReturnPreconditionFailed_WhenIfMatchTagsAnotherUser() throws Exception {
+        // Arrange
+        String email = uniqueEmail();
+        long id = createUser("John Doe", email);
+        long other = createUser("Jane Doe", uniqueEmail());
+
+        // Act & Assert
+        perform(put("/api/users/" + id).header(HttpHeaders.IF_MATCH, UserController.userTag(other, 0L))
+                .contentType(MediaType.APPLICATION_JSON).content(userJson("Jim Doe", email)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void updateUser_ShouldReturnBadRequest_WhenIfMatchIsMalformed() throws Exception {
+        // Arrange
+        String email = uniqueEmail();
+        long id = createUser("John Doe", email);
+
+        // Act & Assert
+        perform(put("/api/users/" + id).header(HttpHeaders.IF_MATCH, "W/" + UserController.userTag(id, 0L))
+                .contentType(MediaType.APPLICATION_JSON).content(userJson("Jane Doe", email)))
+                .andExpect(status().isBadRequest());
+        perform(put("/api/users/" + id).header(HttpHeaders.IF_MATCH, "\"not-a-version\"")
+                .contentType(MediaType.APPLICATION_JSON).content(userJson("Jane Doe", email)))
+                .andExpect(status().isBadRequest());
+        perform(put("/api/users/" + id).header(HttpHeaders.IF_MATCH, "\"0\"")
+                .contentType(MediaType.APPLICATION_JSON).content(userJson("Jane Doe", email)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void exportUsers_ShouldStreamOneJsonLinePerUser_InIdOrder() throws Exception {
+        // Arrange
+        long first = createUser("John Doe", uniqueEmail());
+        long second = createUser("Jane Doe", uniqueEmail());
+
+        // Act
+        MvcResult result = perform(get("/api/users/export"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn();
+
+        // Assert
+        String body = result.getResponse().getContentAsString();
+        assertTrue(body.endsWith("\n"));
+        List<Long> ids = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            ids.add(objectMapper.readTree(line).get("id").asLong());
+        }
+        assertTrue(ids.indexOf(first) >= 0);
+        assertTrue(ids.indexOf(first) < ids.indexOf(second));
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue(ids.get(i - 1) < ids.get(i));
+        }
+    }
+
+    @Test
+    void exportUsers_ShouldWriteEmptyBody_WhenThereAreNoUsers() throws Exception {
+        // Arrange: a service with no users to visit
+        UserController controller = new UserController(mock(UserServicePort.class), null, null, objectMapper);
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = controller.exportUsers();
+        response.getBody().writeTo(body);
+
+        // Assert
+        assertEquals(MediaType.parseMediaType("application/x-ndjson"), response.getHeaders().getContentType());
+        assertEquals(0, body.size());
+    }
+
+    /**
+     * Create users one after another through the API
+     * @return the ID of the first, the lowest of them
+     */
+    private long createUsers(int count) throws Exception {
+        long first = createUser("User 0", uniqueEmail());
+        for (int i = 1; i < count; i++) {
+            createUser("User " + i, uniqueEmail());
+        }
+        return first;
+    }
+
+    private static void assertVariesByEncoding(MockHttpServletResponse response) {
+        List<String> vary = response.getHeaders(HttpHeaders.VARY);
+        assertTrue(vary.stream().anyMatch(value -> value.contains(HttpHeaders.ACCEPT_ENCODING)), () -> "Vary: " + vary);
+    }
+
+    /**
+     * Create a user through the API
+     * @return its ID
+     */
+    private long createUser(String name, String email) throws Exception {
+        MvcResult result = perform(post("/api/users").contentType(MediaType.APPLICATION_JSON)
+                .content(userJson(name, email)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+    }
+
+    /**
+     * Perform a request against an endpoint that completes asynchronously,
+     * and dispatch its result
+     */
+    private ResultActions perform(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+
+    private static String userJson(String name, String email) {
+        return "{\"name\":\"" + name + "\",\"email\":\"" + email + "\"}";
+    }
+
+    private static String uniqueEmail() {
+        return UUID.randomUUID() + "@example.com";
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.native_jpa_servlet.infrastructure.adapter.inbound.web.filter;
+
+import com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.routing.PrimaryReadScope;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadYourWritesFilterTest {
+
+    private final ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofSeconds(5));
+
+    @Test
+    void doFilter_ShouldPinTheWriteAndSetTheCookie() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/users");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicBoolean pinned = new AtomicBoolean();
+
+        // Act
+        long before = System.currentTimeMillis();
+        filter.doFilter(request, response, recordPin(pinned));
+
+        // Assert
+        assertTrue(pinned.get());
+        Cookie cookie = response.getCookie(ReadYourWritesFilter.COOKIE_NAME);
+        assertNotNull(cookie);
+        assertTrue(Long.parseLong(cookie.getValue()) >= before + 5_000);
+        assertEquals(5, cookie.getMaxAge());
+        assertFalse(PrimaryReadScope.isBound());
+    }
+
+    @Test
+    void doFilter_ShouldPinAReadInsideTheWindow() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/1");
+        request.setCookies(new Cookie(ReadYourWritesFilter.COOKIE_NAME,
+                Long.toString(System.currentTimeMillis() + 2_000)));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicBoolean pinned = new AtomicBoolean();
+
+        // Act
+        filter.doFilter(request, response, recordPin(pinned));
+
+        // Assert
+        assertTrue(pinned.get());
+        assertNull(response.getCookie(ReadYourWritesFilter.COOKIE_NAME));
+    }
+
+    @Test
+    void doFilter_ShouldNotPinARead_WhenTheCookieIsExpiredOrTooFarAhead() throws Exception {
+        // Arrange
+        long now = System.currentTimeMillis();
+        AtomicBoolean pinned = new AtomicBoolean();
+
+        for (long until : new long[] {now - 1, now + 60_000}) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/1");
+            request.setCookies(new Cookie(ReadYourWritesFilter.COOKIE_NAME, Long.toString(until)));
+
+            // Act
+            filter.doFilter(request, new MockHttpServletResponse(), recordPin(pinned));
+
+            // Assert
+            assertFalse(pinned.get());
+        }
+    }
+
+    private static FilterChain recordPin(AtomicBoolean pinned) {
+        return (request, response) -> pinned.set(PrimaryReadScope.isBound());
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.native_jpa_servlet.infrastructure.adapter.inbound.web.json;
+
+import com.example.native_jpa_servlet.domain.model.User;
+import com.example.native_jpa_servlet.domain.model.UserField;
+import com.example.native_jpa_servlet.infrastructure.adapter.inbound.web.dto.CreateUserRequest;
+import com.example.native_jpa_servlet.infrastructure.adapter.inbound.web.dto.UserResponse;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserJsonModuleTest {
+
+    private final ObjectMapper beanMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private final ObjectMapper moduleMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .registerModule(new UserJsonModule());
+
+    @Test
+    void serialize_ShouldMatchBeanSerializer() throws Exception {
+        // Arrange
+        User user = new User(7L, "Jöhn \"Doe\"", "john@example.com",
+                LocalDateTime.of(2024, 1, 2, 3, 4, 5, 678_000_000), LocalDateTime.of(987, 12, 31, 23, 59, 59), 3L);
+        UserResponse response = new UserResponse(user);
+
+        // Act
+        String json = moduleMapper.writeValueAsString(response);
+
+        // Assert
+        assertEquals(beanMapper.writeValueAsString(response), json);
+        assertTrue(json.contains("\"createdAt\":\"2024-01-02 03:04:05\""));
+    }
+
+    @Test
+    void serialize_ShouldWriteNulls_LikeBeanSerializer() throws Exception {
+        // Arrange
+        UserResponse response = new UserResponse(new User("John Doe", null));
+
+        // Act & Assert
+        assertEquals(beanMapper.writeValueAsString(response), moduleMapper.writeValueAsString(response));
+    }
+
+    @Test
+    void serialize_ShouldWriteOnlySelectedFields_WhenFieldsetIsSparse() throws Exception {
+        // Arrange
+        User user = new User(7L, null, "john@example.com", null, null, 3L);
+        UserResponse response = new UserResponse(user, EnumSet.of(UserField.EMAIL, UserField.ID));
+
+        // Act
+        String json = moduleMapper.writeValueAsString(response);
+
+        // Assert
+        assertEquals("{\"id\":7,\"email\":\"john@example.com\"}", json);
+    }
+
+    @Test
+    void deserialize_ShouldReadFields_AndSkipUnknownProperties() throws Exception {
+        // Act
+        CreateUserRequest request = moduleMapper.readValue(
+                "{\"extra\":{\"nested\":[1,2]},\"email\":\"john@example.com\",\"name\":\"John Doe\",\"id\":5}",
+                CreateUserRequest.class);
+
+        // Assert
+        assertEquals("John Doe", request.getName());
+        assertEquals("john@example.com", request.getEmail());
+    }
+
+    @Test
+    void deserialize_ShouldReject_WhenFieldIsNotAString() {
+        // Act & Assert
+        assertThrows(MismatchedInputException.class, () -> moduleMapper.readValue(
+                "{\"name\":{\"first\":\"John\"},\"email\":\"john@example.com\"}", CreateUserRequest.class));
+    }
+}
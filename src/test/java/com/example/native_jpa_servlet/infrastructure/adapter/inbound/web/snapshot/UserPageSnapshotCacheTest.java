@@ -0,0 +1,122 @@
+package com.example.native_jpa_servlet.infrastructure.adapter.inbound.web.snapshot;
+
+import com.example.native_jpa_servlet.domain.model.User;
+import com.example.native_jpa_servlet.domain.model.UserField;
+import com.example.native_jpa_servlet.domain.model.UserPage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserPageSnapshotCacheTest {
+
+    private static final String TAG = "W/\"1-0\"";
+
+    private static final Duration EXPIRE_AFTER_WRITE = Duration.ofMinutes(1);
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private UserPageSnapshotCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new UserPageSnapshotCache(true, 1024 * 1024, EXPIRE_AFTER_WRITE, true,
+                new ObjectMapper().findAndRegisterModules(), new SimpleMeterRegistry(), nanos::get);
+    }
+
+    @Test
+    void get_ShouldLoadOnce_UntilInvalidated() {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+        UserPage page = new UserPage(List.of(user(1L)), null);
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            cache.get(null, 10, UserField.ALL, () -> {
+                loads.incrementAndGet();
+                return CompletableFuture.completedFuture(cache.snapshot(page, UserField.ALL, TAG));
+            }).join();
+        }
+        cache.invalidate();
+        boolean cachedAfterWrite = cache.contains(null, 10, UserField.ALL);
+        cache.get(null, 10, UserField.ALL, () -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture(cache.snapshot(page, UserField.ALL, TAG));
+        }).join();
+
+        // Assert
+        assertFalse(cachedAfterWrite);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_ShouldReload_WhenSnapshotHasExpired() {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+        UserPage page = new UserPage(List.of(user(1L)), null);
+        cache.get(null, 10, UserField.ALL, () -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture(cache.snapshot(page, UserField.ALL, TAG));
+        }).join();
+
+        // Act
+        nanos.addAndGet(EXPIRE_AFTER_WRITE.toNanos());
+        boolean cachedAfterExpiry = cache.contains(null, 10, UserField.ALL);
+        cache.get(null, 10, UserField.ALL, () -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture(cache.snapshot(page, UserField.ALL, TAG));
+        }).join();
+
+        // Assert
+        assertFalse(cachedAfterExpiry);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void snapshot_ShouldCompress_WhenBodyIsLargeEnough() throws IOException {
+        // Arrange
+        List<User> users = new ArrayList<>();
+        for (long id = 1; id <= 100; id++) {
+            users.add(user(id));
+        }
+
+        // Act
+        UserPageSnapshot snapshot = cache.snapshot(new UserPage(users, 100L), UserField.ALL, TAG);
+
+        // Assert
+        assertTrue(snapshot.getBody().length >= UserPageSnapshotCache.GZIP_MIN_SIZE);
+        assertNotNull(snapshot.getGzipBody());
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(snapshot.getGzipBody()))) {
+            assertArrayEquals(snapshot.getBody(), gzip.readAllBytes());
+        }
+        assertEquals(100L, snapshot.getNextCursor());
+    }
+
+    @Test
+    void snapshot_ShouldNotCompress_WhenBodyIsSmall() {
+        // Act
+        UserPageSnapshot snapshot = cache.snapshot(new UserPage(List.of(user(1L)), null), UserField.ALL, TAG);
+
+        // Assert
+        assertNull(snapshot.getGzipBody());
+        assertEquals(TAG, snapshot.getETag());
+    }
+
+    private static User user(long id) {
+        LocalDateTime now = LocalDateTime.now();
+        return new User(id, "User " + id, "user" + id + "@example.com", now, now, 0L);
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence;
+
+import com.example.native_jpa_servlet.domain.port.outbound.UserRepositoryPort;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Runs the storage contract against the JPA adapter and the H2 database.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class UserRepositoryAdapterContractTest extends UserRepositoryPortContractTest {
+
+    @Autowired
+    private UserRepositoryAdapter userRepositoryAdapter;
+
+    @Override
+    protected UserRepositoryPort repository() {
+        return userRepositoryAdapter;
+    }
+}
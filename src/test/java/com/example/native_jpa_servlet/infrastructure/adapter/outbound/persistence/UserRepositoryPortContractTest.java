@@ -0,0 +1,365 @@
+package com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence;
+
+import com.example.native_jpa_servlet.domain.exception.DuplicateEmailException;
+import com.example.native_jpa_servlet.domain.model.User;
+import com.example.native_jpa_servlet.domain.model.UserCollectionStamp;
+import com.example.native_jpa_servlet.domain.model.UserField;
+import com.example.native_jpa_servlet.domain.model.UserStamp;
+import com.example.native_jpa_servlet.domain.port.outbound.UserRepositoryPort;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Behaviour every UserRepositoryPort storage adapter must share, run against
+ * each implementation by a subclass. Tests use unique emails and only look at
+ * the users they create, so they also hold on a store shared with other tests.
+ */
+public abstract class UserRepositoryPortContractTest {
+
+    /**
+     * Enough users for several pages of the JPA stream (500 rows) and of the
+     * sharded visit (1000 rows per shard)
+     */
+    private static final int MANY_USERS = 4_000;
+
+    protected abstract UserRepositoryPort repository();
+
+    @Test
+    void save_ShouldGenerateIdAndStartAtVersionZero() {
+        // Act
+        User saved = repository().save(new User("John Doe", uniqueEmail()));
+
+        // Assert
+        assertNotNull(saved.getId());
+        assertEquals(0L, saved.getVersion());
+        assertNotNull(saved.getCreatedAt());
+        assertEquals(saved, repository().findById(saved.getId()).orElseThrow());
+    }
+
+    @Test
+    void save_ShouldThrowDuplicateEmail_WhenEmailIsTaken() {
+        // Arrange
+        String email = uniqueEmail();
+        repository().save(new User("John Doe", email));
+
+        // Act & Assert
+        DuplicateEmailException exception = assertThrows(DuplicateEmailException.class,
+                () -> repository().save(new User("Jane Doe", email)));
+        assertEquals(email, exception.getEmail());
+    }
+
+    @Test
+    void saveAll_ShouldReturnUsersInInputOrderWithAscendingIds() {
+        // Arrange
+        List<User> users = List.of(
+                new User("User One", uniqueEmail()),
+                new User("User Two", uniqueEmail()),
+                new User("User Three", uniqueEmail()));
+
+        // Act
+        List<User> saved = repository().saveAll(users);
+
+        // Assert
+        assertEquals(3, saved.size());
+        for (int i = 0; i < users.size(); i++) {
+            assertEquals(users.get(i).getEmail(), saved.get(i).getEmail());
+        }
+        assertTrue(saved.get(0).getId() < saved.get(1).getId());
+        assertTrue(saved.get(1).getId() < saved.get(2).getId());
+    }
+
+    @Test
+    void saveAll_ShouldSaveNothing_WhenOneEmailIsTaken() {
+        // Arrange
+        String taken = uniqueEmail();
+        repository().save(new User("John Doe", taken));
+        String fresh = uniqueEmail();
+
+        // Act & Assert
+        assertThrows(DuplicateEmailException.class, () -> repository().saveAll(List.of(
+                new User("Fresh User", fresh),
+                new User("Taken User", taken))));
+        assertFalse(repository().existsByEmail(fresh));
+    }
+
+    @Test
+    void updateInfo_ShouldBumpVersion_WhenExpectedVersionMatches() {
+        // Arrange
+        User saved = repository().save(new User("John Doe", uniqueEmail()));
+
+        // Act
+        Optional<User> updated = repository().updateInfo(saved.getId(), "John Smith", saved.getEmail(), 0L);
+
+        // Assert
+        assertTrue(updated.isPresent());
+        assertEquals("John Smith", updated.get().getName());
+        assertEquals(1L, updated.get().getVersion());
+        assertEquals(1L, repository().findStampById(saved.getId()).orElseThrow().getVersion());
+    }
+
+    @Test
+    void updateInfo_ShouldReturnEmpty_WhenVersionIsStaleOrUserIsMissing() {
+        // Arrange
+        User saved = repository().save(new User("John Doe", uniqueEmail()));
+        repository().updateInfo(saved.getId(), "John Smith", saved.getEmail(), 0L);
+
+        // Act & Assert
+        assertTrue(repository().updateInfo(saved.getId(), "Lost Update", saved.getEmail(), 0L).isEmpty());
+        assertTrue(repository().updateInfo(Long.MAX_VALUE, "Nobody", uniqueEmail(), null).isEmpty());
+        assertEquals("John Smith", repository().findById(saved.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void updateInfo_ShouldMoveEmailIndex_WhenEmailChanges() {
+        // Arrange
+        User saved = repository().save(new User("John Doe", uniqueEmail()));
+        String newEmail = uniqueEmail();
+
+        // Act
+        repository().updateInfo(saved.getId(), "John Doe", newEmail, null);
+
+        // Assert
+        assertTrue(repository().findByEmail(saved.getEmail()).isEmpty());
+        assertEquals(saved.getId(), repository().findByEmail(newEmail).orElseThrow().getId());
+        // The old email is free again
+        assertNotNull(repository().save(new User("Jane Doe", saved.getEmail())).getId());
+    }
+
+    @Test
+    void updateInfo_ShouldThrowDuplicateEmail_WhenEmailBelongsToAnotherUser() {
+        // Arrange
+        User john = repository().save(new User("John Doe", uniqueEmail()));
+        User jane = repository().save(new User("Jane Doe", uniqueEmail()));
+
+        // Act & Assert
+        assertThrows(DuplicateEmailException.class,
+                () -> repository().updateInfo(jane.getId(), "Jane Doe", john.getEmail(), null));
+        assertEquals(jane.getEmail(), repository().findById(jane.getId()).orElseThrow().getEmail());
+    }
+
+    @Test
+    void findFieldsById_ShouldSetOnlySelectedFields() {
+        // Arrange
+        User saved = repository().save(new User("John Doe", uniqueEmail()));
+
+        // Act
+        User found = repository().findFieldsById(saved.getId(), EnumSet.of(UserField.ID, UserField.EMAIL)).orElseThrow();
+
+        // Assert
+        assertEquals(saved.getId(), found.getId());
+        assertEquals(saved.getEmail(), found.getEmail());
+        assertNull(found.getName());
+        assertNull(found.getVersion());
+    }
+
+    @Test
+    void findFieldsByEmail_ShouldReturnEmpty_WhenEmailIsUnknown() {
+        assertTrue(repository().findFieldsByEmail(uniqueEmail(), UserField.ALL).isEmpty());
+    }
+
+    @Test
+    void findStampByEmail_ShouldMatchStoredUser() {
+        // Arrange
+        User saved = repository().save(new User("John Doe", uniqueEmail()));
+
+        // Act
+        UserStamp stamp = repository().findStampByEmail(saved.getEmail()).orElseThrow();
+
+        // Assert
+        assertEquals(saved.getId(), stamp.getId());
+        assertEquals(saved.getVersion(), stamp.getVersion());
+    }
+
+    @Test
+    void findCollectionStamp_ShouldChange_WhenUsersAreAddedAndDeleted() {
+        // Arrange
+        UserCollectionStamp before = repository().findCollectionStamp();
+
+        // Act
+        User saved = repository().save(new User("John Doe", uniqueEmail()));
+        UserCollectionStamp afterSave = repository().findCollectionStamp();
+        repository().deleteByIdReturningCount(saved.getId());
+        UserCollectionStamp afterDelete = repository().findCollectionStamp();
+
+        // Assert
+        assertEquals(before.getCount() + 1, afterSave.getCount());
+        assertNotNull(afterSave.getLastUpdatedAt());
+        assertEquals(before.getCount(), afterDelete.getCount());
+    }
+
+    @Test
+    void findPage_ShouldReturnUsersAfterCursorInIdOrder() {
+        // Arrange
+        List<User> saved = repository().saveAll(List.of(
+                new User("User One", uniqueEmail()),
+                new User("User Two", uniqueEmail()),
+                new User("User Three", uniqueEmail())));
+
+        // Act
+        List<User> page = repository().findPage(saved.get(0).getId(), 2);
+        List<User> sparsePage = repository().findPageFields(saved.get(0).getId(), 2, EnumSet.of(UserField.ID));
+
+        // Assert
+        assertEquals(List.of(saved.get(1).getId(), saved.get(2).getId()), ids(page));
+        assertEquals(ids(page), ids(sparsePage));
+        assertNull(sparsePage.get(0).getEmail());
+    }
+
+    @Test
+    void findPageByNamePrefix_ShouldMatchIgnoringCaseInNameThenIdOrder() {
+        // Arrange
+        String prefix = uniqueNamePrefix();
+        User bob = repository().save(new User(prefix + "bob", uniqueEmail()));
+        User alice = repository().save(new User(prefix.toUpperCase() + "Alice", uniqueEmail()));
+        User secondAlice = repository().save(new User(prefix + "alice", uniqueEmail()));
+        repository().save(new User("x" + prefix + "alice", uniqueEmail()));
+
+        // Act
+        List<User> found = repository().findPageByNamePrefix(User.nameKey(prefix), null, null, 10);
+
+        // Assert
+        assertEquals(ids(List.of(alice, secondAlice, bob)), ids(found));
+        assertEquals(alice.getName(), found.get(0).getName());
+    }
+
+    @Test
+    void findPageByNamePrefix_ShouldContinueAfterCursorAcrossEqualNames() {
+        // Arrange
+        String prefix = uniqueNamePrefix();
+        List<User> saved = repository().saveAll(List.of(
+                new User(prefix + "same", uniqueEmail()),
+                new User(prefix + "same", uniqueEmail()),
+                new User(prefix + "same", uniqueEmail())));
+        String key = User.nameKey(prefix);
+
+        // Act
+        List<User> first = repository().findPageByNamePrefix(key, null, null, 2);
+        List<User> second = repository().findPageByNamePrefix(key, User.nameKey(prefix + "same"),
+                first.get(1).getId(), 2);
+
+        // Assert
+        assertEquals(ids(saved.subList(0, 2)), ids(first));
+        assertEquals(ids(saved.subList(2, 3)), ids(second));
+    }
+
+    @Test
+    void findPageByNamePrefix_ShouldFollowRenamesAndDeletes() {
+        // Arrange
+        String prefix = uniqueNamePrefix();
+        User renamed = repository().save(new User(prefix + "before", uniqueEmail()));
+        User deleted = repository().save(new User(prefix + "deleted", uniqueEmail()));
+        repository().updateInfo(renamed.getId(), "Other " + prefix, renamed.getEmail(), null);
+        repository().deleteById(deleted.getId());
+        User moved = repository().save(new User("Moved", uniqueEmail()));
+        repository().updateInfo(moved.getId(), prefix + "after", moved.getEmail(), null);
+
+        // Act
+        List<User> found = repository().findPageByNamePrefix(User.nameKey(prefix), null, null, 10);
+
+        // Assert
+        assertEquals(List.of(moved.getId()), ids(found));
+    }
+
+    @Test
+    void forEachUser_ShouldVisitUsersInIdOrder() {
+        // Arrange
+        User first = repository().save(new User("User One", uniqueEmail()));
+        User second = repository().save(new User("User Two", uniqueEmail()));
+        List<Long> visited = new ArrayList<>();
+
+        // Act
+        repository().forEachUser(user -> visited.add(user.getId()));
+
+        // Assert
+        assertTrue(visited.indexOf(first.getId()) < visited.indexOf(second.getId()));
+        for (int i = 1; i < visited.size(); i++) {
+            assertTrue(visited.get(i - 1) < visited.get(i));
+        }
+    }
+
+    @Test
+    void forEachUser_ShouldVisitEveryUser_WhenUsersSpanSeveralPages() {
+        // Arrange: more users than any adapter reads or keeps at a time, on every shard
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < MANY_USERS; i++) {
+            users.add(new User("User " + i, uniqueEmail()));
+        }
+        List<Long> expected = ids(repository().saveAll(users));
+        Set<Long> created = Set.copyOf(expected);
+        List<Long> visited = new ArrayList<>();
+
+        // Act
+        repository().forEachUser(user -> {
+            if (created.contains(user.getId())) {
+                visited.add(user.getId());
+            }
+        });
+
+        // Assert
+        assertEquals(expected, visited);
+    }
+
+    @Test
+    void deleteByIdReturningCount_ShouldReturnOneThenZero() {
+        // Arrange
+        User saved = repository().save(new User("John Doe", uniqueEmail()));
+
+        // Act & Assert
+        assertEquals(1, repository().deleteByIdReturningCount(saved.getId()));
+        assertEquals(0, repository().deleteByIdReturningCount(saved.getId()));
+        assertFalse(repository().existsById(saved.getId()));
+        assertFalse(repository().existsByEmail(saved.getEmail()));
+    }
+
+    @Test
+    void deleteAllByIdIn_ShouldCountOnlyExistingUsers() {
+        // Arrange
+        List<User> saved = repository().saveAll(List.of(
+                new User("User One", uniqueEmail()),
+                new User("User Two", uniqueEmail())));
+
+        // Act
+        int deleted = repository().deleteAllByIdIn(List.of(
+                saved.get(0).getId(), saved.get(1).getId(), saved.get(1).getId(), Long.MAX_VALUE));
+
+        // Assert
+        assertEquals(2, deleted);
+        assertTrue(repository().findById(saved.get(0).getId()).isEmpty());
+    }
+
+    @Test
+    void findExistingEmails_ShouldReturnOnlyTakenEmails() {
+        // Arrange
+        User saved = repository().save(new User("John Doe", uniqueEmail()));
+        String free = uniqueEmail();
+
+        // Act
+        Set<String> existing = repository().findExistingEmails(List.of(saved.getEmail(), free));
+
+        // Assert
+        assertEquals(Set.of(saved.getEmail()), existing);
+    }
+
+    private static List<Long> ids(List<User> users) {
+        return users.stream().map(User::getId).toList();
+    }
+
+    /**
+     * A name prefix no other test's users start with
+     */
+    private static String uniqueNamePrefix() {
+        return "n" + UUID.randomUUID().toString().replace("-", "") + " ";
+    }
+
+    private static String uniqueEmail() {
+        return UUID.randomUUID() + "@example.com";
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.cache;
+
+import com.example.native_jpa_servlet.domain.model.User;
+import com.example.native_jpa_servlet.domain.model.UserStamp;
+import com.example.native_jpa_servlet.domain.port.outbound.UserRepositoryPort;
+import com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.routing.PrimaryReadScope;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CachingUserRepositoryAdapterTest {
+
+    @Mock
+    private UserRepositoryPort delegate;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private CachingUserRepositoryAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        adapter = new CachingUserRepositoryAdapter(delegate, 100, Duration.ofMinutes(1), meterRegistry);
+    }
+
+    @Test
+    void findById_ShouldReadThroughOnce_WhenCalledRepeatedly() {
+        // Arrange
+        User user = new User(1L, "John Doe", "john@example.com", LocalDateTime.now(), LocalDateTime.now());
+        when(delegate.findById(1L)).thenReturn(Optional.of(user));
+
+        // Act
+        adapter.findById(1L);
+        Optional<User> result = adapter.findById(1L);
+
+        // Assert
+        assertTrue(result.isPresent());
+        assertEquals("John Doe", result.get().getName());
+        verify(delegate, times(1)).findById(1L);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "users.byId").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void findById_ShouldLoadFromPrimary_WhenMissing() {
+        // Arrange
+        User user = new User(1L, "John Doe", "john@example.com", LocalDateTime.now(), LocalDateTime.now());
+        AtomicBoolean pinned = new AtomicBoolean();
+        when(delegate.findById(1L)).thenAnswer(invocation -> {
+            pinned.set(PrimaryReadScope.isBound());
+            return Optional.of(user);
+        });
+
+        // Act
+        adapter.findById(1L);
+
+        // Assert
+        assertTrue(pinned.get());
+        assertFalse(PrimaryReadScope.isBound());
+    }
+
+    @Test
+    void findByEmail_ShouldServeFromIdIndex_WhenUserWasLoadedById() {
+        // Arrange
+        User user = new User(1L, "John Doe", "john@example.com", LocalDateTime.now(), LocalDateTime.now());
+        when(delegate.findById(1L)).thenReturn(Optional.of(user));
+
+        // Act
+        adapter.findById(1L);
+        Optional<User> result = adapter.findByEmail("john@example.com");
+
+        // Assert
+        assertTrue(result.isPresent());
+        assertEquals(1L, result.get().getId());
+        verify(delegate, never()).findByEmail(anyString());
+    }
+
+    @Test
+    void save_ShouldInvalidateBothIndexes_WhenEmailChanges() {
+        // Arrange
+        User original = new User(1L, "John Doe", "john@example.com", LocalDateTime.now(), LocalDateTime.now());
+        User changed = new User(1L, "John Doe", "john.doe@example.com", LocalDateTime.now(), LocalDateTime.now());
+        when(delegate.findById(1L)).thenReturn(Optional.of(original), Optional.of(changed));
+        when(delegate.findByEmail("john@example.com")).thenReturn(Optional.empty());
+        when(delegate.save(changed)).thenReturn(changed);
+        adapter.findById(1L);
+
+        // Act
+        adapter.save(changed);
+
+        // Assert
+        assertEquals("john.doe@example.com", adapter.findById(1L).orElseThrow().getEmail());
+        assertTrue(adapter.findByEmail("john@example.com").isEmpty());
+        verify(delegate, times(2)).findById(1L);
+    }
+
+    @Test
+    void deleteById_ShouldEvictUser() {
+        // Arrange
+        User user = new User(1L, "John Doe", "john@example.com", LocalDateTime.now(), LocalDateTime.now());
+        when(delegate.findById(1L)).thenReturn(Optional.of(user), Optional.empty());
+        adapter.findById(1L);
+
+        // Act
+        adapter.deleteById(1L);
+
+        // Assert
+        assertTrue(adapter.findById(1L).isEmpty());
+        verify(delegate).deleteById(1L);
+    }
+
+    @Test
+    void findById_ShouldReturnCopy_SoCallersCannotMutateCachedUser() {
+        // Arrange
+        User user = new User(1L, "John Doe", "john@example.com", LocalDateTime.now(), LocalDateTime.now());
+        when(delegate.findById(1L)).thenReturn(Optional.of(user));
+
+        // Act
+        adapter.findById(1L).orElseThrow().updateInfo("Changed", "changed@example.com");
+
+        // Assert
+        assertEquals("John Doe", adapter.findById(1L).orElseThrow().getName());
+    }
+
+    @Test
+    void findStampById_ShouldServeFromCachedUser_WhenUserWasLoaded() {
+        // Arrange
+        User user = new User(1L, "John Doe", "john@example.com", LocalDateTime.now(), LocalDateTime.now(), 4L);
+        when(delegate.findById(1L)).thenReturn(Optional.of(user));
+        adapter.findById(1L);
+
+        // Act
+        Optional<UserStamp> result = adapter.findStampById(1L);
+
+        // Assert
+        assertTrue(result.isPresent());
+        assertEquals(4L, result.get().getVersion());
+        verify(delegate, never()).findStampById(anyLong());
+    }
+}
@@ -0,0 +1,263 @@
+package com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.durable;
+
+import com.example.native_jpa_servlet.domain.model.User;
+import com.example.native_jpa_servlet.domain.port.outbound.UserRepositoryPort;
+import com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.UserRepositoryPortContractTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the storage contract against the durable adapter, plus recovery from
+ * its files after a restart or a crash in the middle of a write.
+ */
+class DurableUserRepositoryAdapterTest extends UserRepositoryPortContractTest {
+
+    @TempDir
+    Path directory;
+
+    private DurableUserRepositoryAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        adapter = open();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        adapter.close();
+    }
+
+    @Override
+    protected UserRepositoryPort repository() {
+        return adapter;
+    }
+
+    @Test
+    void reopen_ShouldRecoverEveryWriteFromTheLog() throws IOException {
+        // Arrange
+        User kept = adapter.save(new User("John Doe", "john@example.com"));
+        User updated = adapter.save(new User("Jane Doe", "jane@example.com"));
+        User deleted = adapter.save(new User("Bob Smith", "bob@example.com"));
+        User afterUpdate = adapter.updateInfo(updated.getId(), "Jane Smith", "jane.smith@example.com", 0L).orElseThrow();
+        adapter.deleteById(deleted.getId());
+
+        // Act
+        reopen();
+
+        // Assert
+        assertEquals(List.of(kept, afterUpdate), adapter.findAll());
+        assertEquals(1L, adapter.findById(updated.getId()).orElseThrow().getVersion());
+        assertFalse(adapter.existsByEmail("jane@example.com"));
+        assertEquals(2L, adapter.findCollectionStamp().getCount());
+    }
+
+    @Test
+    void reopen_ShouldLoadTheSnapshotAndReplayOnlyTheLogWrittenAfterIt() throws IOException {
+        // Arrange
+        User first = adapter.save(new User("John Doe", "john@example.com"));
+        User second = adapter.save(new User("Jane Doe", "jane@example.com"));
+        adapter.snapshot();
+        adapter.deleteById(first.getId());
+        User third = adapter.save(new User("Bob Smith", "bob@example.com"));
+
+        // Act
+        reopen();
+
+        // Assert
+        assertEquals(List.of(second, third), adapter.findAll());
+        assertEquals(1, files("snapshot-*.dat").size());
+        assertEquals(1, files("wal-*.log").size());
+    }
+
+    @Test
+    void reopen_ShouldDropATornRecordAtTheEndOfTheLogAndKeepAppending() throws IOException {
+        // Arrange
+        User first = adapter.save(new User("John Doe", "john@example.com"));
+        adapter.save(new User("Jane Doe", "jane@example.com"));
+        adapter.close();
+        Path log = files("wal-*.log").get(0);
+        try (RandomAccessFile file = new RandomAccessFile(log.toFile(), "rw")) {
+            file.setLength(file.length() - 5);
+        }
+
+        // Act
+        adapter = open();
+        User third = adapter.save(new User("Bob Smith", "bob@example.com"));
+        reopen();
+
+        // Assert
+        assertEquals(List.of(first, third), adapter.findAll());
+    }
+
+    @Test
+    void reopen_ShouldDropARecordThatFailsItsChecksum() throws IOException {
+        // Arrange
+        User first = adapter.save(new User("John Doe", "john@example.com"));
+        adapter.save(new User("Jane Doe", "jane@example.com"));
+        adapter.close();
+        Path log = files("wal-*.log").get(0);
+        try (RandomAccessFile file = new RandomAccessFile(log.toFile(), "rw")) {
+            file.seek(file.length() - 3);
+            int value = file.read();
+            file.seek(file.length() - 3);
+            file.write(value ^ 0xFF);
+        }
+
+        // Act
+        adapter = open();
+
+        // Assert
+        assertEquals(List.of(first), adapter.findAll());
+        assertTrue(adapter.findByEmail("jane@example.com").isEmpty());
+    }
+
+    @Test
+    void reopen_ShouldDropAWholeBatch_WhenItsRecordIsTorn() throws IOException {
+        // Arrange
+        User first = adapter.save(new User("John Doe", "john@example.com"));
+        adapter.saveAll(List.of(
+                new User("Jane Doe", "jane@example.com"),
+                new User("Bob Smith", "bob@example.com"),
+                new User("Alice Jones", "alice@example.com")));
+        adapter.close();
+        Path log = files("wal-*.log").get(0);
+        try (RandomAccessFile file = new RandomAccessFile(log.toFile(), "rw")) {
+            file.setLength(file.length() - 5);
+        }
+
+        // Act
+        adapter = open();
+
+        // Assert
+        assertEquals(List.of(first), adapter.findAll());
+    }
+
+    @Test
+    void reopen_ShouldRecoverBatchWritesFromTheLog() throws IOException {
+        // Arrange
+        List<User> saved = adapter.saveAll(List.of(
+                new User("John Doe", "john@example.com"),
+                new User("Jane Doe", "jane@example.com"),
+                new User("Bob Smith", "bob@example.com")));
+        adapter.deleteAllByIdIn(List.of(saved.get(0).getId(), saved.get(2).getId()));
+
+        // Act
+        reopen();
+
+        // Assert
+        assertEquals(List.of(saved.get(1)), adapter.findAll());
+        assertFalse(adapter.existsByEmail("john@example.com"));
+    }
+
+    @Test
+    void write_ShouldLeaveTheStoreUnchangedAndRefuseWrites_WhenTheLogCannotBeWritten() throws IOException {
+        // Arrange
+        AtomicBoolean failing = new AtomicBoolean();
+        adapter.close();
+        adapter = new DurableUserRepositoryAdapter(directory, true, 0, new SimpleMeterRegistry(),
+                (file, fsync, syncListener) -> new WriteAheadLog(file, fsync, syncListener) {
+                    @Override
+                    long append(ByteBuffer payload) throws IOException {
+                        if (failing.get()) {
+                            throw new IOException("No space left on device");
+                        }
+                        return super.append(payload);
+                    }
+                });
+        User kept = adapter.save(new User("John Doe", "john@example.com"));
+        failing.set(true);
+
+        // Act
+        assertThrows(UncheckedIOException.class,
+                () -> adapter.updateInfo(kept.getId(), "Jane Doe", "jane@example.com", null));
+
+        // Assert
+        assertEquals(List.of(kept), adapter.findAll());
+        assertEquals("John Doe", adapter.findById(kept.getId()).orElseThrow().getName());
+        assertFalse(adapter.existsByEmail("jane@example.com"));
+        assertThrows(IllegalStateException.class, () -> adapter.save(new User("Bob Smith", "bob@example.com")));
+        reopen();
+        assertEquals(List.of(kept), adapter.findAll());
+        assertEquals(0L, adapter.findById(kept.getId()).orElseThrow().getVersion());
+    }
+
+    @Test
+    void reopen_ShouldIgnoreASnapshotLeftHalfWritten() throws IOException {
+        // Arrange
+        User saved = adapter.save(new User("John Doe", "john@example.com"));
+        adapter.close();
+        Files.write(directory.resolve("snapshot-00000000000000000001.dat.tmp"), new byte[] {1, 2, 3});
+
+        // Act
+        adapter = open();
+
+        // Assert
+        assertEquals(List.of(saved), adapter.findAll());
+        assertTrue(files("*.tmp").isEmpty());
+    }
+
+    @Test
+    void reopen_ShouldFail_WhenTheSnapshotIsCorrupt() throws IOException {
+        // Arrange
+        adapter.save(new User("John Doe", "john@example.com"));
+        adapter.snapshot();
+        adapter.close();
+        Path snapshot = files("snapshot-*.dat").get(0);
+        try (RandomAccessFile file = new RandomAccessFile(snapshot.toFile(), "rw")) {
+            file.seek(30);
+            int value = file.read();
+            file.seek(30);
+            file.write(value ^ 0xFF);
+        }
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, this::open);
+    }
+
+    @Test
+    void save_ShouldNotReuseTheIdOfADeletedUser_AfterReopen() throws IOException {
+        // Arrange
+        adapter.save(new User("John Doe", "john@example.com"));
+        User last = adapter.save(new User("Jane Doe", "jane@example.com"));
+        adapter.snapshot();
+        adapter.deleteById(last.getId());
+
+        // Act
+        reopen();
+        User saved = adapter.save(new User("Bob Smith", "bob@example.com"));
+
+        // Assert
+        assertTrue(saved.getId() > last.getId());
+    }
+
+    private DurableUserRepositoryAdapter open() {
+        return new DurableUserRepositoryAdapter(directory, true, 0, new SimpleMeterRegistry());
+    }
+
+    private void reopen() throws IOException {
+        adapter.close();
+        adapter = open();
+    }
+
+    private List<Path> files(String glob) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> directory.getFileSystem().getPathMatcher("glob:" + glob)
+                    .matches(file.getFileName())).toList();
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.memory;
+
+import com.example.native_jpa_servlet.domain.exception.DuplicateEmailException;
+import com.example.native_jpa_servlet.domain.model.User;
+import com.example.native_jpa_servlet.domain.port.outbound.UserRepositoryPort;
+import com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.UserRepositoryPortContractTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the storage contract against the in-memory adapter, plus the races
+ * its lock-free writes have to get right.
+ */
+class InMemoryUserRepositoryAdapterTest extends UserRepositoryPortContractTest {
+
+    private static final int THREADS = 8;
+
+    private InMemoryUserRepositoryAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        adapter = new InMemoryUserRepositoryAdapter();
+    }
+
+    @Override
+    protected UserRepositoryPort repository() {
+        return adapter;
+    }
+
+    @Test
+    void forEachUser_ShouldVisitNothing_WhenStoreIsEmpty() {
+        // Arrange
+        List<User> visited = new ArrayList<>();
+
+        // Act
+        adapter.forEachUser(visited::add);
+
+        // Assert
+        assertTrue(visited.isEmpty());
+    }
+
+    @Test
+    void save_ShouldLetExactlyOneWriterClaimAnEmail_WhenSavesRace() throws Exception {
+        // Arrange
+        AtomicInteger saved = new AtomicInteger();
+        AtomicInteger duplicates = new AtomicInteger();
+
+        // Act
+        runConcurrently(thread -> {
+            try {
+                adapter.save(new User("User " + thread, "race@example.com"));
+                saved.incrementAndGet();
+            } catch (DuplicateEmailException e) {
+                duplicates.incrementAndGet();
+            }
+        });
+
+        // Assert
+        assertEquals(1, saved.get());
+        assertEquals(THREADS - 1, duplicates.get());
+        assertEquals(1, adapter.findCollectionStamp().getCount());
+    }
+
+    @Test
+    void saveAll_ShouldLetExactlyOneBatchWin_WhenBatchesWithTheSameEmailsRace() throws Exception {
+        // Arrange
+        AtomicInteger saved = new AtomicInteger();
+        AtomicInteger duplicates = new AtomicInteger();
+
+        // Act
+        runConcurrently(thread -> {
+            List<User> users = new ArrayList<>();
+            for (int i = 0; i < 500; i++) {
+                users.add(new User("User " + thread, "user" + i + "@example.com"));
+            }
+            try {
+                adapter.saveAll(users);
+                saved.incrementAndGet();
+            } catch (DuplicateEmailException e) {
+                duplicates.incrementAndGet();
+            }
+        });
+
+        // Assert
+        assertEquals(1, saved.get());
+        assertEquals(THREADS - 1, duplicates.get());
+        assertEquals(500, adapter.findCollectionStamp().getCount());
+    }
+
+    @Test
+    void saveAll_ShouldReleaseItsClaims_WhenTheBatchFails() {
+        // Arrange
+        adapter.save(new User("John Doe", "taken@example.com"));
+        List<User> users = List.of(
+                new User("Jane Doe", "jane@example.com"),
+                new User("Jim Doe", "taken@example.com"));
+
+        // Act
+        assertThrows(DuplicateEmailException.class, () -> adapter.saveAll(users));
+
+        // Assert
+        assertFalse(adapter.existsByEmail("jane@example.com"));
+        assertNotNull(adapter.save(new User("Jane Doe", "jane@example.com")).getId());
+    }
+
+    @Test
+    void updateInfo_ShouldApplyOneUpdatePerVersion_WhenUpdatesRace() throws Exception {
+        // Arrange
+        User user = adapter.save(new User("John Doe", "john@example.com"));
+        AtomicInteger applied = new AtomicInteger();
+
+        // Act
+        runConcurrently(thread -> {
+            if (adapter.updateInfo(user.getId(), "Writer " + thread, "john@example.com", 0L).isPresent()) {
+                applied.incrementAndGet();
+            }
+        });
+
+        // Assert
+        assertEquals(1, applied.get());
+        assertEquals(1L, adapter.findById(user.getId()).orElseThrow().getVersion());
+    }
+
+    @Test
+    void updateInfo_ShouldKeepEmailsUniqueAndIndexed_WhenEmailChangesRace() throws Exception {
+        // Arrange
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            ids.add(adapter.save(new User("User " + i, "user" + i + "@example.com")).getId());
+        }
+
+        // Act: move users between a pool of emails twice their number
+        runConcurrently(thread -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < 2_000; i++) {
+                Long id = ids.get(random.nextInt(ids.size()));
+                try {
+                    adapter.updateInfo(id, "User", "user" + random.nextInt(32) + "@example.com", null);
+                } catch (DuplicateEmailException e) {
+                    // Expected when the email is held by another user
+                }
+            }
+        });
+
+        // Assert
+        Set<String> emails = new HashSet<>();
+        for (User user : adapter.findAll()) {
+            assertTrue(emails.add(user.getEmail()), "Email stored twice: " + user.getEmail());
+            assertEquals(user.getId(), adapter.findByEmail(user.getEmail()).orElseThrow().getId());
+        }
+        assertEquals(16, emails.size());
+    }
+
+    @Test
+    void updateInfo_ShouldKeepTheEmailIndexed_WhenUpdatesMoveOneUserToTheSameEmail() throws Exception {
+        // Arrange
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            ids.add(adapter.save(new User("User " + i, "user" + i + "@example.com")).getId());
+        }
+
+        // Act: every thread moves each user to the same new email at once
+        runConcurrently(thread -> {
+            for (Long id : ids) {
+                adapter.updateInfo(id, "Writer " + thread, "moved" + id + "@example.com", null);
+            }
+        });
+
+        // Assert
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            User user = adapter.findById(id).orElseThrow();
+            assertEquals("moved" + id + "@example.com", user.getEmail());
+            assertEquals(id, adapter.findByEmail(user.getEmail()).orElseThrow().getId());
+            assertFalse(adapter.existsByEmail("user" + i + "@example.com"));
+        }
+    }
+
+    private static void runConcurrently(ThreadTask task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                int current = thread;
+                futures.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    task.run(current);
+                }, executor));
+            }
+            start.countDown();
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ThreadTask {
+        void run(int thread);
+    }
+}
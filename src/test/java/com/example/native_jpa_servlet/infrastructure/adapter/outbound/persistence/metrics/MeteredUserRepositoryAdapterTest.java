@@ -0,0 +1,65 @@
+package com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.metrics;
+
+import com.example.native_jpa_servlet.domain.exception.DuplicateEmailException;
+import com.example.native_jpa_servlet.domain.model.User;
+import com.example.native_jpa_servlet.domain.port.outbound.UserRepositoryPort;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MeteredUserRepositoryAdapterTest {
+
+    @Mock
+    private UserRepositoryPort delegate;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private MeteredUserRepositoryAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        adapter = new MeteredUserRepositoryAdapter(delegate, meterRegistry);
+    }
+
+    @Test
+    void findById_ShouldRecordTimerTaggedByOperation() {
+        // Arrange
+        User user = new User(1L, "John Doe", "john@example.com", LocalDateTime.now(), LocalDateTime.now());
+        when(delegate.findById(1L)).thenReturn(Optional.of(user));
+
+        // Act
+        Optional<User> result = adapter.findById(1L);
+
+        // Assert
+        assertTrue(result.isPresent());
+        assertEquals(1, meterRegistry.get(MeteredUserRepositoryAdapter.CALLS_METRIC)
+                .tag("operation", "findById").timer().count());
+        assertEquals(0, meterRegistry.get(MeteredUserRepositoryAdapter.CALLS_METRIC)
+                .tag("operation", "existsByEmail").timer().count());
+    }
+
+    @Test
+    void save_ShouldCountErrorAndRethrow_WhenDelegateFails() {
+        // Arrange
+        when(delegate.save(any(User.class))).thenThrow(new DuplicateEmailException("john@example.com"));
+
+        // Act & Assert
+        assertThrows(DuplicateEmailException.class, () -> adapter.save(new User("John Doe", "john@example.com")));
+        assertEquals(1, meterRegistry.get(MeteredUserRepositoryAdapter.CALLS_METRIC)
+                .tag("operation", "save").timer().count());
+        assertEquals(1.0, meterRegistry.get(MeteredUserRepositoryAdapter.ERRORS_METRIC)
+                .tag("operation", "save").tag("exception", "DuplicateEmailException").counter().count());
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.routing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReadWriteRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource replica;
+
+    @Mock
+    private Connection primaryConnection;
+
+    @Mock
+    private Connection replicaConnection;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ReadWriteRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        dataSource = new ReadWriteRoutingDataSource(primary, replica, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void getConnection_ShouldUseReplica_WhenTransactionIsReadOnly() throws SQLException {
+        // Arrange
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // Act
+        Connection connection = dataSource.getConnection();
+
+        // Assert
+        assertSame(replicaConnection, connection);
+        assertEquals(1, routed("replica", "read-only"));
+        verifyNoInteractions(primary);
+    }
+
+    @Test
+    void getConnection_ShouldUsePrimary_WhenTransactionIsReadWrite() throws SQLException {
+        // Arrange
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        // Act
+        Connection connection = dataSource.getConnection();
+
+        // Assert
+        assertSame(primaryConnection, connection);
+        assertEquals(1, routed("primary", "read-write"));
+        verifyNoInteractions(replica);
+    }
+
+    @Test
+    void getConnection_ShouldUsePrimaryForReads_WhenPinnedToPrimary() throws SQLException {
+        // Arrange
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // Act
+        Connection connection;
+        try (PrimaryReadScope.Binding ignored = PrimaryReadScope.bind()) {
+            connection = dataSource.getConnection();
+        }
+
+        // Assert
+        assertSame(primaryConnection, connection);
+        assertEquals(1, routed("primary", "read-your-writes"));
+        assertFalse(PrimaryReadScope.isBound());
+    }
+
+    @Test
+    void decorate_ShouldCarryThePinToTheExecutorThread() throws Exception {
+        // Arrange
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        PrimaryReadScopeTaskDecorator decorator = new PrimaryReadScopeTaskDecorator();
+        Executor decorated = task -> executor.execute(decorator.decorate(task));
+        boolean[] bound = new boolean[2];
+
+        // Act
+        try {
+            try (PrimaryReadScope.Binding ignored = PrimaryReadScope.bind()) {
+                submit(decorated, () -> bound[0] = PrimaryReadScope.isBound()).get();
+            }
+            submit(decorated, () -> bound[1] = PrimaryReadScope.isBound()).get();
+        } finally {
+            executor.shutdown();
+        }
+
+        // Assert
+        assertTrue(bound[0]);
+        assertFalse(bound[1]);
+    }
+
+    private double routed(String target, String reason) {
+        return meterRegistry.get(ReadWriteRoutingDataSource.ROUTING_METRIC)
+                .tag("target", target)
+                .tag("reason", reason)
+                .counter()
+                .count();
+    }
+
+    private static Future<?> submit(Executor executor, Runnable task) {
+        FutureTask<Void> future = new FutureTask<>(task, null);
+        executor.execute(future);
+        return future;
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.routing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Boots the application with the replica profile, so the replica is the
+ * local H2 database whose users table links to the primary's, and checks
+ * where a client's reads go after it writes.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles({"test", "replica"})
+class ReplicaRoutingTest {
+
+    private static final String READ_YOUR_WRITES_COOKIE = "read-your-writes-until";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void getUser_ShouldReadFromReplica_WhenClientHasNotWritten() throws Exception {
+        // Arrange
+        String email = uniqueEmail();
+        long id = id(perform(createUser(email)).andExpect(status().isCreated()).andReturn());
+        double replicaReads = replicaReads();
+
+        // Act & Assert
+        perform(get("/api/users/" + id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value(email));
+        assertTrue(replicaReads() > replicaReads);
+    }
+
+    @Test
+    void getUser_ShouldReadFromPrimary_WhenClientHasJustWritten() throws Exception {
+        // Arrange
+        String email = uniqueEmail();
+        MvcResult created = mockMvc.perform(createUser(email))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        Cookie cookie = created.getResponse().getCookie(READ_YOUR_WRITES_COOKIE);
+        long id = id(mockMvc.perform(asyncDispatch(created)).andReturn());
+        double replicaReads = replicaReads();
+
+        // Act & Assert
+        assertNotNull(cookie);
+        perform(get("/api/users/" + id).cookie(cookie))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value(email));
+        assertEquals(replicaReads, replicaReads());
+    }
+
+    @Test
+    void getAllUsers_ShouldLoadPageSnapshotFromPrimary_WhenClientHasNotWritten() throws Exception {
+        // Arrange
+        perform(createUser(uniqueEmail())).andExpect(status().isCreated());
+        double replicaReads = replicaReads();
+
+        // Act & Assert
+        perform(get("/api/users").param("limit", "10")).andExpect(status().isOk());
+        assertEquals(replicaReads, replicaReads());
+    }
+
+    private double replicaReads() {
+        return meterRegistry.get(ReadWriteRoutingDataSource.ROUTING_METRIC)
+                .tag("target", "replica")
+                .counter()
+                .count();
+    }
+
+    private long id(MvcResult result) throws Exception {
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+    }
+
+    /**
+     * Perform a request against an endpoint that completes asynchronously,
+     * and dispatch its result
+     */
+    private ResultActions perform(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+
+    private static MockHttpServletRequestBuilder createUser(String email) {
+        return post("/api/users").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"John Doe\",\"email\":\"" + email + "\"}");
+    }
+
+    private static String uniqueEmail() {
+        return UUID.randomUUID() + "@example.com";
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.sharded;
+
+import com.example.native_jpa_servlet.domain.exception.DuplicateEmailException;
+import com.example.native_jpa_servlet.domain.model.User;
+import com.example.native_jpa_servlet.domain.port.outbound.UserRepositoryPort;
+import com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.UserRepositoryPortContractTest;
+import com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.statement.CountingDataSource;
+import com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.statement.SqlStatementCounter;
+import com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.statement.SqlStatementScope;
+import com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.statement.SqlStatementScopeTaskDecorator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the storage contract against the sharded adapter over three H2
+ * in-memory databases, plus the routing and cross-shard behaviour only it has.
+ */
+class ShardedUserRepositoryAdapterTest extends UserRepositoryPortContractTest {
+
+    private static final int SHARDS = 3;
+    private static final int THREADS = 8;
+
+    private List<DataSource> dataSources;
+    private ShardedUserRepositoryAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        String name = UUID.randomUUID().toString();
+        dataSources = new ArrayList<>();
+        for (int i = 0; i < SHARDS; i++) {
+            dataSources.add(new DriverManagerDataSource(
+                    "jdbc:h2:mem:" + name + "-" + i + ";DB_CLOSE_DELAY=-1", "sa", ""));
+        }
+        adapter = new ShardedUserRepositoryAdapter(dataSources, 2, Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        adapter.close();
+        for (DataSource dataSource : dataSources) {
+            new JdbcTemplate(dataSource).execute("SHUTDOWN");
+        }
+    }
+
+    @Override
+    protected UserRepositoryPort repository() {
+        return adapter;
+    }
+
+    @Test
+    void forEachUser_ShouldVisitNothing_WhenStoreIsEmpty() {
+        // Arrange
+        List<User> visited = new ArrayList<>();
+
+        // Act
+        adapter.forEachUser(visited::add);
+
+        // Assert
+        assertTrue(visited.isEmpty());
+    }
+
+    @Test
+    void save_ShouldStoreEachUserOnlyOnTheShardItsIdHashesTo() {
+        // Arrange
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            users.add(new User("User " + i, "user" + i + "@example.com"));
+        }
+
+        // Act
+        List<User> saved = adapter.saveAll(users);
+
+        // Assert
+        Set<Integer> usedShards = new HashSet<>();
+        for (User user : saved) {
+            int home = adapter.shardIndexOf(user.getId());
+            usedShards.add(home);
+            for (int i = 0; i < SHARDS; i++) {
+                assertEquals(i == home ? 1 : 0, countUsers(i, user.getId()));
+            }
+        }
+        assertEquals(SHARDS, usedShards.size());
+    }
+
+    @Test
+    void save_ShouldLetExactlyOneWriterClaimAnEmail_WhenSavesRace() throws Exception {
+        // Arrange
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger duplicates = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        // Act
+        for (int thread = 0; thread < THREADS; thread++) {
+            String name = "User " + thread;
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    adapter.save(new User(name, "race@example.com"));
+                } catch (DuplicateEmailException e) {
+                    duplicates.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Assert
+        assertEquals(THREADS - 1, duplicates.get());
+        assertEquals(1, adapter.findCollectionStamp().getCount());
+        assertTrue(adapter.existsByEmail("race@example.com"));
+    }
+
+    @Test
+    void save_ShouldTakeOverAClaimLeftBehind_OnlyOnceItIsOlderThanTheTimeout() {
+        // Arrange: claims without a user, as left by a write that crashed half way
+        insertClaimOnEveryShard("stale@example.com", LocalDateTime.now().minusHours(1));
+        insertClaimOnEveryShard("recent@example.com", LocalDateTime.now());
+
+        // Act
+        User saved = adapter.save(new User("John Doe", "stale@example.com"));
+
+        // Assert
+        assertEquals(saved.getId(), adapter.findByEmail("stale@example.com").orElseThrow().getId());
+        assertFalse(adapter.existsByEmail("recent@example.com"));
+        assertThrows(DuplicateEmailException.class,
+                () -> adapter.save(new User("Jane Doe", "recent@example.com")));
+    }
+
+    @Test
+    void findPage_ShouldMergeShardsInIdOrder_WhenPagingThroughAllUsers() {
+        // Arrange
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            users.add(new User("User " + i, "user" + i + "@example.com"));
+        }
+        List<Long> expected = ids(adapter.saveAll(users));
+
+        // Act
+        List<Long> paged = new ArrayList<>();
+        List<User> page = adapter.findPage(null, 7);
+        while (!page.isEmpty()) {
+            paged.addAll(ids(page));
+            page = adapter.findPage(page.get(page.size() - 1).getId(), 7);
+        }
+
+        // Assert
+        assertEquals(expected, paged);
+    }
+
+    @Test
+    void findPage_ShouldCountAStatementPerShard_WhenDataSourcesAreCounted() throws IOException {
+        // Arrange
+        List<DataSource> counted = new ArrayList<>();
+        for (DataSource dataSource : dataSources) {
+            counted.add(new CountingDataSource(dataSource));
+        }
+        ShardedUserRepositoryAdapter countedAdapter = new ShardedUserRepositoryAdapter(
+                counted, 2, Duration.ofMinutes(1), new SqlStatementScopeTaskDecorator());
+
+        // Act
+        SqlStatementScope scope = SqlStatementCounter.count(() -> countedAdapter.findPage(null, 10));
+        countedAdapter.close();
+
+        // Assert
+        assertEquals(SHARDS, scope.count(SqlStatementScope.Kind.SELECT));
+        assertEquals(SHARDS, scope.statements());
+    }
+
+    private int countUsers(int shard, long id) {
+        return new JdbcTemplate(dataSources.get(shard))
+                .queryForObject("SELECT COUNT(*) FROM users WHERE id = ?", Integer.class, id);
+    }
+
+    private void insertClaimOnEveryShard(String email, LocalDateTime claimedAt) {
+        for (DataSource dataSource : dataSources) {
+            new JdbcTemplate(dataSource).update(
+                    "INSERT INTO user_emails (email, user_id, claimed_at) VALUES (?, ?, ?)",
+                    email, Long.MAX_VALUE, claimedAt);
+        }
+    }
+
+    private static List<Long> ids(List<User> users) {
+        List<Long> ids = new ArrayList<>();
+        for (User user : users) {
+            ids.add(user.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.statement;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import java.sql.Connection;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountingDataSourceHintsTest {
+
+    @Test
+    void registerHints_ShouldRegisterConnectionAndStatementProxies() {
+        // Arrange
+        RuntimeHints hints = new RuntimeHints();
+
+        // Act
+        new CountingDataSource.Hints().registerHints(hints, getClass().getClassLoader());
+
+        // Assert
+        assertTrue(RuntimeHintsPredicates.proxies().forInterfaces(Connection.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.proxies().forInterfaces(Statement.class).test(hints));
+    }
+}
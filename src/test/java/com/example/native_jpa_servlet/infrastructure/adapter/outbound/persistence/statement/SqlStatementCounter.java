@@ -0,0 +1,49 @@
+package com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.statement;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Test helper that counts the SQL statements Hibernate runs for an action on
+ * the current thread. Sequence fetches are not counted, see
+ * {@link SqlStatementScope#statements()}.
+ * Requires a Spring context, so that the CountingStatementInspector is installed.
+ */
+public final class SqlStatementCounter {
+    
+    private SqlStatementCounter() {
+    }
+    
+    /**
+     * Run the action and return the statements it ran
+     */
+    public static SqlStatementScope count(Runnable action) {
+        SqlStatementScope scope = new SqlStatementScope();
+        try (SqlStatementScope.Binding ignored = scope.bind()) {
+            action.run();
+        }
+        return scope;
+    }
+    
+    /**
+     * Run the action and assert it ran exactly the expected number of statements
+     * @return the action's result
+     */
+    public static <T> T assertStatements(int expected, Supplier<T> action) {
+        SqlStatementScope scope = new SqlStatementScope();
+        T result;
+        try (SqlStatementScope.Binding ignored = scope.bind()) {
+            result = action.get();
+        }
+        assertEquals(expected, scope.statements(), () -> "Unexpected SQL statements: " + scope.summary());
+        return result;
+    }
+    
+    public static void assertStatements(int expected, Runnable action) {
+        assertStatements(expected, () -> {
+            action.run();
+            return null;
+        });
+    }
+}
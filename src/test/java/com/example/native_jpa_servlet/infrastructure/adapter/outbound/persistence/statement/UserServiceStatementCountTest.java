@@ -0,0 +1,158 @@
+package com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.statement;
+
+import com.example.native_jpa_servlet.domain.exception.VersionConflictException;
+import com.example.native_jpa_servlet.domain.model.User;
+import com.example.native_jpa_servlet.domain.model.UserField;
+import com.example.native_jpa_servlet.domain.port.inbound.UserServicePort;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+
+import static com.example.native_jpa_servlet.infrastructure.adapter.outbound.persistence.statement.SqlStatementCounter.assertStatements;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pins the number of SQL statements each UserService use case runs against
+ * the JPA adapter. The cache is off so every lookup reaches the database and
+ * the counts are deterministic.
+ */
+@SpringBootTest(properties = {
+        "app.user-cache.enabled=false"
+})
+@ActiveProfiles("test")
+class UserServiceStatementCountTest {
+
+    @Autowired
+    private UserServicePort userServicePort;
+
+    @Test
+    void createUser_ShouldRunOneInsert() {
+        assertStatements(1, () -> userServicePort.createUser("John Doe", uniqueEmail()));
+    }
+
+    @Test
+    void createUsers_ShouldRunOneLookupAndOneBatchedInsert() {
+        // Arrange
+        List<User> users = List.of(
+                new User("User One", uniqueEmail()),
+                new User("User Two", uniqueEmail()),
+                new User("User Three", uniqueEmail()));
+
+        // Act & Assert
+        assertStatements(2, () -> userServicePort.createUsers(users));
+    }
+
+    @Test
+    void findUserById_ShouldRunOneSelect() {
+        User user = userServicePort.createUser("John Doe", uniqueEmail());
+
+        assertStatements(1, () -> userServicePort.findUserById(user.getId()));
+    }
+
+    @Test
+    void findUserByEmail_ShouldRunOneSelect() {
+        User user = userServicePort.createUser("John Doe", uniqueEmail());
+
+        assertStatements(1, () -> userServicePort.findUserByEmail(user.getEmail()));
+    }
+
+    @Test
+    void findUserByIdWithFields_ShouldRunOneSelect() {
+        User user = userServicePort.createUser("John Doe", uniqueEmail());
+
+        User found = assertStatements(1,
+                () -> userServicePort.findUserById(user.getId(), EnumSet.of(UserField.ID, UserField.EMAIL)));
+
+        assertEquals(user.getEmail(), found.getEmail());
+        assertNull(found.getName());
+    }
+
+    @Test
+    void getUsersPageWithFields_ShouldRunOneSelect() {
+        userServicePort.createUser("John Doe", uniqueEmail());
+
+        assertStatements(1, () -> userServicePort.getUsersPage(null, 10, EnumSet.of(UserField.EMAIL)));
+    }
+
+    @Test
+    void searchUsersByName_ShouldRunOneSelect() {
+        userServicePort.createUser("John Doe", uniqueEmail());
+
+        assertStatements(1, () -> userServicePort.searchUsersByName("john", null, 10));
+    }
+
+    @Test
+    void findUserStampById_ShouldRunOneSelect() {
+        User user = userServicePort.createUser("John Doe", uniqueEmail());
+
+        assertStatements(1, () -> userServicePort.findUserStampById(user.getId()));
+    }
+
+    @Test
+    void getUsersStamp_ShouldRunOneAggregate() {
+        userServicePort.createUser("John Doe", uniqueEmail());
+
+        assertStatements(1, () -> userServicePort.getUsersStamp());
+    }
+
+    @Test
+    void getUsersPage_ShouldRunOneSelect() {
+        userServicePort.createUser("John Doe", uniqueEmail());
+
+        assertStatements(1, () -> userServicePort.getUsersPage(null, 10));
+    }
+
+    @Test
+    void updateUser_ShouldRunOneUpdateAndOneSelect() {
+        User user = userServicePort.createUser("John Doe", uniqueEmail());
+
+        User updated = assertStatements(2,
+                () -> userServicePort.updateUser(user.getId(), "Jane Doe", user.getEmail(), user.getVersion()));
+
+        assertEquals("Jane Doe", updated.getName());
+    }
+
+    @Test
+    void updateUser_ShouldRunOneUpdateAndOneExistsCheck_WhenVersionIsStale() {
+        User user = userServicePort.createUser("John Doe", uniqueEmail());
+        userServicePort.updateUser(user.getId(), "Jane Doe", user.getEmail(), user.getVersion());
+
+        assertStatements(2, () -> assertThrows(VersionConflictException.class,
+                () -> userServicePort.updateUser(user.getId(), "Jim Doe", user.getEmail(), user.getVersion())));
+    }
+
+    @Test
+    void deleteUser_ShouldRunOneDelete() {
+        User user = userServicePort.createUser("John Doe", uniqueEmail());
+
+        assertStatements(1, () -> userServicePort.deleteUser(user.getId()));
+    }
+
+    @Test
+    void deleteUsers_ShouldRunOneDelete() {
+        User first = userServicePort.createUser("User One", uniqueEmail());
+        User second = userServicePort.createUser("User Two", uniqueEmail());
+
+        int deleted = assertStatements(1, () -> userServicePort.deleteUsers(List.of(first.getId(), second.getId())));
+
+        assertEquals(2, deleted);
+    }
+
+    @Test
+    void deleteUsers_ShouldRunNoStatement_WhenAnIdIsNull() {
+        User user = userServicePort.createUser("User One", uniqueEmail());
+
+        assertStatements(0, () -> assertThrows(IllegalArgumentException.class,
+                () -> userServicePort.deleteUsers(Arrays.asList(user.getId(), null))));
+    }
+
+    private static String uniqueEmail() {
+        return "user-" + UUID.randomUUID() + "@example.com";
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.native_jpa_servlet.infrastructure.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualThreadBulkheadExecutorTest {
+
+    private final AtomicInteger rejections = new AtomicInteger();
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private VirtualThreadBulkheadExecutor executor;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        release.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void execute_ShouldRunTaskOnVirtualThread() throws Exception {
+        // Arrange
+        executor = bulkhead(1, 0, Duration.ZERO);
+
+        // Act
+        boolean virtual = CompletableFuture.supplyAsync(() -> Thread.currentThread().isVirtual(), executor)
+                .get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertTrue(virtual);
+    }
+
+    @Test
+    void execute_ShouldApplyTaskDecorator() throws Exception {
+        // Arrange
+        AtomicInteger decorated = new AtomicInteger();
+        executor = new VirtualThreadBulkheadExecutor("test-", 1, 0, Duration.ZERO,
+                task -> () -> {
+                    decorated.incrementAndGet();
+                    task.run();
+                },
+                rejections::incrementAndGet);
+
+        // Act
+        CompletableFuture.runAsync(() -> { }, executor).get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(1, decorated.get());
+    }
+
+    @Test
+    void execute_ShouldRejectAtOnce_WhenQueueIsFull() throws Exception {
+        // Arrange
+        executor = bulkhead(1, 0, Duration.ofMinutes(1));
+        executor.execute(this::awaitRelease);
+
+        // Act & Assert
+        assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> { }));
+        assertEquals(1, rejections.get());
+        assertEquals(1, executor.getActiveCount());
+    }
+
+    @Test
+    void execute_ShouldRejectAfterMaxWait_WhenLimitStaysReached() {
+        // Arrange
+        executor = bulkhead(1, 1, Duration.ofMillis(50));
+        executor.execute(this::awaitRelease);
+
+        // Act & Assert
+        assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> { }));
+        assertEquals(1, rejections.get());
+        assertEquals(0, executor.getWaitingCount());
+    }
+
+    @Test
+    void execute_ShouldRunWaitingTask_WhenRunningTaskFinishesWithinMaxWait() throws Exception {
+        // Arrange
+        executor = bulkhead(1, 1, Duration.ofSeconds(5));
+        CountDownLatch finished = new CountDownLatch(1);
+        executor.execute(this::awaitRelease);
+        Thread.ofVirtual().start(() -> {
+            sleep(50);
+            release.countDown();
+        });
+
+        // Act
+        executor.execute(finished::countDown);
+
+        // Assert
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        assertEquals(0, rejections.get());
+    }
+
+    @Test
+    void execute_ShouldReject_WhenShutDown() {
+        // Arrange
+        executor = bulkhead(1, 1, Duration.ZERO);
+        executor.shutdown();
+
+        // Act & Assert
+        assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> { }));
+        assertTrue(executor.isTerminated());
+    }
+
+    private VirtualThreadBulkheadExecutor bulkhead(int concurrencyLimit, int queueCapacity, Duration maxWait) {
+        return new VirtualThreadBulkheadExecutor("test-", concurrencyLimit, queueCapacity, maxWait, null,
+                rejections::incrementAndGet);
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}